@@ -0,0 +1,10 @@
+-- ================================================================
+-- PostgreSQL migration: code-only coupons
+-- Generated coupons are redeemable with their code only and are left out of
+-- the active coupon queries that feed applicable-coupons and apply-best.
+-- Run once, after create_all_tables.sql or migrate_to_unified_coupon_table.sql.
+
+ALTER TABLE coupons.coupon ADD COLUMN code_only BOOLEAN NOT NULL DEFAULT FALSE;
+
+DROP INDEX IF EXISTS coupons.idx_coupon_type_active_expiry;
+CREATE INDEX idx_coupon_type_active_expiry ON coupons.coupon(coupon_type, is_active, code_only, expiration_date);
@@ -0,0 +1,9 @@
+-- ================================================================
+-- PostgreSQL migration: coupon creation time
+-- The code filter of each instance adds the codes created since its previous
+-- sync, including those of other instances and direct inserts. Run once,
+-- after add_code_only_coupons.sql.
+
+ALTER TABLE coupons.coupon ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX idx_coupon_created_at ON coupons.coupon(created_at);
@@ -0,0 +1,22 @@
+-- ================================================================
+-- PostgreSQL migration: coupon usage limits and redemption totals
+-- Adds the optional usage_limit column and the coupon_redemption table that
+-- the application flushes its in-memory redemption counters into.
+-- Run once against a database created before redemption tracking existed.
+
+BEGIN;
+
+ALTER TABLE coupons.coupon ADD COLUMN usage_limit INTEGER;
+ALTER TABLE coupons.coupon ADD CONSTRAINT chk_coupon_usage_limit_positive
+    CHECK (usage_limit IS NULL OR usage_limit > 0);
+
+CREATE TABLE coupons.coupon_redemption (
+    coupon_id BIGINT PRIMARY KEY REFERENCES coupons.coupon(id) ON DELETE CASCADE,
+    redeemed_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Constraints
+    CONSTRAINT chk_redeemed_count_non_negative CHECK (redeemed_count >= 0)
+);
+
+COMMIT;
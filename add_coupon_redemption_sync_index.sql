@@ -0,0 +1,6 @@
+-- ================================================================
+-- PostgreSQL migration: incremental sync of redemption totals
+-- The redemption counters re-read only the coupon_redemption rows changed
+-- since their previous sync. Run once, after add_coupon_redemption.sql.
+
+CREATE INDEX idx_coupon_redemption_updated_at ON coupons.coupon_redemption(updated_at);
@@ -0,0 +1,27 @@
+-- ================================================================
+-- PostgreSQL migration: per-customer usage limits
+-- Adds the optional per_customer_limit column and the customer_redemption
+-- table behind the application's in-memory per-customer redemption ledger.
+-- Run once, after add_coupon_redemption.sql.
+
+BEGIN;
+
+ALTER TABLE coupons.coupon ADD COLUMN per_customer_limit INTEGER;
+ALTER TABLE coupons.coupon ADD CONSTRAINT chk_coupon_per_customer_limit_positive
+    CHECK (per_customer_limit IS NULL OR per_customer_limit > 0);
+
+CREATE TABLE coupons.customer_redemption (
+    coupon_id BIGINT NOT NULL REFERENCES coupons.coupon(id) ON DELETE CASCADE,
+    customer_id BIGINT NOT NULL,
+    redeemed_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (coupon_id, customer_id),
+
+    -- Constraints
+    CONSTRAINT chk_customer_redeemed_count_non_negative CHECK (redeemed_count >= 0)
+);
+
+CREATE INDEX idx_customer_redemption_updated_at ON coupons.customer_redemption(updated_at);
+
+COMMIT;
@@ -0,0 +1,19 @@
+-- ================================================================
+-- PostgreSQL migration: signed coupon codes
+-- Adds the serial sequence for signed codes and the table recording which
+-- serials have been redeemed. Run once, after use_pooled_coupon_ids.sql.
+
+BEGIN;
+
+-- Reserved 1000 at a time; must match SignedCodeStore.SERIAL_BLOCK_SIZE
+CREATE SEQUENCE coupons.signed_code_serial_seq START 1 INCREMENT 1000;
+
+CREATE TABLE coupons.signed_code_redemption (
+    coupon_id BIGINT NOT NULL REFERENCES coupons.coupon(id) ON DELETE CASCADE,
+    serial BIGINT NOT NULL,
+    redeemed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (coupon_id, serial)
+);
+
+COMMIT;
@@ -7,28 +7,56 @@
 -- ================================================================
 CREATE SCHEMA IF NOT EXISTS coupons;
 
+DROP TABLE IF EXISTS coupons.signed_code_redemption CASCADE;
+DROP TABLE IF EXISTS coupons.customer_redemption CASCADE;
+DROP TABLE IF EXISTS coupons.coupon_redemption CASCADE;
 DROP TABLE IF EXISTS coupons.bxgy_get_products CASCADE;
 DROP TABLE IF EXISTS coupons.bxgy_buy_products CASCADE;
 DROP TABLE IF EXISTS coupons.bxgy_coupon CASCADE;
 DROP TABLE IF EXISTS coupons.product_wise_coupon CASCADE;
 DROP TABLE IF EXISTS coupons.cart_wise_coupon CASCADE;
+DROP TABLE IF EXISTS coupons.coupon CASCADE;
 DROP SEQUENCE IF EXISTS coupons.hibernate_sequence CASCADE;
+DROP SEQUENCE IF EXISTS coupons.signed_code_serial_seq CASCADE;
 
 -- ================================================================
 -- CREATE SEQUENCE for ID generation
 -- ================================================================
-CREATE SEQUENCE coupons.hibernate_sequence START 1 INCREMENT 1;
+-- The application takes ids in blocks of 50 per call (pooled-lo optimizer);
+-- the increment must match allocationSize on the Coupon entity
+CREATE SEQUENCE coupons.hibernate_sequence START 1 INCREMENT 50;
+
+-- Serials of signed coupon codes, reserved 1000 at a time
+CREATE SEQUENCE coupons.signed_code_serial_seq START 1 INCREMENT 1000;
 
 -- ================================================================
--- 1. CART_WISE_COUPON TABLE
+-- 1. COUPON TABLE (columns shared by every coupon type)
 -- ================================================================
-CREATE TABLE coupons.cart_wise_coupon (
+-- coupon_type is the JPA discriminator; each type keeps its own columns in a
+-- table joined on the same id (JOINED inheritance)
+CREATE TABLE coupons.coupon (
     id BIGINT PRIMARY KEY DEFAULT nextval('coupons.hibernate_sequence'),
     code VARCHAR(255) UNIQUE NOT NULL,
     expiration_date DATE NOT NULL,
     is_active BOOLEAN NOT NULL DEFAULT TRUE,
     description TEXT,
-    coupon_type VARCHAR(50) NOT NULL DEFAULT 'CART_WISE',
+    coupon_type VARCHAR(50) NOT NULL,
+    usage_limit INTEGER,
+    per_customer_limit INTEGER,
+    code_only BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Constraints
+    CONSTRAINT chk_coupon_type CHECK (coupon_type IN ('CART_WISE', 'PRODUCT_WISE', 'BXGY')),
+    CONSTRAINT chk_coupon_usage_limit_positive CHECK (usage_limit IS NULL OR usage_limit > 0),
+    CONSTRAINT chk_coupon_per_customer_limit_positive CHECK (per_customer_limit IS NULL OR per_customer_limit > 0)
+);
+
+-- ================================================================
+-- 2. CART_WISE_COUPON TABLE
+-- ================================================================
+CREATE TABLE coupons.cart_wise_coupon (
+    id BIGINT PRIMARY KEY REFERENCES coupons.coupon(id) ON DELETE CASCADE,
     threshold DECIMAL(10,2) NOT NULL,
     discount_percentage DECIMAL(5,2) NOT NULL,
 
@@ -38,15 +66,10 @@ CREATE TABLE coupons.cart_wise_coupon (
 );
 
 -- ================================================================
--- 2. PRODUCT_WISE_COUPON TABLE
+-- 3. PRODUCT_WISE_COUPON TABLE
 -- ================================================================
 CREATE TABLE coupons.product_wise_coupon (
-    id BIGINT PRIMARY KEY DEFAULT nextval('coupons.hibernate_sequence'),
-    code VARCHAR(255) UNIQUE NOT NULL,
-    expiration_date DATE NOT NULL,
-    is_active BOOLEAN NOT NULL DEFAULT TRUE,
-    description TEXT,
-    coupon_type VARCHAR(50) NOT NULL DEFAULT 'PRODUCT_WISE',
+    id BIGINT PRIMARY KEY REFERENCES coupons.coupon(id) ON DELETE CASCADE,
     product_id BIGINT NOT NULL,
     discount_percentage DECIMAL(5,2) NOT NULL,
 
@@ -55,15 +78,10 @@ CREATE TABLE coupons.product_wise_coupon (
 );
 
 -- ================================================================
--- 3. BXGY_COUPON TABLE
+-- 4. BXGY_COUPON TABLE
 -- ================================================================
 CREATE TABLE coupons.bxgy_coupon (
-    id BIGINT PRIMARY KEY DEFAULT nextval('coupons.hibernate_sequence'),
-    code VARCHAR(255) UNIQUE NOT NULL,
-    expiration_date DATE NOT NULL,
-    is_active BOOLEAN NOT NULL DEFAULT TRUE,
-    description TEXT,
-    coupon_type VARCHAR(50) NOT NULL DEFAULT 'BXGY',
+    id BIGINT PRIMARY KEY REFERENCES coupons.coupon(id) ON DELETE CASCADE,
     repetition_limit INTEGER NOT NULL,
 
     -- Constraints
@@ -71,7 +89,7 @@ CREATE TABLE coupons.bxgy_coupon (
 );
 
 -- ================================================================
--- 4. BXGY_BUY_PRODUCTS TABLE (ElementCollection for buyProducts Map)
+-- 5. BXGY_BUY_PRODUCTS TABLE (ElementCollection for buyProducts Map)
 -- ================================================================
 CREATE TABLE coupons.bxgy_buy_products (
     coupon_id BIGINT NOT NULL,
@@ -86,7 +104,7 @@ CREATE TABLE coupons.bxgy_buy_products (
 );
 
 -- ================================================================
--- 5. BXGY_GET_PRODUCTS TABLE (ElementCollection for getProducts Map)
+-- 6. BXGY_GET_PRODUCTS TABLE (ElementCollection for getProducts Map)
 -- ================================================================
 CREATE TABLE coupons.bxgy_get_products (
     coupon_id BIGINT NOT NULL,
@@ -100,19 +118,66 @@ CREATE TABLE coupons.bxgy_get_products (
     CONSTRAINT chk_get_quantity_positive CHECK (quantity > 0)
 );
 
+-- ================================================================
+-- 7. COUPON_REDEMPTION TABLE (redemption totals, written in batches)
+-- ================================================================
+-- The application counts redemptions in memory and adds them here on a fixed
+-- interval, so checkout never updates this table row by row
+CREATE TABLE coupons.coupon_redemption (
+    coupon_id BIGINT PRIMARY KEY REFERENCES coupons.coupon(id) ON DELETE CASCADE,
+    redeemed_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Constraints
+    CONSTRAINT chk_redeemed_count_non_negative CHECK (redeemed_count >= 0)
+);
+
+-- ================================================================
+-- 8. CUSTOMER_REDEMPTION TABLE (per-customer totals, written in batches)
+-- ================================================================
+-- Only coupons with a per_customer_limit are tracked here
+CREATE TABLE coupons.customer_redemption (
+    coupon_id BIGINT NOT NULL REFERENCES coupons.coupon(id) ON DELETE CASCADE,
+    customer_id BIGINT NOT NULL,
+    redeemed_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (coupon_id, customer_id),
+
+    -- Constraints
+    CONSTRAINT chk_customer_redeemed_count_non_negative CHECK (redeemed_count >= 0)
+);
+
+-- ================================================================
+-- 9. SIGNED_CODE_REDEMPTION TABLE (used serials of signed codes)
+-- ================================================================
+-- Signed codes are not stored; a row here marks one serial as redeemed
+CREATE TABLE coupons.signed_code_redemption (
+    coupon_id BIGINT NOT NULL REFERENCES coupons.coupon(id) ON DELETE CASCADE,
+    serial BIGINT NOT NULL,
+    redeemed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (coupon_id, serial)
+);
+
 -- ================================================================
 -- CREATE INDEXES for Performance Optimization
 -- ================================================================
 
--- Indexes for coupon code lookups (used frequently)
-CREATE INDEX idx_cart_wise_code ON coupons.cart_wise_coupon(code);
-CREATE INDEX idx_product_wise_code ON coupons.product_wise_coupon(code);
-CREATE INDEX idx_bxgy_code ON coupons.bxgy_coupon(code);
+-- Coupon code lookups use the unique index on coupons.coupon(code)
+
+-- Index for active coupon queries, per type (generated, code-only coupons are skipped)
+CREATE INDEX idx_coupon_type_active_expiry ON coupons.coupon(coupon_type, is_active, code_only, expiration_date);
 
--- Indexes for active coupon queries
-CREATE INDEX idx_cart_wise_active_expiry ON coupons.cart_wise_coupon(is_active, expiration_date);
-CREATE INDEX idx_product_wise_active_expiry ON coupons.product_wise_coupon(is_active, expiration_date);
-CREATE INDEX idx_bxgy_active_expiry ON coupons.bxgy_coupon(is_active, expiration_date);
+-- Keyset pagination order for the coupon listing (type, then id)
+CREATE INDEX idx_coupon_type_id ON coupons.coupon(coupon_type, id);
+
+-- Codes created since the last sync of the code filter
+CREATE INDEX idx_coupon_created_at ON coupons.coupon(created_at);
+
+-- Rows changed since the last sync of the redemption counters and the per-customer ledger
+CREATE INDEX idx_coupon_redemption_updated_at ON coupons.coupon_redemption(updated_at);
+CREATE INDEX idx_customer_redemption_updated_at ON coupons.customer_redemption(updated_at);
 
 -- Index for product-wise coupon queries by product_id
 CREATE INDEX idx_product_wise_product_id ON coupons.product_wise_coupon(product_id);
@@ -126,25 +191,39 @@ CREATE INDEX idx_bxgy_get_product_id ON coupons.bxgy_get_products(product_id);
 -- ================================================================
 
 -- Sample Cart-Wise Coupons
-INSERT INTO coupons.cart_wise_coupon (code, expiration_date, is_active, description, coupon_type, threshold, discount_percentage) VALUES
-('CART10', '2025-12-31', TRUE, '10% off on cart value above $100', 'CART_WISE', 100.00, 10.00),
-('CART20', '2025-12-31', TRUE, '20% off on cart value above $200', 'CART_WISE', 200.00, 20.00);
+WITH data (code, description, threshold, discount_percentage) AS (VALUES
+    ('CART10', '10% off on cart value above $100', 100.00, 10.00),
+    ('CART20', '20% off on cart value above $200', 200.00, 20.00)
+), c AS (
+    INSERT INTO coupons.coupon (code, expiration_date, is_active, description, coupon_type)
+    SELECT code, DATE '2025-12-31', TRUE, description, 'CART_WISE' FROM data
+    RETURNING id, code
+)
+INSERT INTO coupons.cart_wise_coupon (id, threshold, discount_percentage)
+SELECT c.id, data.threshold, data.discount_percentage FROM c JOIN data USING (code);
 
 -- Sample Product-Wise Coupons
-INSERT INTO coupons.product_wise_coupon (code, expiration_date, is_active, description, coupon_type, product_id, discount_percentage) VALUES
-('PROD15', '2025-12-31', TRUE, '15% off on Product ID 1001', 'PRODUCT_WISE', 1001, 15.00),
-('PROD25', '2025-12-31', TRUE, '25% off on Product ID 1002', 'PRODUCT_WISE', 1002, 25.00);
+WITH data (code, description, product_id, discount_percentage) AS (VALUES
+    ('PROD15', '15% off on Product ID 1001', 1001, 15.00),
+    ('PROD25', '25% off on Product ID 1002', 1002, 25.00)
+), c AS (
+    INSERT INTO coupons.coupon (code, expiration_date, is_active, description, coupon_type)
+    SELECT code, DATE '2025-12-31', TRUE, description, 'PRODUCT_WISE' FROM data
+    RETURNING id, code
+)
+INSERT INTO coupons.product_wise_coupon (id, product_id, discount_percentage)
+SELECT c.id, data.product_id, data.discount_percentage FROM c JOIN data USING (code);
 
 -- Sample BxGy Coupon
-INSERT INTO coupons.bxgy_coupon (code, expiration_date, is_active, description, coupon_type, repetition_limit) VALUES
-('BOGO', '2025-12-31', TRUE, 'Buy 2 Get 1 Free', 'BXGY', 3);
-
--- Get the coupon_id for the BOGO coupon and insert related products
 DO $$
 DECLARE
     bogo_coupon_id BIGINT;
 BEGIN
-    SELECT id INTO bogo_coupon_id FROM coupons.bxgy_coupon WHERE code = 'BOGO';
+    INSERT INTO coupons.coupon (code, expiration_date, is_active, description, coupon_type)
+    VALUES ('BOGO', '2025-12-31', TRUE, 'Buy 2 Get 1 Free', 'BXGY')
+    RETURNING id INTO bogo_coupon_id;
+
+    INSERT INTO coupons.bxgy_coupon (id, repetition_limit) VALUES (bogo_coupon_id, 3);
 
     -- Insert buy products (Buy 2 of product 2001)
     INSERT INTO coupons.bxgy_buy_products (coupon_id, product_id, quantity) VALUES
@@ -160,6 +239,8 @@ END $$;
 -- ================================================================
 
 -- Verify tables were created successfully
+SELECT 'coupon' as table_name, COUNT(*) as record_count FROM coupons.coupon
+UNION ALL
 SELECT 'cart_wise_coupon' as table_name, COUNT(*) as record_count FROM coupons.cart_wise_coupon
 UNION ALL
 SELECT 'product_wise_coupon' as table_name, COUNT(*) as record_count FROM coupons.product_wise_coupon
@@ -183,7 +264,7 @@ SELECT
     column_default
 FROM information_schema.columns
 WHERE table_schema = 'coupons'
-AND table_name IN ('cart_wise_coupon', 'product_wise_coupon', 'bxgy_coupon', 'bxgy_buy_products', 'bxgy_get_products')
+AND table_name IN ('coupon', 'cart_wise_coupon', 'product_wise_coupon', 'bxgy_coupon', 'bxgy_buy_products', 'bxgy_get_products')
 ORDER BY table_name, ordinal_position;
 
 -- Show the schema was created
@@ -0,0 +1,89 @@
+-- PostgreSQL migration: separate coupon tables -> JOINED coupon hierarchy
+-- Moves the columns shared by every coupon type into coupons.coupon and keeps
+-- only type-specific columns in the existing per-type tables. Ids are kept as
+-- they are (all three tables already draw from coupons.hibernate_sequence), so
+-- the BxGy product tables need no changes.
+-- Run once against a database created with the previous create_all_tables.sql.
+
+BEGIN;
+
+-- ================================================================
+-- 1. CREATE THE SHARED COUPON TABLE
+-- ================================================================
+CREATE TABLE coupons.coupon (
+    id BIGINT PRIMARY KEY DEFAULT nextval('coupons.hibernate_sequence'),
+    code VARCHAR(255) UNIQUE NOT NULL,
+    expiration_date DATE NOT NULL,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    description TEXT,
+    coupon_type VARCHAR(50) NOT NULL,
+
+    -- Constraints
+    CONSTRAINT chk_coupon_type CHECK (coupon_type IN ('CART_WISE', 'PRODUCT_WISE', 'BXGY'))
+);
+
+-- ================================================================
+-- 2. COPY SHARED COLUMNS
+-- ================================================================
+-- The type is taken from the source table rather than the old coupon_type
+-- column, which could hold a wrong default for product-wise rows.
+-- Fails on the unique constraint if the same code exists in two tables;
+-- resolve such duplicates before running.
+INSERT INTO coupons.coupon (id, code, expiration_date, is_active, description, coupon_type)
+SELECT id, code, expiration_date, is_active, description, 'CART_WISE' FROM coupons.cart_wise_coupon
+UNION ALL
+SELECT id, code, expiration_date, is_active, description, 'PRODUCT_WISE' FROM coupons.product_wise_coupon
+UNION ALL
+SELECT id, code, expiration_date, is_active, description, 'BXGY' FROM coupons.bxgy_coupon;
+
+-- ================================================================
+-- 3. DROP MOVED COLUMNS AND LINK SUBTYPE TABLES
+-- ================================================================
+DROP INDEX IF EXISTS coupons.idx_cart_wise_code;
+DROP INDEX IF EXISTS coupons.idx_product_wise_code;
+DROP INDEX IF EXISTS coupons.idx_bxgy_code;
+DROP INDEX IF EXISTS coupons.idx_cart_wise_active_expiry;
+DROP INDEX IF EXISTS coupons.idx_product_wise_active_expiry;
+DROP INDEX IF EXISTS coupons.idx_bxgy_active_expiry;
+
+ALTER TABLE coupons.cart_wise_coupon
+    DROP COLUMN code,
+    DROP COLUMN expiration_date,
+    DROP COLUMN is_active,
+    DROP COLUMN description,
+    DROP COLUMN coupon_type,
+    ALTER COLUMN id DROP DEFAULT,
+    ADD CONSTRAINT fk_cart_wise_coupon FOREIGN KEY (id) REFERENCES coupons.coupon(id) ON DELETE CASCADE;
+
+ALTER TABLE coupons.product_wise_coupon
+    DROP COLUMN code,
+    DROP COLUMN expiration_date,
+    DROP COLUMN is_active,
+    DROP COLUMN description,
+    DROP COLUMN coupon_type,
+    ALTER COLUMN id DROP DEFAULT,
+    ADD CONSTRAINT fk_product_wise_coupon FOREIGN KEY (id) REFERENCES coupons.coupon(id) ON DELETE CASCADE;
+
+ALTER TABLE coupons.bxgy_coupon
+    DROP COLUMN code,
+    DROP COLUMN expiration_date,
+    DROP COLUMN is_active,
+    DROP COLUMN description,
+    DROP COLUMN coupon_type,
+    ALTER COLUMN id DROP DEFAULT,
+    ADD CONSTRAINT fk_bxgy_coupon FOREIGN KEY (id) REFERENCES coupons.coupon(id) ON DELETE CASCADE;
+
+-- ================================================================
+-- 4. INDEXES
+-- ================================================================
+CREATE INDEX idx_coupon_type_active_expiry ON coupons.coupon(coupon_type, is_active, expiration_date);
+
+-- Keyset pagination order for the coupon listing (type, then id)
+CREATE INDEX idx_coupon_type_id ON coupons.coupon(coupon_type, id);
+
+COMMIT;
+
+-- ================================================================
+-- VERIFICATION
+-- ================================================================
+SELECT coupon_type, COUNT(*) AS record_count FROM coupons.coupon GROUP BY coupon_type ORDER BY coupon_type;
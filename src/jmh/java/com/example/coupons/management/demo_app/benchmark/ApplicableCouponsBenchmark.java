@@ -0,0 +1,81 @@
+package com.example.coupons.management.demo_app.benchmark;
+
+import com.example.coupons.management.demo_app.catalog.CouponSnapshot;
+import com.example.coupons.management.demo_app.dto.ApplicableCouponDTO;
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.model.BxGyCoupon;
+import com.example.coupons.management.demo_app.model.CartView;
+import com.example.coupons.management.demo_app.model.CartWiseCoupon;
+import com.example.coupons.management.demo_app.model.ProductWiseCoupon;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the applicable coupons for a cart, as
+ * {@code CouponServiceImpl.findApplicableCoupons} does on a result cache miss:
+ * build the {@link CartView}, then evaluate it against the catalog snapshot.
+ * <p>
+ * The catalog is split evenly between the three coupon types. Each invocation
+ * takes the next of {@value #CART_COUNT} pre-built carts so that branch
+ * prediction does not learn a single cart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApplicableCouponsBenchmark {
+
+    private static final int CART_COUNT = 1024;
+
+    @Param({"100", "10000", "100000"})
+    private int catalogSize;
+
+    @Param({"1", "10", "100"})
+    private int cartSize;
+
+    private CouponSnapshot snapshot;
+    private LocalDate today;
+    private CartDTO[] carts;
+
+    @State(Scope.Thread)
+    public static class CartCursor {
+        private int next;
+    }
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        today = LocalDate.now();
+        LocalDate expirationDate = today.plusYears(1);
+
+        List<CartWiseCoupon> cartWiseCoupons = new ArrayList<>();
+        List<ProductWiseCoupon> productWiseCoupons = new ArrayList<>();
+        List<BxGyCoupon> bxGyCoupons = new ArrayList<>();
+        for (long id = 1; id <= catalogSize; id++) {
+            switch ((int) (id % 3)) {
+                case 0 -> cartWiseCoupons.add(BenchmarkFixtures.cartWise(random, id, expirationDate));
+                case 1 -> productWiseCoupons.add(BenchmarkFixtures.productWise(random, id, expirationDate));
+                default -> bxGyCoupons.add(BenchmarkFixtures.bxGy(random, id, expirationDate));
+            }
+        }
+        snapshot = CouponSnapshot.compile(1L, today, cartWiseCoupons, productWiseCoupons, bxGyCoupons);
+
+        carts = new CartDTO[CART_COUNT];
+        for (int i = 0; i < CART_COUNT; i++) {
+            carts[i] = BenchmarkFixtures.cart(random, cartSize);
+        }
+    }
+
+    @Benchmark
+    public List<ApplicableCouponDTO> findApplicableCoupons(CartCursor cursor) {
+        CartDTO cart = carts[cursor.next++ & (CART_COUNT - 1)];
+        return snapshot.evaluate(CartView.of(cart), today);
+    }
+}
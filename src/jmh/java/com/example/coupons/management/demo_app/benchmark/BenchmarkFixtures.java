@@ -0,0 +1,86 @@
+package com.example.coupons.management.demo_app.benchmark;
+
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.dto.ItemDTO;
+import com.example.coupons.management.demo_app.model.BxGyCoupon;
+import com.example.coupons.management.demo_app.model.CartWiseCoupon;
+import com.example.coupons.management.demo_app.model.CouponType;
+import com.example.coupons.management.demo_app.model.ProductWiseCoupon;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded coupon and cart generators shared by the benchmarks, so every run
+ * measures the same inputs.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 42L;
+
+    // Carts draw from this many products; coupons target the same range so a
+    // realistic share of them matches
+    static final int PRODUCT_COUNT = 10_000;
+
+    private BenchmarkFixtures() {
+    }
+
+    static CartDTO cart(SplittableRandom random, int size) {
+        List<ItemDTO> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new ItemDTO(
+                productId(random),
+                1 + random.nextInt(5),
+                // Whole cents, as prices arrive from the API
+                (100 + random.nextInt(20_000)) / 100.0));
+        }
+        return new CartDTO(items);
+    }
+
+    static CartWiseCoupon cartWise(SplittableRandom random, long id, LocalDate expirationDate) {
+        return new CartWiseCoupon(id, "CART" + id, expirationDate, true, null, CouponType.CART_WISE,
+            BigDecimal.valueOf(random.nextInt(500)), percentage(random));
+    }
+
+    static ProductWiseCoupon productWise(SplittableRandom random, long id, LocalDate expirationDate) {
+        return new ProductWiseCoupon(id, "PROD" + id, expirationDate, true, null, CouponType.PRODUCT_WISE,
+            productId(random), percentage(random));
+    }
+
+    static BxGyCoupon bxGy(SplittableRandom random, long id, LocalDate expirationDate) {
+        Map<Long, Integer> buyProducts = new HashMap<>();
+        Map<Long, Integer> getProducts = new HashMap<>();
+        int buyCount = 1 + random.nextInt(3);
+        for (int i = 0; i < buyCount; i++) {
+            buyProducts.put(productId(random), 1 + random.nextInt(3));
+        }
+        getProducts.put(productId(random), 1);
+        return new BxGyCoupon(id, "BXGY" + id, expirationDate, true, null, CouponType.BXGY,
+            buyProducts, getProducts, 1 + random.nextInt(3));
+    }
+
+    static Map<Long, Integer> quantities(CartDTO cart) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        cart.getItems().forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        return quantities;
+    }
+
+    static Map<Long, Double> prices(CartDTO cart) {
+        Map<Long, Double> prices = new HashMap<>();
+        cart.getItems().forEach(item -> prices.put(item.getProductId(), item.getPrice()));
+        return prices;
+    }
+
+    private static long productId(SplittableRandom random) {
+        return 1 + random.nextInt(PRODUCT_COUNT);
+    }
+
+    private static BigDecimal percentage(SplittableRandom random) {
+        return BigDecimal.valueOf(1 + random.nextInt(50));
+    }
+}
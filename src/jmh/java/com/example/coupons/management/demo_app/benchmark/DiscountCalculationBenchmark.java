@@ -0,0 +1,109 @@
+package com.example.coupons.management.demo_app.benchmark;
+
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.model.BxGyCoupon;
+import com.example.coupons.management.demo_app.model.CartView;
+import com.example.coupons.management.demo_app.model.CartWiseCoupon;
+import com.example.coupons.management.demo_app.model.ProductWiseCoupon;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-coupon discount calculations on the entity classes, for both the
+ * map/DTO overloads and the {@link CartView} overloads used by the catalog.
+ * <p>
+ * The product-wise and BxGy coupons target products of the cart, so the
+ * benchmarks measure the applicable path rather than the early exit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscountCalculationBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int cartSize;
+
+    private CartDTO cart;
+    private CartView cartView;
+    private Map<Long, Integer> cartItems;
+    private Map<Long, Double> productPrices;
+    private double cartValue;
+
+    private CartWiseCoupon cartWiseCoupon;
+    private ProductWiseCoupon productWiseCoupon;
+    private BxGyCoupon bxGyCoupon;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(BenchmarkFixtures.SEED);
+        LocalDate expirationDate = LocalDate.now().plusYears(1);
+
+        cart = BenchmarkFixtures.cart(random, cartSize);
+        cartView = CartView.of(cart);
+        cartItems = BenchmarkFixtures.quantities(cart);
+        productPrices = BenchmarkFixtures.prices(cart);
+        cartValue = cart.getTotalValue();
+
+        cartWiseCoupon = BenchmarkFixtures.cartWise(random, 1L, expirationDate);
+        productWiseCoupon = BenchmarkFixtures.productWise(random, 2L, expirationDate);
+        productWiseCoupon.setProductId(cart.getItems().get(0).getProductId());
+        // Buy the first line's product, get the last line's product free
+        bxGyCoupon = BenchmarkFixtures.bxGy(random, 3L, expirationDate);
+        bxGyCoupon.setBuyProducts(Map.of(cart.getItems().get(0).getProductId(), 1));
+        bxGyCoupon.setGetProducts(Map.of(cart.getItems().get(cartSize - 1).getProductId(), 1));
+    }
+
+    @Benchmark
+    public double cartTotalValue() {
+        return cart.getTotalValue();
+    }
+
+    @Benchmark
+    public double cartWiseDiscount() {
+        return cartWiseCoupon.calculateDiscount(cartValue);
+    }
+
+    @Benchmark
+    public double cartWiseDiscountOnCartView() {
+        return cartWiseCoupon.calculateDiscount(cartView);
+    }
+
+    @Benchmark
+    public void productWiseDiscount(Blackhole blackhole) {
+        cart.getItems().forEach(item -> blackhole.consume(
+            productWiseCoupon.calculateDiscount(item.getProductId(), item.getQuantity(), item.getPrice())));
+    }
+
+    @Benchmark
+    public double productWiseDiscountOnCartView() {
+        return productWiseCoupon.calculateDiscount(cartView);
+    }
+
+    @Benchmark
+    public double bxGyDiscount() {
+        return bxGyCoupon.calculateDiscount(cartItems, productPrices);
+    }
+
+    @Benchmark
+    public double bxGyDiscountOnCartView() {
+        return bxGyCoupon.calculateDiscount(cartView);
+    }
+
+    @Benchmark
+    public int bxGyApplicableTimes() {
+        return bxGyCoupon.calculateApplicableTimes(cartItems);
+    }
+
+    @Benchmark
+    public int bxGyApplicableTimesOnCartView() {
+        return bxGyCoupon.calculateApplicableTimes(cartView);
+    }
+}
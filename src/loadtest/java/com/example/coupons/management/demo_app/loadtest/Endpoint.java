@@ -0,0 +1,48 @@
+package com.example.coupons.management.demo_app.loadtest;
+
+/**
+ * Every CouponController endpoint the harness drives, keyed by the name used
+ * in the {@code loadtest.mix.*} weights.
+ */
+enum Endpoint {
+
+    APPLICABLE_COUPONS("applicable-coupons", "POST /coupons/applicable-coupons"),
+    APPLICABLE_COUPONS_BATCH("applicable-coupons-batch", "POST /coupons/applicable-coupons/batch"),
+    APPLICABLE_COUPONS_STREAM("applicable-coupons-stream", "POST /coupons/applicable-coupons/stream"),
+    APPLY_BEST("apply-best", "POST /coupons/apply-best"),
+    APPLY_COUPON("apply-coupon", "POST /coupons/apply-coupon/{id}"),
+    APPLY_CODE("apply-code", "POST /coupons/apply-code/{code}"),
+    APPLY_SIGNED_CODE("apply-signed-code", "POST /coupons/apply-signed-code/{code}"),
+    ISSUE_SIGNED_CODES("issue-signed-codes", "POST /coupons/{id}/signed-codes"),
+    GET_BY_ID("get-by-id", "GET /coupons/{id}"),
+    GET_BY_CODE("get-by-code", "GET /coupons/code/{code}"),
+    REDEMPTIONS("redemptions", "GET /coupons/{id}/redemptions"),
+    PAGE("page", "GET /coupons/page"),
+    CACHE_STATS("cache-stats", "GET /coupons/cache-stats"),
+    CREATE_CART_WISE("create-cart-wise", "POST /coupons/cart-wise"),
+    CREATE_PRODUCT_WISE("create-product-wise", "POST /coupons/product-wise"),
+    CREATE_BXGY("create-bxgy", "POST /coupons/bxgy"),
+    BULK_CART_WISE("bulk-cart-wise", "POST /coupons/cart-wise/bulk"),
+    BULK_PRODUCT_WISE("bulk-product-wise", "POST /coupons/product-wise/bulk"),
+    BULK_BXGY("bulk-bxgy", "POST /coupons/bxgy/bulk"),
+    CODE_GENERATION("code-generation", "POST /coupons/code-generation"),
+    CODE_GENERATION_JOB("code-generation-job", "GET /coupons/code-generation/{jobId}"),
+    GET_ALL("get-all", "GET /coupons"),
+    STREAM("stream", "GET /coupons/stream");
+
+    private final String key;
+    private final String label;
+
+    Endpoint(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.coupons.management.demo_app.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latencies and outcomes per endpoint. Every sample is kept, so percentiles
+ * are exact; at a few million samples per run that is tens of megabytes.
+ */
+final class LatencyRecorder {
+
+    private final Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+
+    LatencyRecorder() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            samples.put(endpoint, new Samples());
+        }
+    }
+
+    /**
+     * @param status HTTP status, or -1 when no response arrived
+     */
+    void record(Endpoint endpoint, int status, long latencyNanos) {
+        samples.get(endpoint).add(status, latencyNanos);
+    }
+
+    void dropped(Endpoint endpoint) {
+        samples.get(endpoint).addDropped();
+    }
+
+    Samples get(Endpoint endpoint) {
+        return samples.get(endpoint);
+    }
+
+    Samples total() {
+        Samples total = new Samples();
+        samples.values().forEach(total::addAll);
+        return total;
+    }
+
+    static final class Samples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long successful;
+        private long clientErrors;
+        private long serverErrors;
+        private long failed;
+        private long dropped;
+        private boolean sorted;
+
+        private synchronized void add(int status, long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            sorted = false;
+            if (status < 0) {
+                failed++;
+            } else if (status >= 500) {
+                serverErrors++;
+            } else if (status >= 400) {
+                clientErrors++;
+            } else {
+                successful++;
+            }
+        }
+
+        private synchronized void addDropped() {
+            dropped++;
+        }
+
+        private synchronized void addAll(Samples other) {
+            synchronized (other) {
+                if (count + other.count > latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count + other.count);
+                }
+                System.arraycopy(other.latencies, 0, latencies, count, other.count);
+                count += other.count;
+                sorted = false;
+                successful += other.successful;
+                clientErrors += other.clientErrors;
+                serverErrors += other.serverErrors;
+                failed += other.failed;
+                dropped += other.dropped;
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized long successful() {
+            return successful;
+        }
+
+        // 4xx responses are mostly expected outcomes, e.g. a coupon that does not apply to the cart
+        synchronized long clientErrors() {
+            return clientErrors;
+        }
+
+        synchronized long serverErrors() {
+            return serverErrors;
+        }
+
+        synchronized long failed() {
+            return failed;
+        }
+
+        synchronized long dropped() {
+            return dropped;
+        }
+
+        /**
+         * Latency at the given quantile (0..1) in nanoseconds, nearest rank.
+         */
+        synchronized long percentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(latencies, 0, count);
+                sorted = true;
+            }
+            int rank = (int) Math.ceil(quantile * count);
+            return latencies[Math.max(0, Math.min(count, rank) - 1)];
+        }
+    }
+}
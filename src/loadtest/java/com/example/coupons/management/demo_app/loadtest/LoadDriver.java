@@ -0,0 +1,286 @@
+package com.example.coupons.management.demo_app.loadtest;
+
+import com.example.coupons.management.demo_app.dto.CodeGenerationJobDTO;
+import com.example.coupons.management.demo_app.dto.CreateBxGyCouponRequest;
+import com.example.coupons.management.demo_app.dto.CreateCartWiseCouponRequest;
+import com.example.coupons.management.demo_app.dto.CreateProductWiseCouponRequest;
+import com.example.coupons.management.demo_app.dto.GenerateCouponCodesRequest;
+import com.example.coupons.management.demo_app.model.CouponType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop load generator: request n is due at start + n / rate and its
+ * latency is measured from that moment, not from when it was actually sent.
+ * A service that falls behind therefore shows the queueing delay it causes
+ * instead of silently lowering the request rate (coordinated omission).
+ * <p>
+ * Requests that would exceed {@code loadtest.max-in-flight} are not sent and
+ * are counted as dropped. Request selection uses its own seeded random, so two
+ * runs with the same options send the same sequence of requests.
+ */
+@Slf4j
+final class LoadDriver {
+
+    private static final String JSON = "application/json";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int BULK_SIZE = 10;
+    private static final int GENERATED_CODES_PER_JOB = 100;
+    // Share of codes typed by customers that do not exist, answered by the code filter
+    private static final double UNKNOWN_CODE_SHARE = 0.1;
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final LoadTestOptions options;
+    private final SyntheticCatalog catalog;
+    private final SyntheticCarts carts;
+    private final List<String> signedCodes;
+    private final ObjectMapper objectMapper;
+
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final SplittableRandom random;
+    private final Semaphore inFlight;
+    private final AtomicInteger nextSignedCode = new AtomicInteger();
+    private final AtomicLong createdCodes = new AtomicLong();
+    private final AtomicReference<String> lastJobId = new AtomicReference<>("none");
+    private final AtomicInteger failuresLogged = new AtomicInteger();
+
+    LoadDriver(HttpClient httpClient, URI baseUri, LoadTestOptions options, SyntheticCatalog catalog,
+               SyntheticCarts carts, List<String> signedCodes, ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.options = options;
+        this.catalog = catalog;
+        this.carts = carts;
+        this.signedCodes = signedCodes;
+        this.objectMapper = objectMapper;
+        this.random = new SplittableRandom(options.getSeed()).split().split();
+        this.inFlight = new Semaphore(options.getMaxInFlight());
+
+        List<Endpoint> weighted = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            int weight = options.getMix().getOrDefault(endpoint.getKey(), 0);
+            if (weight > 0) {
+                total += weight;
+                weighted.add(endpoint);
+                cumulative.add(total);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("No endpoint has a positive loadtest.mix weight");
+        }
+        this.endpoints = weighted.toArray(Endpoint[]::new);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Sends requests at the configured rate for the given time, then waits for
+     * the ones still in flight.
+     */
+    void run(int seconds, LatencyRecorder recorder) throws InterruptedException {
+        long rate = options.getRate();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (long n = 0; ; n++) {
+            long due = start + n * 1_000_000_000L / rate;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = nextEndpoint();
+            HttpRequest request = buildRequest(endpoint);
+            if (!inFlight.tryAcquire()) {
+                recorder.dropped(endpoint);
+                continue;
+            }
+            send(endpoint, request, due, recorder);
+        }
+
+        if (!inFlight.tryAcquire(options.getMaxInFlight(), 60, TimeUnit.SECONDS)) {
+            log.warn("Requests still in flight after 60 s; their latencies are missing from the report");
+            return;
+        }
+        inFlight.release(options.getMaxInFlight());
+    }
+
+    private void send(Endpoint endpoint, HttpRequest request, long due, LatencyRecorder recorder) {
+        if (endpoint == Endpoint.CODE_GENERATION) {
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                complete(endpoint, response, error, due, recorder);
+                if (response != null && response.statusCode() == 202) {
+                    rememberJob(response.body());
+                }
+            });
+        } else {
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) ->
+                complete(endpoint, response, error, due, recorder));
+        }
+    }
+
+    private void complete(Endpoint endpoint, HttpResponse<?> response, Throwable error, long due,
+                          LatencyRecorder recorder) {
+        recorder.record(endpoint, response == null ? -1 : response.statusCode(), System.nanoTime() - due);
+        inFlight.release();
+        if (error != null && failuresLogged.getAndIncrement() < 10) {
+            log.warn("{} failed: {}", endpoint.getLabel(), error.toString());
+        }
+    }
+
+    private void rememberJob(String body) {
+        try {
+            lastJobId.set(objectMapper.readValue(body, CodeGenerationJobDTO.class).getJobId());
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable code generation response: {}", e.getMessage());
+        }
+    }
+
+    private Endpoint nextEndpoint() {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private HttpRequest buildRequest(Endpoint endpoint) {
+        int batchSize = options.getCarts().getBatchSize();
+        return switch (endpoint) {
+            case APPLICABLE_COUPONS -> post("/coupons/applicable-coupons", carts.sample(random), JSON);
+            case APPLICABLE_COUPONS_BATCH ->
+                post("/coupons/applicable-coupons/batch", carts.sampleBatch(random, batchSize), JSON);
+            case APPLICABLE_COUPONS_STREAM ->
+                post("/coupons/applicable-coupons/stream", carts.sampleLines(random, batchSize), NDJSON);
+            case APPLY_BEST -> post("/coupons/apply-best", carts.sample(random), JSON);
+            case APPLY_COUPON ->
+                post("/coupons/apply-coupon/" + catalog.sampleCouponId(random), carts.sample(random), JSON);
+            case APPLY_CODE -> post("/coupons/apply-code/" + typedCode(), carts.sample(random), JSON);
+            case APPLY_SIGNED_CODE -> post("/coupons/apply-signed-code/" + nextSignedCode(), carts.sample(random), JSON);
+            case ISSUE_SIGNED_CODES -> post("/coupons/" + catalog.templateCouponId() + "/signed-codes?count=10", "", JSON);
+            case GET_BY_ID -> get("/coupons/" + catalog.sampleCouponId(random), JSON);
+            case GET_BY_CODE -> get("/coupons/code/" + catalog.sampleCode(random), JSON);
+            case REDEMPTIONS -> get("/coupons/" + catalog.sampleCouponId(random) + "/redemptions", JSON);
+            case PAGE -> get("/coupons/page?size=50&type=" + CouponType.values()[random.nextInt(3)], JSON);
+            case CACHE_STATS -> get("/coupons/cache-stats", JSON);
+            case CREATE_CART_WISE -> post("/coupons/cart-wise", json(cartWiseRequest()), JSON);
+            case CREATE_PRODUCT_WISE -> post("/coupons/product-wise", json(productWiseRequest()), JSON);
+            case CREATE_BXGY -> post("/coupons/bxgy", json(bxGyRequest()), JSON);
+            case BULK_CART_WISE -> post("/coupons/cart-wise/bulk", json(bulk(this::cartWiseRequest)), JSON);
+            case BULK_PRODUCT_WISE -> post("/coupons/product-wise/bulk", json(bulk(this::productWiseRequest)), JSON);
+            case BULK_BXGY -> post("/coupons/bxgy/bulk", json(bulk(this::bxGyRequest)), JSON);
+            case CODE_GENERATION -> post("/coupons/code-generation", json(codeGenerationRequest()), JSON);
+            case CODE_GENERATION_JOB -> get("/coupons/code-generation/" + lastJobId.get(), JSON);
+            case GET_ALL -> get("/coupons", JSON);
+            case STREAM -> get("/coupons/stream", NDJSON);
+        };
+    }
+
+    private String typedCode() {
+        return random.nextDouble() < UNKNOWN_CODE_SHARE
+            ? "NOPE" + Long.toString(random.nextLong(Long.MAX_VALUE), 36).toUpperCase()
+            : catalog.sampleCode(random);
+    }
+
+    // Each signed code redeems once; after the pool is used up codes are rejected as already used
+    private String nextSignedCode() {
+        if (signedCodes.isEmpty()) {
+            return "S-NONE";
+        }
+        return signedCodes.get(Math.floorMod(nextSignedCode.getAndIncrement(), signedCodes.size()));
+    }
+
+    private String uniqueCode() {
+        return "LT" + createdCodes.incrementAndGet();
+    }
+
+    private LocalDate expirationDate() {
+        return LocalDate.now().plusDays(30 + random.nextInt(336));
+    }
+
+    private CreateCartWiseCouponRequest cartWiseRequest() {
+        return new CreateCartWiseCouponRequest(uniqueCode(), expirationDate(), "Load test",
+            BigDecimal.valueOf(10L * (1 + random.nextInt(50))), BigDecimal.valueOf(5 + random.nextInt(26)), null, null);
+    }
+
+    private CreateProductWiseCouponRequest productWiseRequest() {
+        return new CreateProductWiseCouponRequest(uniqueCode(), expirationDate(), "Load test",
+            (long) catalog.sampleProduct(random), BigDecimal.valueOf(5 + random.nextInt(46)), null, null);
+    }
+
+    private CreateBxGyCouponRequest bxGyRequest() {
+        return new CreateBxGyCouponRequest(uniqueCode(), expirationDate(), "Load test",
+            Map.of((long) catalog.sampleProduct(random), 1 + random.nextInt(3)),
+            Map.of((long) catalog.sampleProduct(random), 1),
+            1 + random.nextInt(3), null, null);
+    }
+
+    private <T> List<T> bulk(Supplier<T> request) {
+        List<T> requests = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            requests.add(request.get());
+        }
+        return requests;
+    }
+
+    private GenerateCouponCodesRequest codeGenerationRequest() {
+        GenerateCouponCodesRequest request = new GenerateCouponCodesRequest();
+        request.setType(CouponType.CART_WISE);
+        request.setCount((long) GENERATED_CODES_PER_JOB);
+        request.setPrefix(uniqueCode() + "-");
+        request.setLength(8);
+        request.setExpirationDate(expirationDate());
+        request.setThreshold(BigDecimal.valueOf(100));
+        request.setDiscountPercentage(BigDecimal.TEN);
+        return request;
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    private HttpRequest post(String path, String body, String mediaType) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .header("Content-Type", mediaType)
+            .header("Accept", mediaType)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private HttpRequest get(String path, String mediaType) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .header("Accept", mediaType)
+            .GET()
+            .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.coupons.management.demo_app.loadtest;
+
+import com.example.coupons.management.demo_app.DemoAppApplication;
+import com.example.coupons.management.demo_app.catalog.CouponCatalog;
+import com.example.coupons.management.demo_app.catalog.CouponCodeFilter;
+import com.example.coupons.management.demo_app.dto.SignedCodesDTO;
+import com.example.coupons.management.demo_app.generation.SequenceBlocks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the application against an in-memory H2 database, seeds a synthetic
+ * catalog and drives the REST API at a fixed request rate, then prints
+ * latency percentiles per endpoint and throughput per core.
+ * <p>
+ * Run through the {@code loadtest} Maven profile; arguments are Spring Boot
+ * arguments, so any {@code loadtest.*} option or extra profile can be passed,
+ * e.g. {@code --loadtest.rate=5000 --spring.profiles.active=virtual-threads}.
+ * The load generator shares the JVM and the cores with the application;
+ * compare runs made on the same machine only.
+ */
+@Slf4j
+public class LoadHarness {
+
+    private static final int SIGNED_CODES_PER_REQUEST = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication application = new SpringApplication(DemoAppApplication.class);
+        application.setAdditionalProfiles("loadtest");
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            run(context);
+        }
+    }
+
+    private static void run(ConfigurableApplicationContext context) throws Exception {
+        Environment environment = context.getEnvironment();
+        LoadTestOptions options = Binder.get(environment).bind("loadtest", LoadTestOptions.class)
+            .orElseThrow(() -> new IllegalStateException("loadtest.* options are missing"));
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+        SyntheticCatalog catalog = SyntheticCatalog.write(options,
+            context.getBean(JdbcTemplate.class), context.getBean(SequenceBlocks.class));
+        awaitCatalog(context.getBean(CouponCatalog.class), catalog.size());
+        context.getBean(CouponCodeFilter.class).rebuild();
+        SyntheticCarts carts = SyntheticCarts.generate(options, catalog, objectMapper);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        URI baseUri = URI.create("http://localhost:" + port);
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        List<String> signedCodes = issueSignedCodes(httpClient, baseUri, catalog.templateCouponId(),
+            options.getSignedCodes(), objectMapper);
+
+        LoadDriver driver = new LoadDriver(httpClient, baseUri, options, catalog, carts, signedCodes, objectMapper);
+        log.info("Warming up for {} s at {} requests/s", options.getWarmupSeconds(), options.getRate());
+        driver.run(options.getWarmupSeconds(), new LatencyRecorder());
+
+        log.info("Measuring for {} s at {} requests/s", options.getDurationSeconds(), options.getRate());
+        LatencyRecorder recorder = new LatencyRecorder();
+        long cpuBefore = processCpuNanos();
+        long started = System.nanoTime();
+        driver.run(options.getDurationSeconds(), recorder);
+        long elapsed = System.nanoTime() - started;
+        long cpu = processCpuNanos() - cpuBefore;
+
+        print(options, environment, recorder, elapsed, cpu);
+    }
+
+    private static void awaitCatalog(CouponCatalog couponCatalog, int coupons) throws InterruptedException {
+        long started = System.nanoTime();
+        couponCatalog.requestRebuild();
+        while (couponCatalog.current().size() < coupons) {
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+        log.info("Coupon catalog loaded in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static List<String> issueSignedCodes(HttpClient httpClient, URI baseUri, long couponId, int count,
+                                                 ObjectMapper objectMapper) throws Exception {
+        List<String> codes = new ArrayList<>(count);
+        while (codes.size() < count) {
+            int batch = Math.min(SIGNED_CODES_PER_REQUEST, count - codes.size());
+            HttpRequest request = HttpRequest.newBuilder(
+                    baseUri.resolve("/coupons/" + couponId + "/signed-codes?count=" + batch))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                log.warn("Could not issue signed codes ({}): {}", response.statusCode(), response.body());
+                break;
+            }
+            codes.addAll(objectMapper.readValue(response.body(), SignedCodesDTO.class).getCodes());
+        }
+        return codes;
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getProcessCpuTime();
+    }
+
+    private static void print(LoadTestOptions options, Environment environment, LatencyRecorder recorder,
+                              long elapsedNanos, long cpuNanos) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        boolean virtualThreads = Runtime.version().feature() >= 21
+            && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        double seconds = elapsedNanos / 1e9;
+
+        System.out.printf("%nCoupons: %,d   products: %,d   carts: %,d   seed: %d%n", options.getCatalog().getCoupons(),
+            options.getCatalog().getProducts(), options.getCarts().getCount(), options.getSeed());
+        System.out.printf("Target rate: %,d requests/s   measured: %d s   cores: %d   request threads: %s   Java %d%n%n",
+            options.getRate(), options.getDurationSeconds(), cores, virtualThreads ? "virtual" : "platform",
+            Runtime.version().feature());
+        System.out.printf("%-42s %9s %8s %8s %7s %7s %8s %9s %9s %9s %9s%n",
+            "Endpoint", "requests", "2xx", "4xx", "5xx", "failed", "dropped", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencyRecorder.Samples samples = recorder.get(endpoint);
+            if (samples.count() > 0 || samples.dropped() > 0) {
+                printRow(endpoint.getLabel(), samples);
+            }
+        }
+        LatencyRecorder.Samples total = recorder.total();
+        printRow("All endpoints", total);
+
+        double throughput = total.count() / seconds;
+        System.out.printf("%nThroughput: %,.0f requests/s, %,.0f per core, %,.0f per CPU-second used%n",
+            throughput, throughput / cores, total.count() / (cpuNanos / 1e9));
+        if (total.dropped() > 0) {
+            System.out.printf("Dropped %,d requests over loadtest.max-in-flight; the service did not keep up%n",
+                total.dropped());
+        }
+    }
+
+    private static void printRow(String label, LatencyRecorder.Samples samples) {
+        System.out.printf("%-42s %9d %8d %8d %7d %7d %8d %9.2f %9.2f %9.2f %9.2f%n",
+            label, samples.count(), samples.successful(), samples.clientErrors(), samples.serverErrors(),
+            samples.failed(), samples.dropped(),
+            millis(samples.percentile(0.5)), millis(samples.percentile(0.99)),
+            millis(samples.percentile(0.999)), millis(samples.percentile(1.0)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
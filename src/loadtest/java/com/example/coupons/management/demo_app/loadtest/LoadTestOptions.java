@@ -0,0 +1,45 @@
+package com.example.coupons.management.demo_app.loadtest;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code loadtest.*} properties. Defaults are in
+ * application-loadtest.properties; any of them can be overridden on the
+ * command line, e.g. {@code --loadtest.rate=5000}.
+ */
+@Data
+public class LoadTestOptions {
+
+    private long seed;
+    private Catalog catalog = new Catalog();
+    private Carts carts = new Carts();
+
+    private int rate;
+    private int warmupSeconds;
+    private int durationSeconds;
+    private int maxInFlight;
+    private int signedCodes;
+
+    // Endpoint key (see Endpoint) -> relative weight
+    private Map<String, Integer> mix = new LinkedHashMap<>();
+
+    @Data
+    public static class Catalog {
+        private int coupons;
+        private int cartWiseWeight;
+        private int productWiseWeight;
+        private int bxgyWeight;
+        private int products;
+        private double productSkew;
+    }
+
+    @Data
+    public static class Carts {
+        private int count;
+        private int maxItems;
+        private int batchSize;
+    }
+}
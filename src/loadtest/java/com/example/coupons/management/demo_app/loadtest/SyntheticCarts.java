@@ -0,0 +1,74 @@
+package com.example.coupons.management.demo_app.loadtest;
+
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.dto.ItemDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * A fixed pool of carts, serialized once up front so that building request
+ * bodies costs the load generator next to nothing. Products are drawn by
+ * popularity from the catalog, and cart sizes follow a Zipf distribution as
+ * well: most carts hold a few items, a long tail holds many.
+ */
+final class SyntheticCarts {
+
+    private final String[] json;
+
+    private SyntheticCarts(String[] json) {
+        this.json = json;
+    }
+
+    static SyntheticCarts generate(LoadTestOptions options, SyntheticCatalog catalog, ObjectMapper objectMapper) {
+        LoadTestOptions.Carts settings = options.getCarts();
+        // A different stream from the catalog's, from the same seed
+        SplittableRandom random = new SplittableRandom(options.getSeed()).split();
+        int maxItems = Math.min(settings.getMaxItems(), catalog.productCount());
+        ZipfDistribution cartSizes = new ZipfDistribution(maxItems, 1.0);
+
+        String[] json = new String[settings.getCount()];
+        for (int i = 0; i < json.length; i++) {
+            int size = cartSizes.sample(random);
+            Set<Integer> products = new LinkedHashSet<>();
+            while (products.size() < size) {
+                products.add(catalog.sampleProduct(random));
+            }
+            List<ItemDTO> items = new ArrayList<>(size);
+            for (int productId : products) {
+                items.add(new ItemDTO((long) productId, 1 + random.nextInt(3), catalog.priceOf(productId)));
+            }
+            try {
+                json[i] = objectMapper.writeValueAsString(new CartDTO(items));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize synthetic cart", e);
+            }
+        }
+        return new SyntheticCarts(json);
+    }
+
+    String sample(SplittableRandom random) {
+        return json[random.nextInt(json.length)];
+    }
+
+    String sampleBatch(SplittableRandom random, int size) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            body.append(i == 0 ? "" : ",").append(sample(random));
+        }
+        return body.append(']').toString();
+    }
+
+    String sampleLines(SplittableRandom random, int size) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            body.append(sample(random)).append('\n');
+        }
+        return body.toString();
+    }
+}
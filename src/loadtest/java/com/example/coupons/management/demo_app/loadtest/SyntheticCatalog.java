@@ -0,0 +1,170 @@
+package com.example.coupons.management.demo_app.loadtest;
+
+import com.example.coupons.management.demo_app.generation.SequenceBlocks;
+import com.example.coupons.management.demo_app.model.Coupon;
+import com.example.coupons.management.demo_app.model.CouponType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * A reproducible coupon catalog written straight to the database in batches,
+ * so that millions of coupons load in a reasonable time.
+ * <p>
+ * Coupons of the three types are interleaved at random in the configured
+ * proportions. Product-wise and BxGy coupons target products drawn from the
+ * same Zipf distribution as cart contents: popular products carry more
+ * coupons. Generation order doubles as coupon popularity for the requests
+ * that name a coupon.
+ */
+@Slf4j
+final class SyntheticCatalog {
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final long[] ids;
+    private final String[] codes;
+    private final double[] productPrices;
+    private final ZipfDistribution productPopularity;
+    private final ZipfDistribution couponPopularity;
+    private long templateCouponId;
+
+    private SyntheticCatalog(int coupons, int products, double productSkew) {
+        this.ids = new long[coupons];
+        this.codes = new String[coupons];
+        this.productPrices = new double[products + 1];
+        this.productPopularity = new ZipfDistribution(products, productSkew);
+        this.couponPopularity = new ZipfDistribution(coupons, 1.0);
+    }
+
+    static SyntheticCatalog write(LoadTestOptions options, JdbcTemplate jdbcTemplate, SequenceBlocks sequenceBlocks) {
+        LoadTestOptions.Catalog settings = options.getCatalog();
+        SyntheticCatalog catalog = new SyntheticCatalog(settings.getCoupons(), settings.getProducts(), settings.getProductSkew());
+        SplittableRandom random = new SplittableRandom(options.getSeed());
+
+        for (int product = 1; product <= settings.getProducts(); product++) {
+            // Whole cents between 1.00 and 200.00
+            catalog.productPrices[product] = (100 + random.nextInt(19_901)) / 100.0;
+        }
+
+        int totalWeight = settings.getCartWiseWeight() + settings.getProductWiseWeight() + settings.getBxgyWeight();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("At least one coupon type needs a positive weight");
+        }
+        LocalDate today = LocalDate.now();
+        long started = System.nanoTime();
+        for (int offset = 0; offset < settings.getCoupons(); offset += CHUNK_SIZE) {
+            int size = Math.min(CHUNK_SIZE, settings.getCoupons() - offset);
+            long[] chunkIds = sequenceBlocks.reserve("coupons.hibernate_sequence", Coupon.ID_ALLOCATION_SIZE, size);
+            Chunk chunk = new Chunk();
+            for (int i = 0; i < size; i++) {
+                int draw = random.nextInt(totalWeight);
+                CouponType type = draw < settings.getCartWiseWeight() ? CouponType.CART_WISE
+                    : draw < settings.getCartWiseWeight() + settings.getProductWiseWeight() ? CouponType.PRODUCT_WISE
+                    : CouponType.BXGY;
+                catalog.add(chunk, offset + i, chunkIds[i], type, today.plusDays(30 + random.nextInt(336)), random);
+            }
+            chunk.write(jdbcTemplate);
+            log.info("Wrote {} of {} synthetic coupons", offset + size, settings.getCoupons());
+        }
+        log.info("Synthetic catalog of {} coupons written in {} ms", settings.getCoupons(),
+            (System.nanoTime() - started) / 1_000_000);
+        return catalog;
+    }
+
+    private void add(Chunk chunk, int index, long id, CouponType type, LocalDate expirationDate, SplittableRandom random) {
+        String code = switch (type) {
+            case CART_WISE -> "CW";
+            case PRODUCT_WISE -> "PW";
+            case BXGY -> "BX";
+        } + Long.toString(id, 36).toUpperCase();
+        ids[index] = id;
+        codes[index] = code;
+        chunk.coupons.add(new Object[]{id, code, Date.valueOf(expirationDate), "Synthetic " + type, type.name()});
+
+        switch (type) {
+            case CART_WISE -> {
+                if (templateCouponId == 0) {
+                    templateCouponId = id;
+                }
+                chunk.cartWise.add(new Object[]{id, BigDecimal.valueOf(10L * (1 + random.nextInt(50))),
+                    BigDecimal.valueOf(5 + random.nextInt(26))});
+            }
+            case PRODUCT_WISE -> chunk.productWise.add(new Object[]{id, (long) productPopularity.sample(random),
+                BigDecimal.valueOf(5 + random.nextInt(46))});
+            case BXGY -> {
+                chunk.bxGy.add(new Object[]{id, 1 + random.nextInt(3)});
+                Map<Long, Integer> buyProducts = new LinkedHashMap<>();
+                int buyCount = 1 + random.nextInt(2);
+                while (buyProducts.size() < buyCount) {
+                    buyProducts.put((long) productPopularity.sample(random), 1 + random.nextInt(3));
+                }
+                buyProducts.forEach((productId, quantity) -> chunk.buyProducts.add(new Object[]{id, productId, quantity}));
+                chunk.getProducts.add(new Object[]{id, (long) productPopularity.sample(random), 1});
+            }
+        }
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    int productCount() {
+        return productPrices.length - 1;
+    }
+
+    int sampleProduct(SplittableRandom random) {
+        return productPopularity.sample(random);
+    }
+
+    double priceOf(int productId) {
+        return productPrices[productId];
+    }
+
+    long sampleCouponId(SplittableRandom random) {
+        return ids[couponPopularity.sample(random) - 1];
+    }
+
+    String sampleCode(SplittableRandom random) {
+        return codes[couponPopularity.sample(random) - 1];
+    }
+
+    /**
+     * A coupon every signed code is issued for: the first cart-wise coupon,
+     * or the first coupon when the catalog has none.
+     */
+    long templateCouponId() {
+        return templateCouponId != 0 ? templateCouponId : ids[0];
+    }
+
+    private static final class Chunk {
+        private final List<Object[]> coupons = new ArrayList<>();
+        private final List<Object[]> cartWise = new ArrayList<>();
+        private final List<Object[]> productWise = new ArrayList<>();
+        private final List<Object[]> bxGy = new ArrayList<>();
+        private final List<Object[]> buyProducts = new ArrayList<>();
+        private final List<Object[]> getProducts = new ArrayList<>();
+
+        private void write(JdbcTemplate jdbcTemplate) {
+            jdbcTemplate.batchUpdate("INSERT INTO coupons.coupon (id, code, expiration_date, is_active, description, "
+                + "coupon_type, usage_limit, per_customer_limit) VALUES (?, ?, ?, TRUE, ?, ?, NULL, NULL)", coupons);
+            jdbcTemplate.batchUpdate("INSERT INTO coupons.cart_wise_coupon (id, threshold, discount_percentage) "
+                + "VALUES (?, ?, ?)", cartWise);
+            jdbcTemplate.batchUpdate("INSERT INTO coupons.product_wise_coupon (id, product_id, discount_percentage) "
+                + "VALUES (?, ?, ?)", productWise);
+            jdbcTemplate.batchUpdate("INSERT INTO coupons.bxgy_coupon (id, repetition_limit) VALUES (?, ?)", bxGy);
+            jdbcTemplate.batchUpdate("INSERT INTO coupons.bxgy_buy_products (coupon_id, product_id, quantity) "
+                + "VALUES (?, ?, ?)", buyProducts);
+            jdbcTemplate.batchUpdate("INSERT INTO coupons.bxgy_get_products (coupon_id, product_id, quantity) "
+                + "VALUES (?, ?, ?)", getProducts);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.coupons.management.demo_app.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Ranks 1..n drawn with probability proportional to 1 / rank^exponent, so
+ * that a few products (and coupons) account for most of the traffic.
+ */
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf distribution needs at least one rank");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        // Not found: the insertion point is the first rank whose cumulative share exceeds the draw
+        int rank = (index >= 0 ? index : -index - 1) + 1;
+        return Math.min(rank, cumulative.length);
+    }
+}
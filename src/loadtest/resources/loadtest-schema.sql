@@ -0,0 +1,30 @@
+-- Tables the application only reads and writes through JDBC; Hibernate creates
+-- the entity tables. Mirrors create_all_tables.sql.
+CREATE SEQUENCE IF NOT EXISTS coupons.signed_code_serial_seq START WITH 1 INCREMENT BY 1000;
+
+CREATE TABLE IF NOT EXISTS coupons.coupon_redemption (
+    coupon_id BIGINT PRIMARY KEY REFERENCES coupons.coupon(id) ON DELETE CASCADE,
+    redeemed_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS coupons.customer_redemption (
+    coupon_id BIGINT NOT NULL REFERENCES coupons.coupon(id) ON DELETE CASCADE,
+    customer_id BIGINT NOT NULL,
+    redeemed_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (coupon_id, customer_id)
+);
+
+CREATE TABLE IF NOT EXISTS coupons.signed_code_redemption (
+    coupon_id BIGINT NOT NULL REFERENCES coupons.coupon(id) ON DELETE CASCADE,
+    serial BIGINT NOT NULL,
+    redeemed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (coupon_id, serial)
+);
+
+CREATE INDEX IF NOT EXISTS idx_coupon_redemption_updated_at ON coupons.coupon_redemption(updated_at);
+CREATE INDEX IF NOT EXISTS idx_customer_redemption_updated_at ON coupons.customer_redemption(updated_at);
+CREATE INDEX IF NOT EXISTS idx_product_wise_product_id ON coupons.product_wise_coupon(product_id);
+CREATE INDEX IF NOT EXISTS idx_bxgy_buy_product_id ON coupons.bxgy_buy_products(product_id);
+CREATE INDEX IF NOT EXISTS idx_bxgy_get_product_id ON coupons.bxgy_get_products(product_id);
@@ -0,0 +1,90 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.dto.ApplicableCouponDTO;
+import com.example.coupons.management.demo_app.dto.CacheStatsDTO;
+import com.example.coupons.management.demo_app.model.CartView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the applicable coupons of a cart. The key is the canonical form of
+ * the cart held by {@link CartView} (one entry per product, sorted by id,
+ * with merged quantities and line totals) together with the catalog snapshot
+ * version and the evaluation day, so two carts that differ only in line order
+ * or line splitting share an entry.
+ * <p>
+ * A new snapshot version or a new day gives a different key, so stale results
+ * are never returned. When a newer snapshot is first seen every older entry is
+ * dropped at once instead of waiting for eviction.
+ * <p>
+ * The DTOs are mutable, so every call gets its own copies and a caller
+ * changing one cannot alter what later callers are served.
+ */
+@Component
+public class ApplicableCouponsCache {
+
+    private final Cache<Key, List<ApplicableCouponDTO>> results;
+    private final AtomicLong latestVersion = new AtomicLong(Long.MIN_VALUE);
+
+    public ApplicableCouponsCache(@Value("${coupons.result-cache.max-entries:50000}") long maxEntries) {
+        this.results = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .recordStats()
+            .build();
+    }
+
+    public List<ApplicableCouponDTO> get(CouponSnapshot snapshot, CartView cart, LocalDate today,
+                                         Supplier<List<ApplicableCouponDTO>> evaluation) {
+        long version = snapshot.getVersion();
+        long latest = latestVersion.get();
+        if (version > latest && latestVersion.compareAndSet(latest, version)) {
+            results.invalidateAll();
+        }
+        List<ApplicableCouponDTO> cached = results.get(Key.of(version, today.toEpochDay(), cart),
+            key -> List.copyOf(evaluation.get()));
+        return cached.stream().map(ApplicableCouponDTO::copy).toList();
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = results.stats();
+        return new CacheStatsDTO(results.estimatedSize(), stats.hitCount(), stats.missCount(),
+            stats.hitRate(), stats.evictionCount());
+    }
+
+    /**
+     * Everything evaluation reads from the cart: per product its quantity,
+     * first-seen unit price (used by BxGy) and line total.
+     */
+    @lombok.Value
+    static class Key {
+        long catalogVersion;
+        long epochDay;
+        long[] productIds;
+        int[] quantities;
+        long[] pricesMinor;
+        long[] lineTotalsMinor;
+
+        static Key of(long catalogVersion, long epochDay, CartView cart) {
+            int size = cart.size();
+            long[] productIds = new long[size];
+            int[] quantities = new int[size];
+            long[] pricesMinor = new long[size];
+            long[] lineTotalsMinor = new long[size];
+            for (int i = 0; i < size; i++) {
+                productIds[i] = cart.productIdAt(i);
+                quantities[i] = cart.quantityAt(i);
+                pricesMinor[i] = cart.priceMinorAt(i);
+                lineTotalsMinor[i] = cart.lineTotalMinorAt(i);
+            }
+            return new Key(catalogVersion, epochDay, productIds, quantities, pricesMinor, lineTotalsMinor);
+        }
+    }
+}
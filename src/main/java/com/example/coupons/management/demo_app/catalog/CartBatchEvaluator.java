@@ -0,0 +1,49 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.dto.ApplicableCouponDTO;
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.model.CartView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Evaluates many carts against a single {@link CouponSnapshot}. Carts are
+ * spread over a dedicated fork-join pool so bulk jobs do not compete with the
+ * common pool used elsewhere in the JVM; results are returned in input order.
+ */
+@Component
+@Slf4j
+public class CartBatchEvaluator {
+
+    private final ForkJoinPool pool;
+
+    public CartBatchEvaluator(@Value("${coupons.batch.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        log.info("Cart batch evaluator using {} worker threads", threads);
+    }
+
+    public List<List<ApplicableCouponDTO>> evaluate(CouponSnapshot snapshot, List<CartDTO> carts, LocalDate today) {
+        if (carts.size() < 2) {
+            // Not worth a hand-off to the pool
+            return carts.stream()
+                    .map(cart -> snapshot.evaluate(CartView.of(cart), today))
+                    .toList();
+        }
+        return pool.submit(() -> carts.parallelStream()
+                        .map(cart -> snapshot.evaluate(CartView.of(cart), today))
+                        .toList())
+                .join();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
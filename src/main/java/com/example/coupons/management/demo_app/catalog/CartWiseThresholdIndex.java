@@ -0,0 +1,95 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Cart-wise coupons sorted by threshold. The coupons a cart qualifies for are
+ * always a prefix of the sorted array, found by binary search, and the best
+ * percentage in every prefix is precomputed so the best cart-wise coupon for a
+ * cart total is an O(log n) lookup.
+ */
+public class CartWiseThresholdIndex {
+
+    private final CompiledCartWiseCoupon[] coupons;
+    private final long[] thresholdsMinor;
+    // bestInPrefix[i] is the position of the highest percentage among coupons[0..i]
+    private final int[] bestInPrefix;
+
+    public CartWiseThresholdIndex(List<CompiledCartWiseCoupon> cartWiseCoupons) {
+        this.coupons = cartWiseCoupons.stream()
+            .sorted(Comparator.comparingLong(CompiledCartWiseCoupon::getThresholdMinor))
+            .toArray(CompiledCartWiseCoupon[]::new);
+        this.thresholdsMinor = new long[coupons.length];
+        this.bestInPrefix = new int[coupons.length];
+        for (int i = 0; i < coupons.length; i++) {
+            thresholdsMinor[i] = coupons[i].getThresholdMinor();
+            bestInPrefix[i] = i > 0 && coupons[bestInPrefix[i - 1]].getBasisPoints() >= coupons[i].getBasisPoints()
+                ? bestInPrefix[i - 1]
+                : i;
+        }
+    }
+
+    public int size() {
+        return coupons.length;
+    }
+
+    public CompiledCartWiseCoupon get(int position) {
+        return coupons[position];
+    }
+
+    /**
+     * Number of coupons whose threshold is at or below the cart value; those
+     * coupons occupy positions {@code 0 .. count - 1}.
+     */
+    public int qualifyingCount(long cartValueMinor) {
+        int position = Arrays.binarySearch(thresholdsMinor, cartValueMinor);
+        if (position < 0) {
+            return -position - 1;
+        }
+        // Equal thresholds may be repeated; the prefix must include all of them
+        while (position < thresholdsMinor.length && thresholdsMinor[position] == cartValueMinor) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Best qualifying coupon that is still unexpired on the given day, or
+     * {@code null} when the cart qualifies for none.
+     */
+    public CompiledCartWiseCoupon best(long cartValueMinor, long epochDay) {
+        return best(cartValueMinor, epochDay, coupon -> true);
+    }
+
+    /**
+     * Best qualifying coupon that is unexpired and accepted by {@code eligible},
+     * or {@code null} when there is none. The precomputed best is tried first;
+     * the prefix is only scanned when that coupon is expired or rejected.
+     */
+    public CompiledCartWiseCoupon best(long cartValueMinor, long epochDay,
+                                       Predicate<? super CompiledCartWiseCoupon> eligible) {
+        int count = qualifyingCount(cartValueMinor);
+        if (count == 0) {
+            return null;
+        }
+        CompiledCartWiseCoupon best = coupons[bestInPrefix[count - 1]];
+        if (best.isActiveOn(epochDay) && eligible.test(best)) {
+            return best;
+        }
+        // Only reachable between a date rollover and the next snapshot rebuild,
+        // or when the best coupon has reached a usage limit
+        best = null;
+        for (int i = 0; i < count; i++) {
+            CompiledCartWiseCoupon candidate = coupons[i];
+            if (candidate.isActiveOn(epochDay)
+                    && (best == null || candidate.getBasisPoints() > best.getBasisPoints())
+                    && eligible.test(candidate)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over coupon codes. {@link #mightContain} never
+ * returns false for a code that was added, and returns true for a code that
+ * was not with roughly the false positive rate it was sized for. Codes can
+ * be added concurrently with lookups.
+ */
+final class CodeBloomFilter {
+
+    // Keeps the bit array within one Java array
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    CodeBloomFilter(long expectedCodes, double falsePositiveRate) {
+        long codes = Math.max(1, expectedCodes);
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-codes * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long wordCount = (Math.min(Math.max(Long.SIZE, optimalBits), MAX_BITS) + Long.SIZE - 1) / Long.SIZE;
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bits = wordCount * Long.SIZE;
+        this.hashes = (int) Math.max(1, Math.round((double) bits / codes * ln2));
+    }
+
+    void add(String code) {
+        long hash = hash(code);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash + i * step, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, add) -> current | add);
+            }
+        }
+    }
+
+    boolean mightContain(String code) {
+        long hash = hash(code);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash + i * step, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitSize() {
+        return bits;
+    }
+
+    int hashCount() {
+        return hashes;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, then mixed
+    private static long hash(String code) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < code.length(); i++) {
+            hash = (hash ^ code.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.BxGyCoupon;
+import com.example.coupons.management.demo_app.model.CartView;
+import com.example.coupons.management.demo_app.model.CouponType;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable evaluation form of a {@link BxGyCoupon}. Buy products are held in
+ * parallel primitive arrays sorted by productId and the free quantity per
+ * application is summed once at compile time, so evaluating a
+ * {@link CartView} neither boxes nor allocates.
+ */
+@Getter
+public class CompiledBxGyCoupon implements CompiledCoupon {
+
+    /**
+     * Returned by {@link #evaluate(CartView)} when the cart does not hold every
+     * buy product in the required quantity.
+     */
+    public static final long NOT_APPLICABLE = -1;
+
+    private final long id;
+    private final String code;
+    private final String description;
+    private final long expiresOnEpochDay;
+    @Getter(lombok.AccessLevel.NONE)
+    private final long[] buyProductIds;
+    @Getter(lombok.AccessLevel.NONE)
+    private final int[] buyQuantities;
+    private final int totalFreeQuantity;
+    private final int repetitionLimit;
+    private final long usageLimit;
+    private final long perCustomerLimit;
+
+    public CompiledBxGyCoupon(long id, String code, String description, long expiresOnEpochDay,
+                              Map<Long, Integer> buyProducts, int totalFreeQuantity, int repetitionLimit,
+                              long usageLimit, long perCustomerLimit) {
+        this.id = id;
+        this.code = code;
+        this.description = description;
+        this.expiresOnEpochDay = expiresOnEpochDay;
+        this.buyProductIds = buyProducts.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        this.buyQuantities = new int[buyProductIds.length];
+        for (int i = 0; i < buyProductIds.length; i++) {
+            buyQuantities[i] = buyProducts.get(buyProductIds[i]);
+        }
+        this.totalFreeQuantity = totalFreeQuantity;
+        this.repetitionLimit = repetitionLimit;
+        this.usageLimit = usageLimit;
+        this.perCustomerLimit = perCustomerLimit;
+    }
+
+    public static CompiledBxGyCoupon compile(BxGyCoupon coupon) {
+        int totalFreeQuantity = 0;
+        for (int freeQuantity : coupon.getGetProducts().values()) {
+            totalFreeQuantity += freeQuantity;
+        }
+        return new CompiledBxGyCoupon(
+            coupon.getId(),
+            coupon.getCode(),
+            coupon.getDescription(),
+            coupon.getExpirationDate().toEpochDay(),
+            coupon.getBuyProducts(),
+            totalFreeQuantity,
+            coupon.getRepetitionLimit(),
+            CompiledCoupon.usageLimitOf(coupon),
+            CompiledCoupon.perCustomerLimitOf(coupon));
+    }
+
+    @Override
+    public CouponType getType() {
+        return CouponType.BXGY;
+    }
+
+    @Override
+    public boolean isActiveOn(long epochDay) {
+        return epochDay < expiresOnEpochDay;
+    }
+
+    public boolean hasBuyProducts() {
+        return buyProductIds.length > 0;
+    }
+
+    /**
+     * The buy product this coupon is indexed under; every applicable cart
+     * contains it.
+     */
+    public long anchorProductId() {
+        return buyProductIds[0];
+    }
+
+    public long[] buyProductIds() {
+        return Arrays.copyOf(buyProductIds, buyProductIds.length);
+    }
+
+    /**
+     * Returns how many times this offer can be applied, or 0 when the cart
+     * does not hold every buy product in the required quantity.
+     */
+    public int calculateApplicableTimes(CartView cart) {
+        int applicableTimes = Integer.MAX_VALUE;
+        for (int i = 0; i < buyProductIds.length; i++) {
+            int availableQty = cart.quantityOf(buyProductIds[i]);
+            if (availableQty < buyQuantities[i]) {
+                return 0;
+            }
+            applicableTimes = Math.min(applicableTimes, availableQty / buyQuantities[i]);
+        }
+        return Math.min(applicableTimes, repetitionLimit);
+    }
+
+    /**
+     * Evaluates the cart in a single pass over the buy products. Returns
+     * {@link #NOT_APPLICABLE} when a buy product is missing or short, otherwise
+     * the discount, using the cheapest priced buy product as the estimate for
+     * every free item. The discount is in minor units and is 0 when no buy
+     * product has a price.
+     */
+    public long evaluate(CartView cart) {
+        int applicableTimes = repetitionLimit;
+        long cheapestPriceMinor = Long.MAX_VALUE;
+        for (int i = 0; i < buyProductIds.length; i++) {
+            int index = cart.indexOf(buyProductIds[i]);
+            int availableQty = index >= 0 ? cart.quantityAt(index) : 0;
+            if (availableQty < buyQuantities[i]) {
+                return NOT_APPLICABLE;
+            }
+            applicableTimes = Math.min(applicableTimes, availableQty / buyQuantities[i]);
+            long priceMinor = cart.priceMinorAt(index);
+            if (priceMinor > 0 && priceMinor < cheapestPriceMinor) {
+                cheapestPriceMinor = priceMinor;
+            }
+        }
+        if (cheapestPriceMinor == Long.MAX_VALUE) {
+            return 0;
+        }
+        return cheapestPriceMinor * totalFreeQuantity * applicableTimes;
+    }
+
+    @Override
+    public long calculateDiscount(CartView cart) {
+        return Math.max(0, evaluate(cart));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.CartView;
+import com.example.coupons.management.demo_app.model.CartWiseCoupon;
+import com.example.coupons.management.demo_app.model.CouponType;
+import com.example.coupons.management.demo_app.model.Money;
+import lombok.Value;
+
+/**
+ * Immutable evaluation form of a {@link CartWiseCoupon}. Amounts are in minor
+ * units and the percentage in basis points (see {@link Money}).
+ */
+@Value
+public class CompiledCartWiseCoupon implements CompiledCoupon {
+    long id;
+    String code;
+    String description;
+    long expiresOnEpochDay;
+    long thresholdMinor;
+    int basisPoints;
+    long usageLimit;
+    long perCustomerLimit;
+
+    public static CompiledCartWiseCoupon compile(CartWiseCoupon coupon) {
+        return new CompiledCartWiseCoupon(
+            coupon.getId(),
+            coupon.getCode(),
+            coupon.getDescription(),
+            coupon.getExpirationDate().toEpochDay(),
+            Money.toMinor(coupon.getThreshold()),
+            Money.toBasisPoints(coupon.getDiscountPercentage()),
+            CompiledCoupon.usageLimitOf(coupon),
+            CompiledCoupon.perCustomerLimitOf(coupon));
+    }
+
+    @Override
+    public CouponType getType() {
+        return CouponType.CART_WISE;
+    }
+
+    @Override
+    public boolean isActiveOn(long epochDay) {
+        return epochDay < expiresOnEpochDay;
+    }
+
+    public long calculateDiscount(long cartValueMinor) {
+        return cartValueMinor >= thresholdMinor ? Money.applyBasisPoints(cartValueMinor, basisPoints) : 0;
+    }
+
+    @Override
+    public long calculateDiscount(CartView cart) {
+        return calculateDiscount(cart.getTotalMinor());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.*;
+
+/**
+ * Common view of the compiled coupon rules, used where a single coupon is
+ * evaluated by id rather than through the snapshot indexes.
+ */
+public interface CompiledCoupon {
+
+    /**
+     * {@link #getUsageLimit()} of a coupon that can be redeemed any number of times.
+     */
+    long UNLIMITED = 0;
+
+    long getId();
+
+    String getCode();
+
+    String getDescription();
+
+    CouponType getType();
+
+    boolean isActiveOn(long epochDay);
+
+    /**
+     * Maximum number of redemptions, or {@link #UNLIMITED}.
+     */
+    long getUsageLimit();
+
+    /**
+     * Maximum number of redemptions by one customer, or {@link #UNLIMITED}.
+     */
+    long getPerCustomerLimit();
+
+    /**
+     * Discount for the cart in minor units, or 0 when the coupon does not apply.
+     */
+    long calculateDiscount(CartView cart);
+
+    static CompiledCoupon compile(CouponEntity coupon) {
+        if (coupon instanceof CartWiseCoupon cartWiseCoupon) {
+            return CompiledCartWiseCoupon.compile(cartWiseCoupon);
+        }
+        if (coupon instanceof ProductWiseCoupon productWiseCoupon) {
+            return CompiledProductWiseCoupon.compile(productWiseCoupon);
+        }
+        if (coupon instanceof BxGyCoupon bxGyCoupon) {
+            return CompiledBxGyCoupon.compile(bxGyCoupon);
+        }
+        throw new IllegalArgumentException("Unsupported coupon type: " + coupon.getClass().getSimpleName());
+    }
+
+    static long usageLimitOf(CouponEntity coupon) {
+        return coupon.getUsageLimit() == null ? UNLIMITED : coupon.getUsageLimit();
+    }
+
+    static long perCustomerLimitOf(CouponEntity coupon) {
+        return coupon.getPerCustomerLimit() == null ? UNLIMITED : coupon.getPerCustomerLimit();
+    }
+}
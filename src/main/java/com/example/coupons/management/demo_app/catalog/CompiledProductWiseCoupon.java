@@ -0,0 +1,57 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.CartView;
+import com.example.coupons.management.demo_app.model.CouponType;
+import com.example.coupons.management.demo_app.model.Money;
+import com.example.coupons.management.demo_app.model.ProductWiseCoupon;
+import lombok.Value;
+
+/**
+ * Immutable evaluation form of a {@link ProductWiseCoupon}. The percentage is
+ * held in basis points (see {@link Money}).
+ */
+@Value
+public class CompiledProductWiseCoupon implements CompiledCoupon {
+    long id;
+    String code;
+    String description;
+    long expiresOnEpochDay;
+    long productId;
+    int basisPoints;
+    long usageLimit;
+    long perCustomerLimit;
+
+    public static CompiledProductWiseCoupon compile(ProductWiseCoupon coupon) {
+        return new CompiledProductWiseCoupon(
+            coupon.getId(),
+            coupon.getCode(),
+            coupon.getDescription(),
+            coupon.getExpirationDate().toEpochDay(),
+            coupon.getProductId(),
+            Money.toBasisPoints(coupon.getDiscountPercentage()),
+            CompiledCoupon.usageLimitOf(coupon),
+            CompiledCoupon.perCustomerLimitOf(coupon));
+    }
+
+    @Override
+    public CouponType getType() {
+        return CouponType.PRODUCT_WISE;
+    }
+
+    @Override
+    public boolean isActiveOn(long epochDay) {
+        return epochDay < expiresOnEpochDay;
+    }
+
+    /**
+     * Discount on the combined value of every cart line holding this product.
+     */
+    public long calculateDiscount(long lineTotalMinor) {
+        return Money.applyBasisPoints(lineTotalMinor, basisPoints);
+    }
+
+    @Override
+    public long calculateDiscount(CartView cart) {
+        return calculateDiscount(cart.lineTotalMinorOf(productId));
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.repository.BxGyCouponRepository;
+import com.example.coupons.management.demo_app.repository.CartWiseCouponRepository;
+import com.example.coupons.management.demo_app.repository.ProductWiseCouponRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link CouponSnapshot} of active coupons. Rebuilds run on
+ * a single background thread and are swapped in atomically, so readers always
+ * see a complete snapshot. A rebuild is requested on startup, after every
+ * committed coupon creation, when the date rolls over (coupons expire by day)
+ * and on a fixed refresh interval to pick up changes made outside the service.
+ */
+@Component
+@Slf4j
+public class CouponCatalog {
+
+    private final CartWiseCouponRepository cartWiseCouponRepository;
+    private final ProductWiseCouponRepository productWiseCouponRepository;
+    private final BxGyCouponRepository bxGyCouponRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicReference<CouponSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    // Serializes rebuilds, which current() may also run on a request thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coupon-catalog-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CouponCatalog(CartWiseCouponRepository cartWiseCouponRepository,
+                         ProductWiseCouponRepository productWiseCouponRepository,
+                         BxGyCouponRepository bxGyCouponRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.cartWiseCouponRepository = cartWiseCouponRepository;
+        this.productWiseCouponRepository = productWiseCouponRepository;
+        this.bxGyCouponRepository = bxGyCouponRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Returns the current snapshot. Only the very first caller before the
+     * initial build completes pays for a synchronous load; a snapshot built on
+     * an earlier day is still served while its replacement is being built.
+     */
+    public CouponSnapshot current() {
+        CouponSnapshot current = snapshot.get();
+        if (current == null) {
+            return loadInitial();
+        }
+        if (LocalDate.now().isAfter(current.getAsOf())) {
+            requestRebuild();
+        }
+        return current;
+    }
+
+    /**
+     * Whether a snapshot has been built, i.e. {@link #current()} will not
+     * touch the database.
+     */
+    public boolean isLoaded() {
+        return snapshot.get() != null;
+    }
+
+    /**
+     * Schedules a background rebuild. Requests arriving while one is already
+     * queued are coalesced into it.
+     */
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuildNow();
+                } catch (RuntimeException ex) {
+                    log.warn("Coupon catalog rebuild failed, keeping previous snapshot: {}", ex.getMessage());
+                }
+            });
+        }
+    }
+
+    // Callers queued behind the first load get its snapshot instead of loading again
+    private CouponSnapshot loadInitial() {
+        rebuildLock.lock();
+        try {
+            CouponSnapshot current = snapshot.get();
+            return current != null ? current : rebuildNow();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    CouponSnapshot rebuildNow() {
+        rebuildLock.lock();
+        try {
+            LocalDate today = LocalDate.now();
+            CouponSnapshot rebuilt = readOnlyTransaction.execute(status -> CouponSnapshot.compile(
+                versions.incrementAndGet(),
+                today,
+                cartWiseCouponRepository.findAllActiveCoupons(today),
+                productWiseCouponRepository.findAllActiveCoupons(today),
+                bxGyCouponRepository.findAllActiveCoupons(today)));
+            // The version is drawn before the query, so a coupon added while it
+            // ran has a newer snapshot; keep that one, since the rebuild its event
+            // requested is already queued behind this one
+            CouponSnapshot installed = snapshot.accumulateAndGet(rebuilt,
+                (current, candidate) -> current == null || current.getVersion() < candidate.getVersion() ? candidate : current);
+            if (installed != rebuilt) {
+                log.debug("Coupon catalog snapshot v{} superseded by v{}", rebuilt.getVersion(), installed.getVersion());
+                return installed;
+            }
+            log.info("Coupon catalog snapshot v{} built with {} active coupons", rebuilt.getVersion(), rebuilt.size());
+            return rebuilt;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRebuild();
+    }
+
+    /**
+     * Adds the created coupon to the current snapshot straight away, then
+     * schedules a full rebuild to reconcile with the database.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCouponCatalogChanged(CouponCatalogChangedEvent event) {
+        // Drawn outside the update function, which is re-run if a rebuild swaps the snapshot concurrently
+        long version = versions.incrementAndGet();
+        snapshot.updateAndGet(current -> current == null ? null : current.plus(version, event.getCoupon()));
+        requestRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCouponsBulkCreated(CouponsBulkCreatedEvent event) {
+        requestRebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${coupons.catalog.refresh-interval-ms:300000}",
+               initialDelayString = "${coupons.catalog.refresh-interval-ms:300000}")
+    public void refresh() {
+        requestRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.CouponEntity;
+import lombok.Value;
+
+/**
+ * Published when a coupon is created so the {@link CouponCatalog} can add it
+ * to the snapshot and schedule a rebuild once the surrounding transaction
+ * commits.
+ */
+@Value
+public class CouponCatalogChangedEvent {
+    CouponEntity coupon;
+}
@@ -0,0 +1,208 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.redemption.IncrementalSync;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Negative-lookup front for coupon codes: a Bloom filter over every stored
+ * code, so a lookup of a code that does not exist (typically a guess) is
+ * answered without a database query. Codes created here are added as their
+ * transaction commits, generated codes chunk by chunk. Every sync interval the
+ * codes whose {@code created_at} is newer than the previous sync are added
+ * too, covering other instances and direct inserts (see
+ * {@link IncrementalSync}); such a code is reported missing only until that
+ * sync. The filter is rebuilt from the database on startup, on the catalog
+ * refresh interval, and once additions exceed what it was sized for.
+ * <p>
+ * Until the first build completes every code is reported as possibly present,
+ * so callers fall back to the database.
+ */
+@Component
+@Slf4j
+public class CouponCodeFilter {
+
+    // Fetch size when streaming codes, and minimum capacity of a filter
+    static final int FETCH_SIZE = 10_000;
+    static final long MIN_CAPACITY = 1_024;
+
+    private static final String LOAD_CREATED_SQL = "SELECT code FROM coupons.coupon WHERE created_at >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double falsePositiveRate;
+
+    private volatile CodeBloomFilter filter;
+    // Filter being loaded; local additions go to both so none is lost in the swap
+    private volatile CodeBloomFilter building;
+    private volatile long capacity;
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    // Its lock serializes rebuilds and syncs
+    private final IncrementalSync sync;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coupon-code-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CouponCodeFilter(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${coupons.code-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+        this.sync = new IncrementalSync("coupon code", () ->
+            jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class).toInstant());
+    }
+
+    /**
+     * False only when the code certainly does not exist.
+     */
+    public boolean mightContain(String code) {
+        CodeBloomFilter current = filter;
+        return current == null || current.mightContain(code);
+    }
+
+    public boolean isLoaded() {
+        return filter != null;
+    }
+
+    public void add(String code) {
+        CodeBloomFilter current = filter;
+        if (current != null) {
+            current.add(code);
+        }
+        CodeBloomFilter loading = building;
+        if (loading != null) {
+            loading.add(code);
+        }
+        if (current != null && added.incrementAndGet() > capacity) {
+            requestRebuild();
+        }
+    }
+
+    /**
+     * Schedules a background rebuild. Requests arriving while one is already
+     * queued are coalesced into it.
+     */
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    // Lookups still work, misses just go to the database
+                    log.warn("Coupon code filter could not be built: {}", ex.getMessage());
+                }
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${coupons.catalog.refresh-interval-ms:300000}",
+               initialDelayString = "${coupons.catalog.refresh-interval-ms:300000}")
+    public void refresh() {
+        requestRebuild();
+    }
+
+    /**
+     * Loads every stored code into a new filter sized at twice the current
+     * count, leaving room for codes created until the next rebuild.
+     */
+    public void rebuild() {
+        sync.lock();
+        try {
+            // Read before the scan, so codes created while it runs are synced afterwards
+            Instant started = sync.databaseTime();
+            long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupons.coupon", Long.class);
+            long newCapacity = Math.max(MIN_CAPACITY, count * 2);
+            CodeBloomFilter loading = new CodeBloomFilter(newCapacity, falsePositiveRate);
+            building = loading;
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement("SELECT code FROM coupons.coupon");
+                    statement.setFetchSize(FETCH_SIZE);
+                    return statement;
+                }, row -> {
+                    loading.add(row.getString(1));
+                }));
+                capacity = newCapacity;
+                filter = loading;
+                added.set(count);
+                sync.resumeFrom(started);
+            } finally {
+                building = null;
+            }
+            log.info("Coupon code filter built over {} codes ({} bits, {} hashes)",
+                count, loading.bitSize(), loading.hashCount());
+        } finally {
+            sync.unlock();
+        }
+    }
+
+    /**
+     * Adds the codes created since the previous sync or rebuild, wherever they
+     * were created. Skipped until the first build, and while a rebuild runs,
+     * which resumes the sync from its own start.
+     */
+    @Scheduled(fixedDelayString = "${coupons.code-filter.sync-interval-ms:1000}",
+               initialDelayString = "${coupons.code-filter.sync-interval-ms:1000}")
+    public void syncCreatedCodes() {
+        if (filter == null || !sync.tryLock()) {
+            return;
+        }
+        try {
+            sync.sync(since -> jdbcTemplate.query(LOAD_CREATED_SQL, row -> {
+                // Codes already seen, mostly from the overlap, do not count towards a rebuild
+                String code = row.getString(1);
+                if (!filter.mightContain(code)) {
+                    add(code);
+                }
+            }, Timestamp.from(since)));
+        } catch (RuntimeException ex) {
+            log.warn("Could not sync created coupon codes: {}", ex.getMessage());
+        } finally {
+            sync.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCouponCatalogChanged(CouponCatalogChangedEvent event) {
+        add(event.getCoupon().getCode());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCouponsBulkCreated(CouponsBulkCreatedEvent event) {
+        event.getCodes().forEach(this::add);
+    }
+
+    @EventListener
+    public void onCouponCodesGenerated(CouponCodesGeneratedEvent event) {
+        event.getCodes().forEach(this::add);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
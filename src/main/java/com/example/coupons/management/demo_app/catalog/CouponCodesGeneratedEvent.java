@@ -0,0 +1,17 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.CouponType;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published once per chunk of a code generation job, after the chunk commits.
+ * Generated coupons are redeemable by code only and never enter the catalog
+ * snapshot, so only the code filter listens.
+ */
+@Value
+public class CouponCodesGeneratedEvent {
+    CouponType type;
+    List<String> codes;
+}
@@ -0,0 +1,103 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.dto.CacheStatsDTO;
+import com.example.coupons.management.demo_app.dto.CouponResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded local cache in front of coupon lookups by id and by code. Both
+ * caches use Caffeine's W-TinyLFU eviction, so a burst of one-off lookups
+ * does not push out hot coupons such as sitewide codes. The code cache only
+ * maps code to id; coupon details are held once, in the id cache. Callers
+ * get their own copy of a cached coupon, so changing it cannot alter what
+ * the next caller sees.
+ * <p>
+ * Misses are not cached. Entries for a coupon are invalidated when its
+ * creation commits, and expire after a fixed time so that changes made
+ * outside this service are picked up.
+ */
+@Component
+@Slf4j
+public class CouponLookupCache {
+
+    private final Cache<Long, CouponResponseDTO> couponsById;
+    private final Cache<String, Long> idsByCode;
+
+    public CouponLookupCache(@Value("${coupons.cache.max-entries:100000}") long maxEntries,
+                             @Value("${coupons.cache.expire-after-write-ms:600000}") long expireAfterWriteMs) {
+        this.couponsById = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+            .recordStats()
+            .build();
+        this.idsByCode = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Returns the cached coupon or loads it. Exceptions thrown by the loader
+     * (e.g. coupon not found) propagate and nothing is cached.
+     */
+    public CouponResponseDTO getById(long couponId, Function<Long, CouponResponseDTO> loader) {
+        return couponsById.get(couponId, loader).copy();
+    }
+
+    public CouponResponseDTO getByCode(String code, Function<String, CouponResponseDTO> loader) {
+        Long couponId = idsByCode.getIfPresent(code);
+        if (couponId != null) {
+            CouponResponseDTO coupon = couponsById.getIfPresent(couponId);
+            if (coupon != null) {
+                return coupon.copy();
+            }
+        }
+        CouponResponseDTO coupon = loader.apply(code);
+        couponsById.put(coupon.getId(), coupon);
+        idsByCode.put(coupon.getCode(), coupon.getId());
+        return coupon.copy();
+    }
+
+    public void invalidate(long couponId, String code) {
+        couponsById.invalidate(couponId);
+        idsByCode.invalidate(code);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCouponCatalogChanged(CouponCatalogChangedEvent event) {
+        invalidate(event.getCoupon().getId(), event.getCoupon().getCode());
+    }
+
+    public Map<String, CacheStatsDTO> stats() {
+        Map<String, CacheStatsDTO> stats = new LinkedHashMap<>();
+        stats.put("byId", toDto(couponsById));
+        stats.put("byCode", toDto(idsByCode));
+        return stats;
+    }
+
+    /**
+     * Runs pending maintenance (evictions, expiry) straight away.
+     */
+    void cleanUp() {
+        couponsById.cleanUp();
+        idsByCode.cleanUp();
+    }
+
+    private static CacheStatsDTO toDto(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+            stats.hitRate(), stats.evictionCount());
+    }
+}
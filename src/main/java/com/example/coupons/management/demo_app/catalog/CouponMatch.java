@@ -0,0 +1,16 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.CouponType;
+import lombok.Value;
+
+/**
+ * A coupon that applies to a cart together with its discount in minor units.
+ */
+@Value
+public class CouponMatch {
+    long couponId;
+    String code;
+    CouponType type;
+    String description;
+    long discountMinor;
+}
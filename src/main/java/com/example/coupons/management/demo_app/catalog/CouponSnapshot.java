@@ -0,0 +1,281 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.dto.ApplicableCouponDTO;
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.model.*;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, fully compiled view of every active coupon. A snapshot is built
+ * off the request path by {@link CouponCatalog} and can be evaluated from any
+ * number of threads without a transaction or database round trip. Discounts
+ * are computed in minor units and only converted to major units for the
+ * returned DTOs.
+ * <p>
+ * Cart-wise coupons are kept sorted by threshold so only the qualifying
+ * prefix is visited. Product-wise and BxGy coupons are reachable only through a productId index,
+ * so evaluation cost grows with the number of distinct products in the cart
+ * rather than with the size of the catalog. A BxGy coupon needs every one of
+ * its buy products in the cart, so it is indexed under a single anchor buy
+ * product (the smallest id) and is never visited twice for the same cart.
+ */
+@Getter
+public class CouponSnapshot {
+
+    private final long version;
+    private final LocalDate asOf;
+    private final List<CompiledCartWiseCoupon> cartWiseCoupons;
+    private final List<CompiledProductWiseCoupon> productWiseCoupons;
+    private final List<CompiledBxGyCoupon> bxGyCoupons;
+
+    private final CartWiseThresholdIndex cartWiseIndex;
+    private final Map<Long, List<CompiledProductWiseCoupon>> productWiseByProduct;
+    private final Map<Long, List<CompiledBxGyCoupon>> bxGyByAnchorProduct;
+    // BxGy coupons with no buy products apply to every cart
+    private final List<CompiledBxGyCoupon> unconditionalBxGyCoupons;
+    private final Map<Long, CompiledCoupon> couponsById;
+    private final Map<String, CompiledCoupon> couponsByCode;
+
+    private CouponSnapshot(long version, LocalDate asOf,
+                           List<CompiledCartWiseCoupon> cartWiseCoupons,
+                           List<CompiledProductWiseCoupon> productWiseCoupons,
+                           List<CompiledBxGyCoupon> bxGyCoupons) {
+        this.version = version;
+        this.asOf = asOf;
+        this.cartWiseCoupons = List.copyOf(cartWiseCoupons);
+        this.productWiseCoupons = List.copyOf(productWiseCoupons);
+        this.bxGyCoupons = List.copyOf(bxGyCoupons);
+
+        this.cartWiseIndex = new CartWiseThresholdIndex(this.cartWiseCoupons);
+
+        Map<Long, List<CompiledProductWiseCoupon>> productIndex = new HashMap<>();
+        for (CompiledProductWiseCoupon coupon : this.productWiseCoupons) {
+            productIndex.computeIfAbsent(coupon.getProductId(), key -> new ArrayList<>()).add(coupon);
+        }
+        Map<Long, List<CompiledBxGyCoupon>> bxGyIndex = new HashMap<>();
+        List<CompiledBxGyCoupon> unconditional = new ArrayList<>();
+        for (CompiledBxGyCoupon coupon : this.bxGyCoupons) {
+            if (!coupon.hasBuyProducts()) {
+                unconditional.add(coupon);
+            } else {
+                bxGyIndex.computeIfAbsent(coupon.anchorProductId(), key -> new ArrayList<>()).add(coupon);
+            }
+        }
+        this.productWiseByProduct = freeze(productIndex);
+        this.bxGyByAnchorProduct = freeze(bxGyIndex);
+        this.unconditionalBxGyCoupons = List.copyOf(unconditional);
+
+        Map<Long, CompiledCoupon> byId = new HashMap<>(size() * 2);
+        this.cartWiseCoupons.forEach(coupon -> byId.put(coupon.getId(), coupon));
+        this.productWiseCoupons.forEach(coupon -> byId.put(coupon.getId(), coupon));
+        this.bxGyCoupons.forEach(coupon -> byId.put(coupon.getId(), coupon));
+        this.couponsById = Collections.unmodifiableMap(byId);
+        Map<String, CompiledCoupon> byCode = new HashMap<>(size() * 2);
+        byId.values().forEach(coupon -> byCode.put(coupon.getCode(), coupon));
+        this.couponsByCode = Collections.unmodifiableMap(byCode);
+    }
+
+    private static <T> Map<Long, List<T>> freeze(Map<Long, List<T>> index) {
+        Map<Long, List<T>> frozen = new HashMap<>(index.size() * 2);
+        index.forEach((productId, coupons) -> frozen.put(productId, List.copyOf(coupons)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    public static CouponSnapshot compile(long version, LocalDate asOf,
+                                         List<CartWiseCoupon> cartWiseCoupons,
+                                         List<ProductWiseCoupon> productWiseCoupons,
+                                         List<BxGyCoupon> bxGyCoupons) {
+        return new CouponSnapshot(version, asOf,
+            cartWiseCoupons.stream().map(CompiledCartWiseCoupon::compile).toList(),
+            productWiseCoupons.stream().map(CompiledProductWiseCoupon::compile).toList(),
+            bxGyCoupons.stream().map(CompiledBxGyCoupon::compile).toList());
+    }
+
+    /**
+     * Returns a copy of this snapshot that also contains the given newly
+     * created coupon, keeping the productId index in sync without waiting for
+     * a full rebuild. Inactive or already expired coupons are ignored.
+     */
+    public CouponSnapshot plus(long newVersion, CouponEntity coupon) {
+        if (!Boolean.TRUE.equals(coupon.getIsActive()) || !coupon.getExpirationDate().isAfter(asOf)) {
+            return this;
+        }
+        List<CompiledCartWiseCoupon> cartWise = cartWiseCoupons;
+        List<CompiledProductWiseCoupon> productWise = productWiseCoupons;
+        List<CompiledBxGyCoupon> bxGy = bxGyCoupons;
+        CompiledCoupon compiled = CompiledCoupon.compile(coupon);
+        if (compiled instanceof CompiledCartWiseCoupon cartWiseCoupon) {
+            cartWise = append(cartWise, cartWiseCoupon);
+        } else if (compiled instanceof CompiledProductWiseCoupon productWiseCoupon) {
+            productWise = append(productWise, productWiseCoupon);
+        } else if (compiled instanceof CompiledBxGyCoupon bxGyCoupon) {
+            bxGy = append(bxGy, bxGyCoupon);
+        }
+        return new CouponSnapshot(newVersion, asOf, cartWise, productWise, bxGy);
+    }
+
+    private static <T> List<T> append(List<T> list, T element) {
+        List<T> copy = new ArrayList<>(list.size() + 1);
+        copy.addAll(list);
+        copy.add(element);
+        return copy;
+    }
+
+    public int size() {
+        return cartWiseCoupons.size() + productWiseCoupons.size() + bxGyCoupons.size();
+    }
+
+    /**
+     * Returns the compiled rule for the coupon, or {@code null} when it is not
+     * part of this snapshot (unknown, inactive or expired when it was built).
+     */
+    public CompiledCoupon find(long couponId) {
+        return couponsById.get(couponId);
+    }
+
+    /**
+     * Code counterpart of {@link #find(long)}; codes are unique across types.
+     */
+    public CompiledCoupon findByCode(String code) {
+        return couponsByCode.get(code);
+    }
+
+    /**
+     * Evaluates the cart against every coupon that is still unexpired on
+     * {@code today}. Results are ordered cart-wise (by ascending threshold),
+     * product-wise, then BxGy.
+     */
+    public List<ApplicableCouponDTO> evaluate(CartDTO cart, LocalDate today) {
+        return evaluate(CartView.of(cart), today);
+    }
+
+    public List<ApplicableCouponDTO> evaluate(CartView cart, LocalDate today) {
+        long epochDay = today.toEpochDay();
+        List<ApplicableCouponDTO> applicableCoupons = new ArrayList<>();
+
+        long cartValueMinor = cart.getTotalMinor();
+        int qualifyingCartWise = cartWiseIndex.qualifyingCount(cartValueMinor);
+        for (int i = 0; i < qualifyingCartWise; i++) {
+            CompiledCartWiseCoupon coupon = cartWiseIndex.get(i);
+            if (!coupon.isActiveOn(epochDay)) {
+                continue;
+            }
+            long discountMinor = coupon.calculateDiscount(cartValueMinor);
+            if (discountMinor > 0) {
+                applicableCoupons.add(new ApplicableCouponDTO(
+                    coupon.getId(), coupon.getCode(), CouponType.CART_WISE.name(),
+                    coupon.getDescription(), Money.toMajor(discountMinor)));
+            }
+        }
+
+        for (int i = 0; i < cart.size(); i++) {
+            for (CompiledProductWiseCoupon coupon : productWiseByProduct.getOrDefault(cart.productIdAt(i), List.of())) {
+                if (!coupon.isActiveOn(epochDay)) {
+                    continue;
+                }
+                long discountMinor = coupon.calculateDiscount(cart.lineTotalMinorAt(i));
+                if (discountMinor > 0) {
+                    applicableCoupons.add(new ApplicableCouponDTO(
+                        coupon.getId(), coupon.getCode(), CouponType.PRODUCT_WISE.name(),
+                        coupon.getDescription(), Money.toMajor(discountMinor)));
+                }
+            }
+        }
+
+        for (CompiledBxGyCoupon coupon : unconditionalBxGyCoupons) {
+            addIfApplicable(coupon, epochDay, cart, applicableCoupons);
+        }
+        for (int i = 0; i < cart.size(); i++) {
+            for (CompiledBxGyCoupon coupon : bxGyByAnchorProduct.getOrDefault(cart.productIdAt(i), List.of())) {
+                addIfApplicable(coupon, epochDay, cart, applicableCoupons);
+            }
+        }
+
+        return applicableCoupons;
+    }
+
+    /**
+     * Finds the single coupon with the highest discount for the cart without
+     * materialising the list of applicable coupons. Cart-wise coupons are
+     * resolved through the threshold index; product-wise and BxGy candidates
+     * come from the productId index. Ties keep the first candidate in
+     * {@link #evaluate(CartView, LocalDate)} order. Returns {@code null} when
+     * no coupon gives a positive discount.
+     */
+    public CouponMatch best(CartView cart, LocalDate today) {
+        return best(cart, today, coupon -> true);
+    }
+
+    /**
+     * {@link #best(CartView, LocalDate)} restricted to the coupons accepted by
+     * {@code eligible}, e.g. those the customer has not used up. The predicate
+     * is only called for coupons that would beat the best discount so far.
+     */
+    public CouponMatch best(CartView cart, LocalDate today, Predicate<? super CompiledCoupon> eligible) {
+        long epochDay = today.toEpochDay();
+        CouponMatch best = null;
+        long bestDiscountMinor = 0;
+
+        CompiledCartWiseCoupon bestCartWise = cartWiseIndex.best(cart.getTotalMinor(), epochDay, eligible);
+        if (bestCartWise != null) {
+            long discountMinor = bestCartWise.calculateDiscount(cart.getTotalMinor());
+            if (discountMinor > bestDiscountMinor) {
+                bestDiscountMinor = discountMinor;
+                best = new CouponMatch(bestCartWise.getId(), bestCartWise.getCode(), CouponType.CART_WISE,
+                    bestCartWise.getDescription(), discountMinor);
+            }
+        }
+
+        for (int i = 0; i < cart.size(); i++) {
+            for (CompiledProductWiseCoupon coupon : productWiseByProduct.getOrDefault(cart.productIdAt(i), List.of())) {
+                if (!coupon.isActiveOn(epochDay)) {
+                    continue;
+                }
+                long discountMinor = coupon.calculateDiscount(cart.lineTotalMinorAt(i));
+                if (discountMinor > bestDiscountMinor && eligible.test(coupon)) {
+                    bestDiscountMinor = discountMinor;
+                    best = new CouponMatch(coupon.getId(), coupon.getCode(), CouponType.PRODUCT_WISE,
+                        coupon.getDescription(), discountMinor);
+                }
+            }
+        }
+
+        for (int i = -1; i < cart.size(); i++) {
+            // Position -1 stands for the BxGy coupons without buy products
+            List<CompiledBxGyCoupon> candidates = i < 0
+                ? unconditionalBxGyCoupons
+                : bxGyByAnchorProduct.getOrDefault(cart.productIdAt(i), List.of());
+            for (CompiledBxGyCoupon coupon : candidates) {
+                if (!coupon.isActiveOn(epochDay)) {
+                    continue;
+                }
+                long discountMinor = coupon.evaluate(cart);
+                if (discountMinor > bestDiscountMinor && eligible.test(coupon)) {
+                    bestDiscountMinor = discountMinor;
+                    best = new CouponMatch(coupon.getId(), coupon.getCode(), CouponType.BXGY,
+                        coupon.getDescription(), discountMinor);
+                }
+            }
+        }
+
+        return best;
+    }
+
+    private static void addIfApplicable(CompiledBxGyCoupon coupon, long epochDay, CartView cart,
+                                        List<ApplicableCouponDTO> applicableCoupons) {
+        if (!coupon.isActiveOn(epochDay)) {
+            return;
+        }
+        long discountMinor = coupon.evaluate(cart);
+        if (discountMinor != CompiledBxGyCoupon.NOT_APPLICABLE) {
+            // Still applicable when free product prices are unknown and the discount is 0
+            applicableCoupons.add(new ApplicableCouponDTO(
+                coupon.getId(), coupon.getCode(), CouponType.BXGY.name(),
+                coupon.getDescription(), Money.toMajor(discountMinor)));
+        }
+    }
+}
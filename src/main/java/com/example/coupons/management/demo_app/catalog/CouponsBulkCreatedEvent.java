@@ -0,0 +1,18 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.CouponType;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published once per bulk creation instead of one
+ * {@link CouponCatalogChangedEvent} per coupon, so a large campaign triggers a
+ * single catalog rebuild rather than thousands of incremental snapshot copies.
+ */
+@Value
+public class CouponsBulkCreatedEvent {
+    CouponType type;
+    List<Long> ids;
+    List<String> codes; // in the same order as ids
+}
@@ -3,24 +3,41 @@ package com.example.coupons.management.demo_app.controller;
 import com.example.coupons.management.demo_app.dto.*;
 import com.example.coupons.management.demo_app.model.*;
 import com.example.coupons.management.demo_app.service.CouponService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/coupons")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CouponController {
 
     private final CouponService couponService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/cart-wise")
     public ResponseEntity<CartWiseCoupon> createCartWiseCoupon(
@@ -46,6 +63,43 @@ public class CouponController {
         return ResponseEntity.status(HttpStatus.CREATED).body(coupon);
     }
 
+    // Bulk creation: every item is validated on its own; rejected items are
+    // listed by index in the result and the rest are still created
+    @PostMapping("/cart-wise/bulk")
+    public ResponseEntity<BulkCreateResultDTO> createCartWiseCoupons(
+            @RequestBody List<CreateCartWiseCouponRequest> requests) {
+        log.info("Creating {} cart-wise coupons in bulk", requests.size());
+        return ResponseEntity.ok(couponService.createCartWiseCoupons(requests));
+    }
+
+    @PostMapping("/product-wise/bulk")
+    public ResponseEntity<BulkCreateResultDTO> createProductWiseCoupons(
+            @RequestBody List<CreateProductWiseCouponRequest> requests) {
+        log.info("Creating {} product-wise coupons in bulk", requests.size());
+        return ResponseEntity.ok(couponService.createProductWiseCoupons(requests));
+    }
+
+    @PostMapping("/bxgy/bulk")
+    public ResponseEntity<BulkCreateResultDTO> createBxGyCoupons(
+            @RequestBody List<CreateBxGyCouponRequest> requests) {
+        log.info("Creating {} BxGy coupons in bulk", requests.size());
+        return ResponseEntity.ok(couponService.createBxGyCoupons(requests));
+    }
+
+    // Generated codes are written in the background; poll the returned job for progress
+    @PostMapping("/code-generation")
+    public ResponseEntity<CodeGenerationJobDTO> startCodeGeneration(
+            @Valid @RequestBody GenerateCouponCodesRequest request) {
+        log.info("Starting generation of {} {} coupons with prefix '{}'",
+            request.getCount(), request.getType(), request.getPrefix());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(couponService.startCodeGeneration(request));
+    }
+
+    @GetMapping("/code-generation/{jobId}")
+    public ResponseEntity<CodeGenerationJobDTO> getCodeGenerationJob(@PathVariable String jobId) {
+        return ResponseEntity.of(couponService.getCodeGenerationJob(jobId));
+    }
+
     @GetMapping
     public ResponseEntity<List<CouponResponseDTO>> getAllCoupons() {
         log.info("Retrieving all coupons");
@@ -53,6 +107,63 @@ public class CouponController {
         return ResponseEntity.ok(coupons);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CouponPageDTO> getCouponPage(
+            @RequestParam(required = false) CouponType type,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiringBefore,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("Retrieving coupon page after cursor: {}", cursor);
+        CouponPageDTO page = couponService.getCouponPage(type, active, expiringBefore, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Writes every matching coupon as one JSON line while reading them from a
+     * database cursor, so memory use does not depend on the catalog size.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamCoupons(
+            @RequestParam(required = false) CouponType type,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiringBefore,
+            HttpServletResponse response) throws IOException {
+        log.info("Streaming coupons");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            couponService.streamCoupons(type, active, expiringBefore, coupon -> {
+                try {
+                    writer.writeValue(generator, coupon);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @GetMapping("/code/{code}")
+    public ResponseEntity<CouponResponseDTO> getCouponByCode(@PathVariable String code) {
+        log.info("Retrieving coupon with code: {}", code);
+        CouponResponseDTO coupon = couponService.getCouponByCode(code);
+        return ResponseEntity.ok(coupon);
+    }
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(couponService.getCacheStats());
+    }
+
+    @GetMapping("/{id}/redemptions")
+    public ResponseEntity<RedemptionCountDTO> getRedemptionCount(@PathVariable Long id) {
+        return ResponseEntity.ok(couponService.getRedemptionCount(id));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CouponResponseDTO> getCouponById(@PathVariable Long id) {
         log.info("Retrieving coupon with id: {}", id);
@@ -68,6 +179,53 @@ public class CouponController {
         return ResponseEntity.ok(applicableCoupons);
     }
 
+    @PostMapping("/applicable-coupons/batch")
+    public ResponseEntity<List<List<ApplicableCouponDTO>>> getApplicableCouponsBatch(
+            @RequestBody List<@Valid CartDTO> carts) {
+        log.info("Finding applicable coupons for a batch of {} carts", carts.size());
+        List<List<ApplicableCouponDTO>> applicableCoupons = couponService.findApplicableCoupons(carts);
+        return ResponseEntity.ok(applicableCoupons);
+    }
+
+    /**
+     * Reads newline-delimited carts and writes one line of applicable coupons per
+     * cart, in input order. Each result is written as soon as its cart is parsed,
+     * and the response is flushed whenever reading the next cart would wait on the
+     * client, so neither side is held in memory and no result waits for later carts.
+     */
+    @PostMapping(value = "/applicable-coupons/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamApplicableCoupons(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Streaming applicable coupons");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            // Results written since the last flush; nothing is committed before the first one
+            long[] unflushed = {0};
+            InputStream body = new FlushBeforeBlockingInputStream(request.getInputStream(), () -> {
+                if (unflushed[0] > 0) {
+                    generator.flush();
+                    unflushed[0] = 0;
+                }
+            });
+            try (MappingIterator<CartDTO> carts = objectMapper.readerFor(CartDTO.class).readValues(body)) {
+                couponService.streamApplicableCoupons(carts, result -> {
+                    try {
+                        writer.writeValue(generator, result);
+                        generator.writeRaw('\n');
+                        unflushed[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     @PostMapping("/apply-coupon/{id}")
     public ResponseEntity<CouponApplicationResultDTO> applyCoupon(
             @PathVariable Long id,
@@ -76,4 +234,36 @@ public class CouponController {
         CouponApplicationResultDTO result = couponService.applyCoupon(id, cart);
         return ResponseEntity.ok(result);
     }
+
+    // Takes the code a customer typed, including signed codes
+    @PostMapping("/apply-code/{code}")
+    public ResponseEntity<CouponApplicationResultDTO> applyCouponCode(
+            @PathVariable String code,
+            @Valid @RequestBody CartDTO cart) {
+        log.info("Applying coupon with code: {} to cart", code);
+        return ResponseEntity.ok(couponService.applyCouponCode(code, cart));
+    }
+
+    // Signed codes redeem the template coupon {id}; each code works once
+    @PostMapping("/{id}/signed-codes")
+    public ResponseEntity<SignedCodesDTO> issueSignedCodes(
+            @PathVariable Long id,
+            @RequestParam int count) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(couponService.issueSignedCodes(id, count));
+    }
+
+    @PostMapping("/apply-signed-code/{code}")
+    public ResponseEntity<CouponApplicationResultDTO> applySignedCode(
+            @PathVariable String code,
+            @Valid @RequestBody CartDTO cart) {
+        return ResponseEntity.ok(couponService.applySignedCode(code, cart));
+    }
+
+    @PostMapping("/apply-best")
+    public ResponseEntity<CouponApplicationResultDTO> applyBestCoupon(
+            @Valid @RequestBody CartDTO cart) {
+        log.info("Applying best coupon to cart with {} items", cart.getItems().size());
+        CouponApplicationResultDTO result = couponService.applyBestCoupon(cart);
+        return ResponseEntity.ok(result);
+    }
 }
@@ -0,0 +1,40 @@
+package com.example.coupons.management.demo_app.controller;
+
+import java.io.FilterInputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Request body that flushes the response before a read that may block, so
+ * results already written reach a client that is still sending the rest of
+ * its request. While more input is buffered, reads go straight through and
+ * results are written in as few packets as the output buffer allows.
+ */
+final class FlushBeforeBlockingInputStream extends FilterInputStream {
+
+    private final Flushable output;
+
+    FlushBeforeBlockingInputStream(InputStream in, Flushable output) {
+        super(in);
+        this.output = output;
+    }
+
+    @Override
+    public int read() throws IOException {
+        flushIfBlocking();
+        return super.read();
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        flushIfBlocking();
+        return super.read(buffer, offset, length);
+    }
+
+    private void flushIfBlocking() throws IOException {
+        if (in.available() == 0) {
+            output.flush();
+        }
+    }
+}
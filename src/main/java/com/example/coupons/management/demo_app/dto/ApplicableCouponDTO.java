@@ -13,4 +13,12 @@ public class ApplicableCouponDTO {
     private String couponType;
     private String description;
     private Double discountAmount;
+
+    /**
+     * Field-by-field copy. Every field is an immutable value, so the copy
+     * shares nothing that a setter on either object could change.
+     */
+    public ApplicableCouponDTO copy() {
+        return new ApplicableCouponDTO(couponId, couponCode, couponType, description, discountAmount);
+    }
 }
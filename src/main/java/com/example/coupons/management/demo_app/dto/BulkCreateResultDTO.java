@@ -0,0 +1,16 @@
+package com.example.coupons.management.demo_app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateResultDTO {
+    private int requested;
+    private int created;
+    private List<Long> createdIds; // in request order, skipping rejected items
+    private List<BulkItemErrorDTO> errors;
+}
@@ -0,0 +1,15 @@
+package com.example.coupons.management.demo_app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemErrorDTO {
+    private int index; // position in the request array
+    private String code;
+    private Map<String, String> errors; // field -> message
+}
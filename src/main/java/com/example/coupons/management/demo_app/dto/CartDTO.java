@@ -11,6 +11,13 @@ import java.util.List;
 public class CartDTO {
     private List<ItemDTO> items;
 
+    // Optional; required only by coupons with a per-customer limit
+    private Long customerId;
+
+    public CartDTO(List<ItemDTO> items) {
+        this.items = items;
+    }
+
     public double getTotalValue() {
         return items.stream()
                 .mapToDouble(item -> item.getPrice() * item.getQuantity())
@@ -0,0 +1,23 @@
+package com.example.coupons.management.demo_app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CodeGenerationJobDTO {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String jobId;
+    private Status status;
+    private String prefix;
+    private long requested;
+    private long generated; // committed so far
+    private String error; // set when FAILED
+    private Instant startedAt;
+    private Instant finishedAt;
+}
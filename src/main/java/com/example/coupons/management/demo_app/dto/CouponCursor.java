@@ -0,0 +1,34 @@
+package com.example.coupons.management.demo_app.dto;
+
+import com.example.coupons.management.demo_app.exception.InvalidCursorException;
+import com.example.coupons.management.demo_app.model.CouponType;
+import lombok.Value;
+
+/**
+ * Keyset position in the coupon listing, which is ordered by type then id.
+ * Rendered as {@code TYPE:id}, e.g. {@code CART_WISE:42}.
+ */
+@Value
+public class CouponCursor {
+    CouponType type;
+    long id;
+
+    public static CouponCursor parse(String cursor) {
+        int separator = cursor.indexOf(':');
+        if (separator < 0) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new CouponCursor(
+                CouponType.valueOf(cursor.substring(0, separator)),
+                Long.parseLong(cursor.substring(separator + 1)));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type.name() + ":" + id;
+    }
+}
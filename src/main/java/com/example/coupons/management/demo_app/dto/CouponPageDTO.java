@@ -0,0 +1,14 @@
+package com.example.coupons.management.demo_app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponPageDTO {
+    private List<CouponResponseDTO> coupons;
+    private String nextCursor; // null on the last page
+}
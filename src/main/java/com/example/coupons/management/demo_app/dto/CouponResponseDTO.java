@@ -15,6 +15,8 @@ public class CouponResponseDTO {
     private Boolean isActive;
     private String description;
     private String type; // "CART_WISE", "PRODUCT_WISE", "BXGY"
+    private Integer usageLimit;
+    private Integer perCustomerLimit;
 
     // Cart-wise specific fields
     private Double threshold;
@@ -25,4 +27,13 @@ public class CouponResponseDTO {
 
     // BxGy specific fields
     private Integer repetitionLimit;
+
+    /**
+     * Field-by-field copy. Every field is an immutable value, so the copy
+     * shares nothing that a setter on either object could change.
+     */
+    public CouponResponseDTO copy() {
+        return new CouponResponseDTO(id, code, expirationDate, isActive, description, type, usageLimit,
+            perCustomerLimit, threshold, discountPercentage, productId, repetitionLimit);
+    }
 }
@@ -3,6 +3,7 @@ package com.example.coupons.management.demo_app.dto;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
@@ -31,4 +32,12 @@ public class CreateBxGyCouponRequest {
     @NotNull(message = "Repetition limit is required")
     @Positive(message = "Repetition limit must be positive")
     private Integer repetitionLimit;
+
+    // Optional cap on total redemptions; omit for unlimited
+    @Min(value = 1, message = "Usage limit must be at least 1")
+    private Integer usageLimit;
+
+    // Optional cap on redemptions per customer; omit for unlimited
+    @Min(value = 1, message = "Per-customer limit must be at least 1")
+    private Integer perCustomerLimit;
 }
@@ -32,4 +32,12 @@ public class CreateProductWiseCouponRequest {
     @DecimalMin(value = "0.01", message = "Discount percentage must be positive")
     @DecimalMax(value = "100.00", message = "Discount percentage cannot exceed 100")
     private BigDecimal discountPercentage;
+
+    // Optional cap on total redemptions; omit for unlimited
+    @Min(value = 1, message = "Usage limit must be at least 1")
+    private Integer usageLimit;
+
+    // Optional cap on redemptions per customer; omit for unlimited
+    @Min(value = 1, message = "Per-customer limit must be at least 1")
+    private Integer perCustomerLimit;
 }
@@ -0,0 +1,61 @@
+package com.example.coupons.management.demo_app.dto;
+
+import com.example.coupons.management.demo_app.model.CouponType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.math.BigDecimal;
+
+/**
+ * Template for a code generation job: {@code count} coupons that share every
+ * field except their code. Only CART_WISE and PRODUCT_WISE templates are
+ * supported; the fields of the other type are ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerateCouponCodesRequest {
+
+    @NotNull(message = "Coupon type is required")
+    private CouponType type;
+
+    @NotNull(message = "Count is required")
+    @Min(value = 1, message = "Count must be at least 1")
+    private Long count;
+
+    // Fixed start of every generated code; codes are prefix + length random characters
+    @NotNull(message = "Prefix is required")
+    @Size(max = 64, message = "Prefix cannot exceed 64 characters")
+    @Pattern(regexp = "[A-Za-z0-9_-]*", message = "Prefix may only contain letters, digits, '-' and '_'")
+    private String prefix;
+
+    // Optional; defaults to upper-case letters and digits without 0/O and 1/I
+    private String alphabet;
+
+    @NotNull(message = "Code length is required")
+    @Min(value = 4, message = "Code length must be at least 4")
+    private Integer length;
+
+    @NotNull(message = "Expiration date is required")
+    private LocalDate expirationDate;
+
+    private String description;
+
+    // CART_WISE
+    private BigDecimal threshold;
+
+    // PRODUCT_WISE
+    private Long productId;
+
+    private BigDecimal discountPercentage;
+
+    // Defaults to 1: each generated code is meant to be redeemed once
+    private Integer usageLimit;
+
+    private Integer perCustomerLimit;
+}
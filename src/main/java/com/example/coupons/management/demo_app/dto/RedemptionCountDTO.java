@@ -0,0 +1,14 @@
+package com.example.coupons.management.demo_app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RedemptionCountDTO {
+    private Long couponId;
+    private long redeemed;
+    private Integer usageLimit; // null when unlimited
+}
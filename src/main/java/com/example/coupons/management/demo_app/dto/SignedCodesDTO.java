@@ -0,0 +1,14 @@
+package com.example.coupons.management.demo_app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SignedCodesDTO {
+    private Long couponId; // template coupon every code redeems
+    private List<String> codes;
+}
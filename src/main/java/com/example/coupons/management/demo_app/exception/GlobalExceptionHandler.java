@@ -1,6 +1,7 @@
 package com.example.coupons.management.demo_app.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -15,6 +16,7 @@ import java.util.Map;
 
 @ControllerAdvice
 @Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(CouponNotFoundException.class)
@@ -49,6 +51,71 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(
+            InvalidCursorException ex, WebRequest request) {
+        log.error("Invalid cursor: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid Cursor",
+            ex.getMessage(),
+            LocalDateTime.now(),
+            request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidCodeGenerationRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCodeGenerationRequestException(
+            InvalidCodeGenerationRequestException ex, WebRequest request) {
+        log.error("Invalid code generation request: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid Code Generation Request",
+            ex.getMessage(),
+            LocalDateTime.now(),
+            request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidSignedCodesRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidSignedCodesRequestException(
+            InvalidSignedCodesRequestException ex, WebRequest request) {
+        log.error("Invalid signed codes request: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid Signed Codes Request",
+            ex.getMessage(),
+            LocalDateTime.now(),
+            request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    // Not the client's fault: the instance has no signing secret configured
+    @ExceptionHandler(SignedCodesDisabledException.class)
+    public ResponseEntity<ErrorResponse> handleSignedCodesDisabledException(
+            SignedCodesDisabledException ex, WebRequest request) {
+        log.error("Signed codes disabled: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Signed Codes Disabled",
+            ex.getMessage(),
+            LocalDateTime.now(),
+            request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
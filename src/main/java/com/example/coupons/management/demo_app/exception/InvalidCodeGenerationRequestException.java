@@ -0,0 +1,8 @@
+package com.example.coupons.management.demo_app.exception;
+
+public class InvalidCodeGenerationRequestException extends RuntimeException {
+    public InvalidCodeGenerationRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.example.coupons.management.demo_app.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.example.coupons.management.demo_app.exception;
+
+public class InvalidSignedCodesRequestException extends RuntimeException {
+    public InvalidSignedCodesRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.example.coupons.management.demo_app.exception;
+
+public class SignedCodesDisabledException extends RuntimeException {
+    public SignedCodesDisabledException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.example.coupons.management.demo_app.generation;
+
+import com.example.coupons.management.demo_app.catalog.CouponCodesGeneratedEvent;
+import com.example.coupons.management.demo_app.dto.CodeGenerationJobDTO;
+import com.example.coupons.management.demo_app.dto.CodeGenerationJobDTO.Status;
+import com.example.coupons.management.demo_app.exception.InvalidCodeGenerationRequestException;
+import com.example.coupons.management.demo_app.model.Coupon;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs code generation jobs one at a time on a background thread. A job
+ * writes its coupons in chunks, each in its own transaction, so progress is
+ * visible (and kept) while the rest is still being written; a failed job
+ * leaves its committed chunks in place. Generated coupons are redeemable by
+ * code only, so they stay out of the catalog snapshot. After each chunk
+ * commits, a {@link CouponCodesGeneratedEvent} adds its codes to the code
+ * filter, and from then on they can be redeemed.
+ * <p>
+ * Codes within a job never repeat (see {@link CouponCodeGenerator}); a job is
+ * refused when stored codes already use its prefix at the same length, or when
+ * an unfinished job could generate the same codes, i.e. its prefix and the
+ * new one start with each other at the same length. Jobs are tracked in memory only, so their status is
+ * lost on restart, but written coupons are not.
+ */
+@Component
+@Slf4j
+public class CodeGenerationJobs {
+
+    private final GeneratedCouponWriter writer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Makes the prefix check (a query) and the job registration atomic
+    private final ReentrantLock startLock = new ReentrantLock();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coupon-code-generation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CodeGenerationJobs(GeneratedCouponWriter writer,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${coupons.codegen.chunk-size:10000}") int chunkSize) {
+        this.writer = writer;
+        this.eventPublisher = eventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Queues a job writing {@code count} copies of the template, one per code
+     * from the generator.
+     *
+     * @throws InvalidCodeGenerationRequestException when the prefix is taken
+     * or overlaps an unfinished job's
+     */
+    public CodeGenerationJobDTO start(Coupon template, CouponCodeGenerator generator, long count) {
+        startLock.lock();
+        try {
+            Optional<Job> overlapping = jobs.values().stream()
+                .filter(job -> !job.isFinished() && job.generator.overlaps(generator))
+                .findFirst();
+            if (overlapping.isPresent()) {
+                throw new InvalidCodeGenerationRequestException(
+                    "Codes with prefix '" + generator.getPrefix() + "' and length " + generator.getCodeLength()
+                        + " overlap those of unfinished job " + overlapping.get().id
+                        + " with prefix '" + overlapping.get().generator.getPrefix() + "'");
+            }
+            if (writer.isPrefixInUse(generator.getPrefix(), generator.getCodeLength())) {
+                throw new InvalidCodeGenerationRequestException(
+                    "Codes with prefix '" + generator.getPrefix() + "' and length " + generator.getCodeLength() + " already exist");
+            }
+
+            Job job = new Job(UUID.randomUUID().toString(), template, generator, count);
+            jobs.put(job.id, job);
+            log.info("Queued code generation job {}: {} {} coupons with prefix '{}'",
+                job.id, count, template.getCouponType(), generator.getPrefix());
+            executor.execute(() -> run(job));
+            return job.toDTO();
+        } finally {
+            startLock.unlock();
+        }
+    }
+
+    public Optional<CodeGenerationJobDTO> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toDTO);
+    }
+
+    private void run(Job job) {
+        job.status = Status.RUNNING;
+        job.startedAt = Instant.now();
+        Status outcome = Status.COMPLETED;
+        try {
+            for (long start = 0; start < job.requested; start += chunkSize) {
+                int size = (int) Math.min(chunkSize, job.requested - start);
+                List<String> codes = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    codes.add(job.generator.codeAt(start + i));
+                }
+                chunkTransaction.executeWithoutResult(status -> writer.write(job.template, writer.reserveIds(size), codes));
+                // Published before the progress is reported, so the codes counted are redeemable
+                eventPublisher.publishEvent(new CouponCodesGeneratedEvent(job.template.getCouponType(), codes));
+                long generated = job.generated.addAndGet(size);
+                log.info("Code generation job {}: {}/{} coupons written", job.id, generated, job.requested);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Code generation job {} failed after {} coupons", job.id, job.generated.get(), ex);
+            job.error = ex.getMessage();
+            outcome = Status.FAILED;
+        }
+        job.finishedAt = Instant.now();
+        job.status = outcome;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Coupon template;
+        private final CouponCodeGenerator generator;
+        private final long requested;
+        private final AtomicLong generated = new AtomicLong();
+        private volatile Status status = Status.QUEUED;
+        private volatile String error;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+
+        private Job(String id, Coupon template, CouponCodeGenerator generator, long requested) {
+            this.id = id;
+            this.template = template;
+            this.generator = generator;
+            this.requested = requested;
+        }
+
+        private boolean isFinished() {
+            return status == Status.COMPLETED || status == Status.FAILED;
+        }
+
+        private CodeGenerationJobDTO toDTO() {
+            return new CodeGenerationJobDTO(id, status, generator.getPrefix(), requested, generated.get(),
+                error, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.coupons.management.demo_app.generation;
+
+import lombok.Getter;
+
+/**
+ * Maps an index in {@code [0, capacity)} to a distinct code of
+ * {@code prefix + length} characters from the alphabet. The index is passed
+ * through a keyed Feistel permutation, so consecutive indexes give unrelated
+ * codes, yet no two indexes ever give the same code: generating indexes
+ * {@code 0..n-1} yields {@code n} unique codes without remembering any of
+ * them. The permutation works on the smallest even number of bits covering
+ * the capacity; values that land outside the range are permuted again
+ * (cycle walking), which keeps it a bijection on {@code [0, capacity)}.
+ */
+public final class CouponCodeGenerator {
+
+    /** Upper-case letters and digits without the look-alikes 0/O and 1/I. */
+    public static final String DEFAULT_ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+
+    private static final int ROUNDS = 4;
+    private static final long MAX_CAPACITY = 1L << 62;
+
+    @Getter
+    private final String prefix;
+    private final char[] alphabet;
+    private final int length;
+    @Getter
+    private final long capacity;
+    private final int halfBits;
+    private final long halfMask;
+    private final long key;
+
+    public CouponCodeGenerator(String prefix, String alphabet, int length, long key) {
+        if (alphabet.length() < 2 || alphabet.chars().distinct().count() != alphabet.length()) {
+            throw new IllegalArgumentException("Alphabet must have at least two distinct characters");
+        }
+        if (length < 1) {
+            throw new IllegalArgumentException("Code length must be positive");
+        }
+        long capacity = 1;
+        for (int i = 0; i < length; i++) {
+            if (capacity > MAX_CAPACITY / alphabet.length()) {
+                throw new IllegalArgumentException("Alphabet and length allow more codes than can be indexed");
+            }
+            capacity *= alphabet.length();
+        }
+
+        this.prefix = prefix;
+        this.alphabet = alphabet.toCharArray();
+        this.length = length;
+        this.capacity = capacity;
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(capacity - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        this.key = key;
+    }
+
+    public int getCodeLength() {
+        return prefix.length() + length;
+    }
+
+    /**
+     * Whether some code could come from both generators: they produce codes of
+     * the same length, and one prefix starts with the other.
+     */
+    public boolean overlaps(CouponCodeGenerator other) {
+        return getCodeLength() == other.getCodeLength()
+            && (prefix.startsWith(other.prefix) || other.prefix.startsWith(prefix));
+    }
+
+    public String codeAt(long index) {
+        if (index < 0 || index >= capacity) {
+            throw new IndexOutOfBoundsException("Code index " + index + " outside [0, " + capacity + ")");
+        }
+        long value = permute(index);
+        char[] code = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = alphabet[(int) (value % alphabet.length)];
+            value /= alphabet.length;
+        }
+        return prefix + new String(code);
+    }
+
+    long permute(long index) {
+        long value = index;
+        do {
+            value = feistel(value);
+        } while (value >= capacity);
+        return value;
+    }
+
+    private long feistel(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (mix(right + key + round * 0x9E3779B97F4A7C15L) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
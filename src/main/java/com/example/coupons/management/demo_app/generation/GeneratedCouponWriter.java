@@ -0,0 +1,152 @@
+package com.example.coupons.management.demo_app.generation;
+
+import com.example.coupons.management.demo_app.model.CartWiseCoupon;
+import com.example.coupons.management.demo_app.model.Coupon;
+import com.example.coupons.management.demo_app.model.ProductWiseCoupon;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.Types;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Writes generated coupons, all copies of one template except for id and
+ * code, straight to the coupon tables. On PostgreSQL each chunk is streamed
+ * with {@code COPY ... FROM STDIN}; other databases get JDBC batch inserts.
+ * Either way the unique constraint on {@code code} still applies.
+ * <p>
+ * Ids are reserved in blocks of {@link Coupon#ID_ALLOCATION_SIZE} from the
+ * shared sequence, exactly as Hibernate's pooled-lo optimizer does, so they
+ * never clash with ids Hibernate hands out.
+ */
+@Component
+@RequiredArgsConstructor
+public class GeneratedCouponWriter {
+
+    static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String ID_SEQUENCE = "coupons.hibernate_sequence";
+
+    private static final String COUPON_COLUMNS =
+        "coupons.coupon (id, code, expiration_date, is_active, description, coupon_type, usage_limit, per_customer_limit, code_only)";
+    private static final String CART_WISE_COLUMNS = "coupons.cart_wise_coupon (id, threshold, discount_percentage)";
+    private static final String PRODUCT_WISE_COLUMNS = "coupons.product_wise_coupon (id, product_id, discount_percentage)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceBlocks sequenceBlocks;
+
+    /**
+     * Whether any stored code starts with the prefix and has the given length,
+     * i.e. could collide with codes generated for that prefix.
+     */
+    public boolean isPrefixInUse(String prefix, int codeLength) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM coupons.coupon WHERE code LIKE ? ESCAPE '\\' AND LENGTH(code) = ?)",
+            Boolean.class, pattern, codeLength));
+    }
+
+    public long[] reserveIds(int count) {
+        return sequenceBlocks.reserve(ID_SEQUENCE, Coupon.ID_ALLOCATION_SIZE, count);
+    }
+
+    /**
+     * Inserts one coupon per code, copying every other column from the
+     * template. Must run inside a transaction so the shared and subtype rows
+     * of a chunk commit together.
+     */
+    public void write(Coupon template, long[] ids, List<String> codes) {
+        if (sequenceBlocks.isPostgres()) {
+            copy(template, ids, codes);
+        } else {
+            batchInsert(template, ids, codes);
+        }
+    }
+
+    private void copy(Coupon template, long[] ids, List<String> codes) {
+        StringBuilder coupons = new StringBuilder(codes.size() * 64);
+        StringBuilder subtypes = new StringBuilder(codes.size() * 24);
+        String shared = ',' + template.getExpirationDate().toString()
+            + ",true," + csv(template.getDescription())
+            + ',' + template.getCouponType()
+            + ',' + csv(template.getUsageLimit())
+            + ',' + csv(template.getPerCustomerLimit())
+            + ',' + Boolean.TRUE.equals(template.getCodeOnly()) + '\n';
+        String subtype = ',' + subtypeValues(template) + '\n';
+        for (int i = 0; i < ids.length; i++) {
+            coupons.append(ids[i]).append(',').append(csv(codes.get(i))).append(shared);
+            subtypes.append(ids[i]).append(subtype);
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try {
+                var copyApi = connection.unwrap(PGConnection.class).getCopyAPI();
+                copyApi.copyIn("COPY " + COUPON_COLUMNS + " FROM STDIN WITH (FORMAT csv)", new StringReader(coupons.toString()));
+                copyApi.copyIn("COPY " + subtypeColumns(template) + " FROM STDIN WITH (FORMAT csv)", new StringReader(subtypes.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    private void batchInsert(Coupon template, long[] ids, List<String> codes) {
+        jdbcTemplate.batchUpdate("INSERT INTO " + COUPON_COLUMNS + " VALUES (?, ?, ?, TRUE, ?, ?, ?, ?, ?)",
+            indexes(ids.length), INSERT_BATCH_SIZE, (statement, i) -> {
+                statement.setLong(1, ids[i]);
+                statement.setString(2, codes.get(i));
+                statement.setDate(3, Date.valueOf(template.getExpirationDate()));
+                statement.setString(4, template.getDescription());
+                statement.setString(5, template.getCouponType().name());
+                statement.setObject(6, template.getUsageLimit(), Types.INTEGER);
+                statement.setObject(7, template.getPerCustomerLimit(), Types.INTEGER);
+                statement.setBoolean(8, Boolean.TRUE.equals(template.getCodeOnly()));
+            });
+
+        if (template instanceof CartWiseCoupon cartWise) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + CART_WISE_COLUMNS + " VALUES (?, ?, ?)",
+                indexes(ids.length), INSERT_BATCH_SIZE, (statement, i) -> {
+                    statement.setLong(1, ids[i]);
+                    statement.setBigDecimal(2, cartWise.getThreshold());
+                    statement.setBigDecimal(3, cartWise.getDiscountPercentage());
+                });
+        } else {
+            ProductWiseCoupon productWise = (ProductWiseCoupon) template;
+            jdbcTemplate.batchUpdate("INSERT INTO " + PRODUCT_WISE_COLUMNS + " VALUES (?, ?, ?)",
+                indexes(ids.length), INSERT_BATCH_SIZE, (statement, i) -> {
+                    statement.setLong(1, ids[i]);
+                    statement.setLong(2, productWise.getProductId());
+                    statement.setBigDecimal(3, productWise.getDiscountPercentage());
+                });
+        }
+    }
+
+    private static String subtypeColumns(Coupon template) {
+        return template instanceof CartWiseCoupon ? CART_WISE_COLUMNS : PRODUCT_WISE_COLUMNS;
+    }
+
+    private static String subtypeValues(Coupon template) {
+        if (template instanceof CartWiseCoupon cartWise) {
+            return cartWise.getThreshold().toPlainString() + ',' + cartWise.getDiscountPercentage().toPlainString();
+        }
+        ProductWiseCoupon productWise = (ProductWiseCoupon) template;
+        return productWise.getProductId() + "," + productWise.getDiscountPercentage().toPlainString();
+    }
+
+    // Unquoted empty field is NULL in COPY csv; anything else is quoted
+    private static String csv(Object value) {
+        return value == null ? "" : '"' + value.toString().replace("\"", "\"\"") + '"';
+    }
+
+    private static List<Integer> indexes(int count) {
+        return IntStream.range(0, count).boxed().toList();
+    }
+}
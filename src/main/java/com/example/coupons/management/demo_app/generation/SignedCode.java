@@ -0,0 +1,12 @@
+package com.example.coupons.management.demo_app.generation;
+
+import lombok.Value;
+
+/**
+ * What a verified signed code stands for: one serial of a template coupon.
+ */
+@Value
+public class SignedCode {
+    long couponId;
+    long serial;
+}
@@ -0,0 +1,48 @@
+package com.example.coupons.management.demo_app.generation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Database side of signed codes: serials to issue, and the serials already
+ * redeemed. Only issuing codes and successful redemptions touch the database;
+ * verifying a code never does.
+ */
+@Component
+@RequiredArgsConstructor
+public class SignedCodeStore {
+
+    // Must match the INCREMENT BY of the serial sequence
+    static final int SERIAL_BLOCK_SIZE = 1000;
+
+    private static final String SERIAL_SEQUENCE = "coupons.signed_code_serial_seq";
+    private static final String REDEEM_SQL =
+        "INSERT INTO coupons.signed_code_redemption (coupon_id, serial, redeemed_at) VALUES (?, ?, CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceBlocks sequenceBlocks;
+
+    /**
+     * Serials never handed out before, for any coupon.
+     */
+    public long[] reserveSerials(int count) {
+        return sequenceBlocks.reserve(SERIAL_SEQUENCE, SERIAL_BLOCK_SIZE, count);
+    }
+
+    /**
+     * Records the redemption of one serial. A duplicate aborts the current
+     * transaction on PostgreSQL, so callers must fail it when this returns false.
+     *
+     * @return false when the serial was already redeemed
+     */
+    public boolean markRedeemed(long couponId, long serial) {
+        try {
+            jdbcTemplate.update(REDEEM_SQL, couponId, serial);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+}
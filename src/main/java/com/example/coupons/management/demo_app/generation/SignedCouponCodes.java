@@ -0,0 +1,150 @@
+package com.example.coupons.management.demo_app.generation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Self-verifying coupon codes of the form {@code S<coupon>-<serial>-<mac>}:
+ * the template coupon id and a serial in base 32, followed by the first 40
+ * bits of an HMAC-SHA256 over both. Nothing is stored per code, so a code can
+ * be checked and its template resolved without touching the database; a
+ * forged code passes with probability 2^-40.
+ * <p>
+ * Disabled unless {@code coupons.signed-codes.secret} is set. Changing the
+ * secret invalidates every code issued under the old one.
+ */
+@Component
+public class SignedCouponCodes {
+
+    private static final String PREFIX = "S";
+    private static final char SEPARATOR = '-';
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_BITS = 40;
+    private static final int MAC_CHARS = MAC_BITS / 5;
+    // Longest base 32 encoding of a non-negative long
+    private static final int MAX_NUMBER_CHARS = 13;
+
+    private static final char[] DIGITS = CouponCodeGenerator.DEFAULT_ALPHABET.toCharArray();
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = i;
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public SignedCouponCodes(@Value("${coupons.signed-codes.secret:}") String secret) {
+        this.key = secret.isEmpty() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    public String sign(long couponId, long serial) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Signed coupon codes are disabled");
+        }
+        return PREFIX + encode(couponId) + SEPARATOR + encode(serial) + SEPARATOR + encodeMac(mac(couponId, serial));
+    }
+
+    /**
+     * Returns the coupon and serial of a genuine code; empty for anything
+     * malformed or forged, or when signed codes are disabled. Case-insensitive.
+     */
+    public Optional<SignedCode> verify(String code) {
+        if (!isEnabled() || code == null || !code.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            return Optional.empty();
+        }
+        String body = code.substring(PREFIX.length()).toUpperCase(Locale.ROOT);
+        int first = body.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : body.indexOf(SEPARATOR, first + 1);
+        if (second < 0 || body.length() - second - 1 != MAC_CHARS) {
+            return Optional.empty();
+        }
+        long couponId = decodeNumber(body, 0, first);
+        long serial = decodeNumber(body, first + 1, second);
+        long mac = decode(body, second + 1, body.length());
+        if (couponId < 0 || serial < 0 || mac < 0) {
+            return Optional.empty();
+        }
+        // Compared in constant time so response timing does not leak the expected MAC
+        byte[] expected = ByteBuffer.allocate(Long.BYTES).putLong(mac(couponId, serial)).array();
+        byte[] actual = ByteBuffer.allocate(Long.BYTES).putLong(mac).array();
+        return MessageDigest.isEqual(expected, actual) ? Optional.of(new SignedCode(couponId, serial)) : Optional.empty();
+    }
+
+    private long mac(long couponId, long serial) {
+        byte[] digest = macs.get().doFinal(ByteBuffer.allocate(2 * Long.BYTES).putLong(couponId).putLong(serial).array());
+        return ByteBuffer.wrap(digest).getLong() >>> (Long.SIZE - MAC_BITS);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static String encode(long value) {
+        StringBuilder digits = new StringBuilder(MAX_NUMBER_CHARS);
+        do {
+            digits.append(DIGITS[(int) (value & 31)]);
+            value >>>= 5;
+        } while (value != 0);
+        return digits.reverse().toString();
+    }
+
+    // Fixed width so every code has the same MAC length
+    private static String encodeMac(long mac) {
+        char[] chars = new char[MAC_CHARS];
+        for (int i = MAC_CHARS - 1; i >= 0; i--) {
+            chars[i] = DIGITS[(int) (mac & 31)];
+            mac >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    // Leading zero digits are refused so each id and serial has exactly one code
+    private static long decodeNumber(String text, int from, int to) {
+        if (to - from > 1 && text.charAt(from) == DIGITS[0]) {
+            return -1;
+        }
+        return decode(text, from, to);
+    }
+
+    // -1 for empty, overlong or invalid input
+    private static long decode(String text, int from, int to) {
+        if (from >= to || to - from > MAX_NUMBER_CHARS) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            int digit = c < VALUES.length ? VALUES[c] : -1;
+            if (digit < 0 || value > (Long.MAX_VALUE - digit) / 32) {
+                return -1;
+            }
+            value = value * 32 + digit;
+        }
+        return value;
+    }
+}
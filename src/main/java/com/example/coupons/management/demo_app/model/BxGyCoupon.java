@@ -1,49 +1,31 @@
 package com.example.coupons.management.demo_app.model;
 
+import com.example.coupons.management.demo_app.dto.ItemDTO;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.time.LocalDate;
-import java.util.Map;
-import java.util.List;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "bxgy_coupon", schema = "coupons")
+@DiscriminatorValue("BXGY")
+@PrimaryKeyJoinColumn(name = "id")
 @Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class BxGyCoupon implements CouponEntity {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hibernate_sequence")
-    @SequenceGenerator(name = "hibernate_sequence", sequenceName = "coupons.hibernate_sequence", allocationSize = 1)
-    private Long id;
-
-    @Column(name = "code", unique = true, nullable = false)
-    @NotBlank(message = "Coupon code cannot be blank")
-    @Size(max = 255, message = "Coupon code cannot exceed 255 characters")
-    private String code;
-
-    @Column(name = "expiration_date", nullable = false)
-    @NotNull(message = "Expiration date is required")
-    @Future(message = "Expiration date must be in the future")
-    private LocalDate expirationDate;
-
-    @Column(name = "is_active", nullable = false)
-    @NotNull(message = "Active status is required")
-    private Boolean isActive = true;
-
-    @Column(name = "description")
-    private String description;
-
-    @Enumerated(EnumType.STRING)
-    @Column(name = "coupon_type", nullable = false, length = 50)
-    private CouponType couponType = CouponType.BXGY;
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class BxGyCoupon extends Coupon {
 
+    // SUBSELECT: touching one coupon's map loads the maps of every coupon from
+    // the same query in one statement, instead of one statement per coupon
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(
         name = "bxgy_buy_products",
         schema = "coupons",
@@ -55,6 +37,7 @@ public class BxGyCoupon implements CouponEntity {
     private Map<@NotNull @Min(1) Long, @NotNull @Min(1) Integer> buyProducts;
 
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(
         name = "bxgy_get_products",
         schema = "coupons",
@@ -70,92 +53,109 @@ public class BxGyCoupon implements CouponEntity {
     @Min(value = 1, message = "Repetition limit must be positive")
     private Integer repetitionLimit;
 
+    public BxGyCoupon() {
+        setCouponType(CouponType.BXGY);
+    }
+
+    public BxGyCoupon(Long id, String code, LocalDate expirationDate, Boolean isActive,
+            String description, CouponType couponType, Map<Long, Integer> buyProducts,
+            Map<Long, Integer> getProducts, Integer repetitionLimit) {
+        super(id, code, expirationDate, isActive, description, couponType);
+        this.buyProducts = buyProducts;
+        this.getProducts = getProducts;
+        this.repetitionLimit = repetitionLimit;
+    }
+
+    // Map-based forms of the CartView methods below, kept for existing callers
+
     public double calculateDiscount(Map<Long, Integer> cartItems, Map<Long, Double> productPrices) {
-        if (!isApplicable(cartItems)) {
-            return 0.0;
-        }
+        return cartItems == null ? 0.0 : calculateDiscount(viewOf(cartItems, productPrices));
+    }
+
+    /**
+     * Check if this BxGy coupon is applicable to the given cart items
+     */
+    public boolean isApplicable(Map<Long, Integer> cartItems) {
+        return cartItems != null && isApplicableTo(viewOf(cartItems, Map.of()));
+    }
 
-        int applicableTimes = calculateApplicableTimes(cartItems);
+    /**
+     * Calculate how many times this offer can be applied
+     */
+    public int calculateApplicableTimes(Map<Long, Integer> cartItems) {
+        return cartItems == null ? 0 : calculateApplicableTimes(viewOf(cartItems, Map.of()));
+    }
 
-        // For BxGy coupons, calculate discount based on the cheapest buy products
-        // since we don't know the prices of free products
-        double totalDiscount = 0.0;
+    private static CartView viewOf(Map<Long, Integer> cartItems, Map<Long, Double> productPrices) {
+        List<ItemDTO> items = new ArrayList<>(cartItems.size());
+        cartItems.forEach((productId, quantity) ->
+            items.add(new ItemDTO(productId, quantity, productPrices.getOrDefault(productId, 0.0))));
+        return CartView.of(items);
+    }
 
-        // Option 1: Calculate discount based on cheapest buy products
-        List<Double> buyProductPrices = new ArrayList<>();
-        for (Map.Entry<Long, Integer> buyProduct : buyProducts.entrySet()) {
-            Long productId = buyProduct.getKey();
-            Double price = productPrices.getOrDefault(productId, 0.0);
-            if (price > 0.0) {
-                buyProductPrices.add(price);
-            }
+    public double calculateDiscount(CartView cart) {
+        if (!isApplicableTo(cart)) {
+            return 0.0;
         }
 
-        if (!buyProductPrices.isEmpty()) {
-            // Use the cheapest buy product price as estimate for free products
-            double cheapestPrice = buyProductPrices.stream().min(Double::compareTo).orElse(0.0);
-
-            // Calculate total free quantity
-            int totalFreeQuantity = getProducts.values().stream().mapToInt(Integer::intValue).sum();
+        int applicableTimes = calculateApplicableTimes(cart);
 
-            // Discount = cheapest price * total free quantity * applicable times
-            totalDiscount = cheapestPrice * totalFreeQuantity * applicableTimes;
+        // Cheapest priced buy product is the estimate for every free product
+        long cheapestPriceMinor = Long.MAX_VALUE;
+        for (Long productId : buyProducts.keySet()) {
+            long priceMinor = cart.priceMinorOf(productId);
+            if (priceMinor > 0 && priceMinor < cheapestPriceMinor) {
+                cheapestPriceMinor = priceMinor;
+            }
+        }
+        if (cheapestPriceMinor == Long.MAX_VALUE) {
+            return 0.0;
         }
 
-        return totalDiscount;
+        return Money.toMajor(cheapestPriceMinor * totalFreeQuantity() * applicableTimes);
     }
 
     /**
-     * Check if this BxGy coupon is applicable to the given cart items
+     * Check if this BxGy coupon is applicable to the given cart
      */
-    public boolean isApplicable(Map<Long, Integer> cartItems) {
-        if (cartItems == null || buyProducts == null || getProducts == null) {
+    public boolean isApplicableTo(CartView cart) {
+        if (cart == null || buyProducts == null || getProducts == null) {
             return false;
         }
-
-        // Check if all buy products are available in required quantities
         for (Map.Entry<Long, Integer> buyProduct : buyProducts.entrySet()) {
-            Long productId = buyProduct.getKey();
-            Integer requiredQty = buyProduct.getValue();
-            Integer availableQty = cartItems.getOrDefault(productId, 0);
-
-            if (availableQty < requiredQty) {
-                return false; // Not applicable
+            if (cart.quantityOf(buyProduct.getKey()) < buyProduct.getValue()) {
+                return false;
             }
         }
-
         return true;
     }
 
     /**
-     * Calculate how many times this offer can be applied
+     * Calculate how many times this offer can be applied to the given cart
      */
-    public int calculateApplicableTimes(Map<Long, Integer> cartItems) {
-        if (!isApplicable(cartItems)) {
+    public int calculateApplicableTimes(CartView cart) {
+        if (!isApplicableTo(cart)) {
             return 0;
         }
-
         int applicableTimes = Integer.MAX_VALUE;
-
-        // Check how many times we can apply this offer based on buy products
         for (Map.Entry<Long, Integer> buyProduct : buyProducts.entrySet()) {
-            Long productId = buyProduct.getKey();
-            Integer requiredQty = buyProduct.getValue();
-            Integer availableQty = cartItems.getOrDefault(productId, 0);
-
-            applicableTimes = Math.min(applicableTimes, availableQty / requiredQty);
+            applicableTimes = Math.min(applicableTimes, cart.quantityOf(buyProduct.getKey()) / buyProduct.getValue());
         }
+        return Math.min(applicableTimes, repetitionLimit);
+    }
 
-        // Apply repetition limit
-        applicableTimes = Math.min(applicableTimes, repetitionLimit);
-
-        return applicableTimes;
+    private int totalFreeQuantity() {
+        int totalFreeQuantity = 0;
+        for (int freeQuantity : getProducts.values()) {
+            totalFreeQuantity += freeQuantity;
+        }
+        return totalFreeQuantity;
     }
 
     @PrePersist
     public void prePersist() {
-        if (couponType == null) {
-            couponType = CouponType.BXGY;
+        if (getCouponType() == null) {
+            setCouponType(CouponType.BXGY);
         }
     }
 }
@@ -0,0 +1,131 @@
+package com.example.coupons.management.demo_app.model;
+
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.dto.ItemDTO;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only aggregation of a cart, built once per request and shared by every
+ * coupon evaluator. Lines for the same product are merged: quantities and line
+ * totals are summed and the price of the first line is kept as the unit price.
+ * Products are held in parallel primitive arrays sorted by productId and all
+ * amounts are in minor units (see {@link Money}).
+ */
+public final class CartView {
+
+    private final long totalMinor;
+    private final long[] productIds;
+    private final int[] quantities;
+    private final long[] pricesMinor;
+    private final long[] lineTotalsMinor;
+
+    private CartView(long totalMinor, long[] productIds, int[] quantities, long[] pricesMinor, long[] lineTotalsMinor) {
+        this.totalMinor = totalMinor;
+        this.productIds = productIds;
+        this.quantities = quantities;
+        this.pricesMinor = pricesMinor;
+        this.lineTotalsMinor = lineTotalsMinor;
+    }
+
+    public static CartView of(CartDTO cart) {
+        return of(cart.getItems());
+    }
+
+    public static CartView of(List<ItemDTO> items) {
+        int lines = items.size();
+        long[] lineProductIds = new long[lines];
+        int[] lineQuantities = new int[lines];
+        long[] linePricesMinor = new long[lines];
+        long totalMinor = 0;
+
+        // The only pass over the ItemDTO objects; everything after works on primitives
+        for (int i = 0; i < lines; i++) {
+            ItemDTO item = items.get(i);
+            lineProductIds[i] = item.getProductId();
+            lineQuantities[i] = item.getQuantity();
+            linePricesMinor[i] = Money.toMinor(item.getPrice());
+            totalMinor += linePricesMinor[i] * lineQuantities[i];
+        }
+
+        long[] sorted = lineProductIds.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < lines; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        long[] productIds = distinct == lines ? sorted : Arrays.copyOf(sorted, distinct);
+
+        int[] quantities = new int[distinct];
+        long[] pricesMinor = new long[distinct];
+        long[] lineTotalsMinor = new long[distinct];
+        boolean[] priced = new boolean[distinct];
+        for (int i = 0; i < lines; i++) {
+            int slot = Arrays.binarySearch(productIds, lineProductIds[i]);
+            quantities[slot] += lineQuantities[i];
+            lineTotalsMinor[slot] += lineQuantities[i] * linePricesMinor[i];
+            if (!priced[slot]) {
+                pricesMinor[slot] = linePricesMinor[i];
+                priced[slot] = true;
+            }
+        }
+        return new CartView(totalMinor, productIds, quantities, pricesMinor, lineTotalsMinor);
+    }
+
+    public long getTotalMinor() {
+        return totalMinor;
+    }
+
+    public double getTotalValue() {
+        return Money.toMajor(totalMinor);
+    }
+
+    /**
+     * Number of distinct products in the cart.
+     */
+    public int size() {
+        return productIds.length;
+    }
+
+    public long productIdAt(int index) {
+        return productIds[index];
+    }
+
+    public int quantityAt(int index) {
+        return quantities[index];
+    }
+
+    public long priceMinorAt(int index) {
+        return pricesMinor[index];
+    }
+
+    public long lineTotalMinorAt(int index) {
+        return lineTotalsMinor[index];
+    }
+
+    /**
+     * Position of the product in this view, or -1 when it is not in the cart.
+     */
+    public int indexOf(long productId) {
+        int index = Arrays.binarySearch(productIds, productId);
+        return index >= 0 ? index : -1;
+    }
+
+    public int quantityOf(long productId) {
+        int index = indexOf(productId);
+        return index >= 0 ? quantities[index] : 0;
+    }
+
+    public long priceMinorOf(long productId) {
+        int index = indexOf(productId);
+        return index >= 0 ? pricesMinor[index] : 0;
+    }
+
+    public long lineTotalMinorOf(long productId) {
+        int index = indexOf(productId);
+        return index >= 0 ? lineTotalsMinor[index] : 0;
+    }
+}
@@ -3,43 +3,19 @@ package com.example.coupons.management.demo_app.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDate;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "cart_wise_coupon", schema = "coupons")
+@DiscriminatorValue("CART_WISE")
+@PrimaryKeyJoinColumn(name = "id")
 @Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class CartWiseCoupon implements CouponEntity {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hibernate_sequence")
-    @SequenceGenerator(name = "hibernate_sequence", sequenceName = "coupons.hibernate_sequence", allocationSize = 1)
-    private Long id;
-
-    @Column(name = "code", unique = true, nullable = false)
-    @NotBlank(message = "Coupon code cannot be blank")
-    @Size(max = 255, message = "Coupon code cannot exceed 255 characters")
-    private String code;
-
-    @Column(name = "expiration_date", nullable = false)
-    @NotNull(message = "Expiration date is required")
-    @Future(message = "Expiration date must be in the future")
-    private LocalDate expirationDate;
-
-    @Column(name = "is_active", nullable = false)
-    @NotNull(message = "Active status is required")
-    private Boolean isActive = true;
-
-    @Column(name = "description")
-    private String description;
-
-    @Enumerated(EnumType.STRING)
-    @Column(name = "coupon_type", nullable = false, length = 50)
-    private CouponType couponType = CouponType.CART_WISE;
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class CartWiseCoupon extends Coupon {
 
     @Column(name = "threshold", nullable = false, precision = 10, scale = 2)
     @NotNull(message = "Threshold is required")
@@ -52,17 +28,36 @@ public class CartWiseCoupon implements CouponEntity {
     @DecimalMax(value = "100.00", message = "Discount percentage cannot exceed 100")
     private BigDecimal discountPercentage;
 
+    public CartWiseCoupon() {
+        setCouponType(CouponType.CART_WISE);
+    }
+
+    public CartWiseCoupon(Long id, String code, LocalDate expirationDate, Boolean isActive,
+            String description, CouponType couponType, BigDecimal threshold, BigDecimal discountPercentage) {
+        super(id, code, expirationDate, isActive, description, couponType);
+        this.threshold = threshold;
+        this.discountPercentage = discountPercentage;
+    }
+
     public double calculateDiscount(double cartValue) {
-        if (cartValue >= threshold.doubleValue()) {
-            return cartValue * (discountPercentage.doubleValue() / 100.0);
+        return Money.toMajor(discountMinor(Money.toMinor(cartValue)));
+    }
+
+    public double calculateDiscount(CartView cart) {
+        return Money.toMajor(discountMinor(cart.getTotalMinor()));
+    }
+
+    private long discountMinor(long cartValueMinor) {
+        if (cartValueMinor >= Money.toMinor(threshold)) {
+            return Money.applyBasisPoints(cartValueMinor, Money.toBasisPoints(discountPercentage));
         }
-        return 0.0;
+        return 0;
     }
 
     @PrePersist
     public void prePersist() {
-        if (couponType == null) {
-            couponType = CouponType.CART_WISE;
+        if (getCouponType() == null) {
+            setCouponType(CouponType.CART_WISE);
         }
     }
 }
@@ -0,0 +1,91 @@
+package com.example.coupons.management.demo_app.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Columns shared by every coupon type, stored once in {@code coupons.coupon}.
+ * Each subtype keeps its own columns in a table joined on the same id, and
+ * {@code coupon_type} doubles as the discriminator, so lookups by id or code
+ * and listings across all types are a single query.
+ */
+@Entity
+@Table(name = "coupon", schema = "coupons")
+@Inheritance(strategy = InheritanceType.JOINED)
+@DiscriminatorColumn(name = "coupon_type", discriminatorType = DiscriminatorType.STRING, length = 50)
+@Data
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public abstract class Coupon implements CouponEntity {
+
+    /**
+     * Ids reserved per sequence call. Matches the sequence's INCREMENT BY, and
+     * is also how {@code GeneratedCouponWriter} reserves ids outside Hibernate.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Ids are handed out 50 at a time from one sequence call (pooled-lo optimizer, see
+    // hibernate.id.optimizer.pooled.preferred); the sequence must INCREMENT BY 50
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hibernate_sequence")
+    @SequenceGenerator(name = "hibernate_sequence", sequenceName = "coupons.hibernate_sequence", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "code", unique = true, nullable = false)
+    @NotBlank(message = "Coupon code cannot be blank")
+    @Size(max = 255, message = "Coupon code cannot exceed 255 characters")
+    private String code;
+
+    @Column(name = "expiration_date", nullable = false)
+    @NotNull(message = "Expiration date is required")
+    @Future(message = "Expiration date must be in the future")
+    private LocalDate expirationDate;
+
+    @Column(name = "is_active", nullable = false)
+    @NotNull(message = "Active status is required")
+    private Boolean isActive = true;
+
+    @Column(name = "description")
+    private String description;
+
+    // Written by Hibernate from @DiscriminatorValue; mapped here for reading only
+    @Enumerated(EnumType.STRING)
+    @Column(name = "coupon_type", nullable = false, length = 50, insertable = false, updatable = false)
+    private CouponType couponType;
+
+    // Maximum number of redemptions across all customers; null means unlimited
+    @Column(name = "usage_limit")
+    @Min(value = 1, message = "Usage limit must be at least 1")
+    private Integer usageLimit;
+
+    // Maximum number of redemptions by one customer; null means unlimited
+    @Column(name = "per_customer_limit")
+    @Min(value = 1, message = "Per-customer limit must be at least 1")
+    private Integer perCustomerLimit;
+
+    // Generated codes: redeemable with their code only, so they are left out of the
+    // catalog that applicable-coupons and apply-best evaluate
+    @Column(name = "code_only", nullable = false)
+    @ColumnDefault("false")
+    private Boolean codeOnly = false;
+
+    // Stamped by the database on insert; the code filter syncs codes created since its last sync
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    private LocalDateTime createdAt;
+
+    protected Coupon(Long id, String code, LocalDate expirationDate, Boolean isActive,
+                     String description, CouponType couponType) {
+        this.id = id;
+        this.code = code;
+        this.expirationDate = expirationDate;
+        this.isActive = isActive;
+        this.description = description;
+        this.couponType = couponType;
+    }
+}
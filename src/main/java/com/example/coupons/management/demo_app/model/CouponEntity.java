@@ -8,6 +8,10 @@ public interface CouponEntity {
     LocalDate getExpirationDate();
     Boolean getIsActive();
     String getDescription();
+    CouponType getCouponType();
+    Integer getUsageLimit();
+    Integer getPerCustomerLimit();
+    Boolean getCodeOnly();
     void setCode(String code);
     void setExpirationDate(LocalDate expirationDate);
     void setIsActive(Boolean isActive);
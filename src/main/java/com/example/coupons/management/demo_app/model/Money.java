@@ -0,0 +1,55 @@
+package com.example.coupons.management.demo_app.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic used by the discount engine. Amounts are long
+ * minor units (cents) and percentages are int basis points (1% = 100 bps).
+ * Every conversion and every percentage application rounds with
+ * {@link #ROUNDING}, so the same cart always produces the same totals.
+ */
+public final class Money {
+
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+    public static final int MINOR_UNITS_PER_MAJOR = 100;
+    public static final int BASIS_POINTS_PER_WHOLE = 10_000;
+
+    private Money() {
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, ROUNDING).longValueExact();
+    }
+
+    public static long toMinor(double amount) {
+        // Math.rint rounds half to even, matching ROUNDING
+        return (long) Math.rint(amount * MINOR_UNITS_PER_MAJOR);
+    }
+
+    public static double toMajor(long amountMinor) {
+        return (double) amountMinor / MINOR_UNITS_PER_MAJOR;
+    }
+
+    public static int toBasisPoints(BigDecimal percentage) {
+        return percentage.movePointRight(2).setScale(0, ROUNDING).intValueExact();
+    }
+
+    public static int toBasisPoints(double percentage) {
+        return (int) Math.rint(percentage * 100);
+    }
+
+    /**
+     * {@code amountMinor * basisPoints / 10000}, rounded half to even.
+     */
+    public static long applyBasisPoints(long amountMinor, int basisPoints) {
+        long product = Math.multiplyExact(amountMinor, (long) basisPoints);
+        long quotient = product / BASIS_POINTS_PER_WHOLE;
+        long twiceRemainder = 2 * Math.abs(product % BASIS_POINTS_PER_WHOLE);
+        if (twiceRemainder > BASIS_POINTS_PER_WHOLE
+                || (twiceRemainder == BASIS_POINTS_PER_WHOLE && (quotient & 1) != 0)) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+}
@@ -3,43 +3,19 @@ package com.example.coupons.management.demo_app.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDate;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "product_wise_coupon", schema = "coupons")
+@DiscriminatorValue("PRODUCT_WISE")
+@PrimaryKeyJoinColumn(name = "id")
 @Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class ProductWiseCoupon implements CouponEntity {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hibernate_sequence")
-    @SequenceGenerator(name = "hibernate_sequence", sequenceName = "coupons.hibernate_sequence", allocationSize = 1)
-    private Long id;
-
-    @Column(name = "code", unique = true, nullable = false)
-    @NotBlank(message = "Coupon code cannot be blank")
-    @Size(max = 255, message = "Coupon code cannot exceed 255 characters")
-    private String code;
-
-    @Column(name = "expiration_date", nullable = false)
-    @NotNull(message = "Expiration date is required")
-    @Future(message = "Expiration date must be in the future")
-    private LocalDate expirationDate;
-
-    @Column(name = "is_active", nullable = false)
-    @NotNull(message = "Active status is required")
-    private Boolean isActive = true;
-
-    @Column(name = "description")
-    private String description;
-
-    @Enumerated(EnumType.STRING)
-    @Column(name = "coupon_type", nullable = false, length = 50)
-    private CouponType couponType = CouponType.PRODUCT_WISE;
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ProductWiseCoupon extends Coupon {
 
     @Column(name = "product_id", nullable = false)
     @NotNull(message = "Product ID is required")
@@ -52,17 +28,39 @@ public class ProductWiseCoupon implements CouponEntity {
     @DecimalMax(value = "100.00", message = "Discount percentage cannot exceed 100")
     private BigDecimal discountPercentage;
 
+    public ProductWiseCoupon() {
+        setCouponType(CouponType.PRODUCT_WISE);
+    }
+
+    public ProductWiseCoupon(Long id, String code, LocalDate expirationDate, Boolean isActive,
+            String description, CouponType couponType, Long productId, BigDecimal discountPercentage) {
+        super(id, code, expirationDate, isActive, description, couponType);
+        this.productId = productId;
+        this.discountPercentage = discountPercentage;
+    }
+
     public double calculateDiscount(Long cartProductId, Integer quantity, Double price) {
         if (cartProductId.equals(productId)) {
-            return (quantity * price) * (discountPercentage.doubleValue() / 100.0);
+            return Money.toMajor(discountMinor(quantity * Money.toMinor(price)));
         }
         return 0.0;
     }
 
+    /**
+     * Discount on the combined value of every cart line holding this product
+     */
+    public double calculateDiscount(CartView cart) {
+        return Money.toMajor(discountMinor(cart.lineTotalMinorOf(productId)));
+    }
+
+    private long discountMinor(long lineTotalMinor) {
+        return Money.applyBasisPoints(lineTotalMinor, Money.toBasisPoints(discountPercentage));
+    }
+
     @PrePersist
     public void prePersist() {
-        if (couponType == null) {
-            couponType = CouponType.CART_WISE;
+        if (getCouponType() == null) {
+            setCouponType(CouponType.CART_WISE);
         }
     }
 }
@@ -0,0 +1,12 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import lombok.Value;
+
+/**
+ * Key of one customer's redemptions of one coupon.
+ */
+@Value
+public class CustomerCoupon {
+    long couponId;
+    long customerId;
+}
@@ -0,0 +1,398 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-customer redemption counts for coupons with a per-customer limit, held
+ * in memory so the check at checkout needs no database round trip. Entries are
+ * spread over shards by customer id; each shard has its own lock, so a check
+ * and its increment are atomic for one customer while checkouts of different
+ * customers rarely wait on each other.
+ * <p>
+ * Only customers who redeemed recently are held. The first redemption of a
+ * customer and coupon loads its total from {@link CustomerRedemptionStore}
+ * outside the shard lock, so other customers of the shard never wait on the
+ * query, and concurrent loads of one key share a single query. The entry is
+ * then created under the lock. A count of a key that is not held reads the
+ * store without creating an entry, so applicability checks leave nothing
+ * behind. Once an entry is written and idle for {@code customer-idle-ms}, a
+ * flush evicts it, and the next redemption loads it again. Each shard keeps
+ * its entries in access order, so eviction only visits the idle ones.
+ * <p>
+ * Local redemptions are written to the store in one batch per flush interval.
+ * Every flush then reloads the rows changed since the previous one and
+ * updates the entries still held, picking up other instances' redemptions
+ * (see {@link IncrementalSync}). Until that sync a customer can exceed a limit
+ * by redeeming on several instances within one interval. A crash loses the
+ * redemptions of the last interval; a failed flush is kept and retried.
+ */
+@Component
+@Slf4j
+public class CustomerRedemptionLedger {
+
+    private final CustomerRedemptionStore customerRedemptionStore;
+    private final Shard[] shards;
+    private final long idleNanos;
+    // Its lock serializes flushes
+    private final IncrementalSync sync;
+    // Loads in progress, shared by every check of the same key that misses meanwhile
+    private final Map<CustomerCoupon, CompletableFuture<Long>> loads = new ConcurrentHashMap<>();
+
+    public CustomerRedemptionLedger(CustomerRedemptionStore customerRedemptionStore,
+                                    @Value("${coupons.redemption.customer-shards:64}") int shardCount,
+                                    @Value("${coupons.redemption.customer-idle-ms:600000}") long idleMillis) {
+        this.customerRedemptionStore = customerRedemptionStore;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.sync = new IncrementalSync("per-customer redemption count", customerRedemptionStore::currentTimestamp);
+        this.shards = new Shard[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Records one redemption by the customer unless they have reached the limit.
+     *
+     * @return false when the limit is reached and nothing was recorded
+     */
+    public boolean tryRedeem(long couponId, long customerId, long perCustomerLimit) {
+        return shardFor(customerId).tryRedeem(new CustomerCoupon(couponId, customerId), perCustomerLimit);
+    }
+
+    /**
+     * Takes back a redemption recorded by {@link #tryRedeem} when the checkout
+     * was rejected for another reason. If a flush already wrote the redemption,
+     * the next flush writes it back as a negative delta.
+     */
+    public void release(long couponId, long customerId) {
+        shardFor(customerId).release(new CustomerCoupon(couponId, customerId));
+    }
+
+    public long count(long couponId, long customerId) {
+        return shardFor(customerId).count(new CustomerCoupon(couponId, customerId));
+    }
+
+    /**
+     * Whether the held entry shows the customer at the limit, without loading
+     * one that is not held; such a customer is reported as below it, and
+     * {@link #tryRedeem} makes the final check.
+     */
+    public boolean isKnownAtLimit(long couponId, long customerId, long perCustomerLimit) {
+        return shardFor(customerId).isKnownAtLimit(new CustomerCoupon(couponId, customerId), perCustomerLimit);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Reads the database time the first sync resumes from.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        sync.start();
+    }
+
+    @Scheduled(fixedDelayString = "${coupons.redemption.flush-interval-ms:1000}",
+               initialDelayString = "${coupons.redemption.flush-interval-ms:1000}")
+    public void flush() {
+        sync.lock();
+        try {
+            Map<CustomerCoupon, Long> deltas = new HashMap<>();
+            for (Shard shard : shards) {
+                shard.drainInto(deltas);
+            }
+
+            if (!deltas.isEmpty()) {
+                try {
+                    customerRedemptionStore.addAll(deltas);
+                } catch (RuntimeException ex) {
+                    log.warn("Per-customer redemption flush of {} entries failed, will retry: {}",
+                        deltas.size(), ex.getMessage());
+                    for (Shard shard : shards) {
+                        shard.completeFlush(false);
+                    }
+                    return;
+                }
+            }
+            for (Shard shard : shards) {
+                shard.completeFlush(true);
+            }
+
+            boolean resumed = true;
+            try {
+                resumed = sync.sync(since -> applyTotals(customerRedemptionStore.loadUpdatedSince(since)));
+            } catch (RuntimeException ex) {
+                log.warn("Could not sync per-customer redemption counts: {}", ex.getMessage());
+            }
+
+            // Entries loaded before any sync have no point to resume from;
+            // drop the written ones so their next check loads them again
+            long idleSince = System.nanoTime() - (resumed ? idleNanos : 0);
+            for (Shard shard : shards) {
+                shard.evictIdle(idleSince);
+            }
+        } finally {
+            sync.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Entries not held are loaded with their current total on the next check
+    private void applyTotals(Map<CustomerCoupon, Long> totals) {
+        totals.forEach((key, total) -> shardFor(key.getCustomerId()).updatePersisted(key, total));
+    }
+
+    private Shard shardFor(long customerId) {
+        return shards[Math.floorMod(Long.hashCode(customerId), shards.length)];
+    }
+
+    // Persisted total of the key; a check missing the same key meanwhile waits for this query
+    private long loadPersisted(CustomerCoupon key) {
+        CompletableFuture<Long> mine = new CompletableFuture<>();
+        CompletableFuture<Long> running = loads.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            long persisted = customerRedemptionStore.loadCount(key.getCouponId(), key.getCustomerId());
+            mine.complete(persisted);
+            return persisted;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(key, mine);
+        }
+    }
+
+    private final class Shard {
+        // Never held across a query; loads of missing entries run outside it
+        private final ReentrantLock lock = new ReentrantLock();
+        // Access order: least recently used first, so idle entries are found at the head
+        private final LinkedHashMap<CustomerCoupon, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        // Entries changed since the last flush, so a flush does not scan the whole shard
+        private final Map<CustomerCoupon, Entry> dirty = new HashMap<>();
+        private final List<Entry> flushing = new ArrayList<>();
+        // Releases of written redemptions whose entry was evicted since
+        private Map<CustomerCoupon, Long> released = new HashMap<>();
+        private Map<CustomerCoupon, Long> releasing = new HashMap<>();
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Checks and records under the lock. A key that is not held is loaded
+         * outside it and created on the second pass, unless another check
+         * created it meanwhile.
+         */
+        boolean tryRedeem(CustomerCoupon key, long limit) {
+            Long persisted = null;
+            while (true) {
+                lock.lock();
+                try {
+                    Entry entry = entries.get(key);
+                    if (entry == null && persisted != null) {
+                        entry = new Entry(key, persisted);
+                        entries.put(key, entry);
+                    }
+                    if (entry != null) {
+                        entry.lastUsed = System.nanoTime();
+                        if (entry.count() >= limit) {
+                            return false;
+                        }
+                        entry.pending++;
+                        dirty.put(key, entry);
+                        return true;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                persisted = loadPersisted(key);
+            }
+        }
+
+        void release(CustomerCoupon key) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    entry.lastUsed = System.nanoTime();
+                    // Goes negative when a flush took the redemption; the next
+                    // flush then writes the release as a negative delta
+                    entry.pending--;
+                    dirty.put(key, entry);
+                } else {
+                    // Evicted, so the redemption was written; take it back in the table
+                    released.merge(key, 1L, Long::sum);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long count(CustomerCoupon key) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    entry.lastUsed = System.nanoTime();
+                    return entry.count();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return loadPersisted(key);
+        }
+
+        boolean isKnownAtLimit(CustomerCoupon key, long limit) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(key);
+                if (entry == null) {
+                    return false;
+                }
+                entry.lastUsed = System.nanoTime();
+                return entry.count() >= limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void drainInto(Map<CustomerCoupon, Long> deltas) {
+            lock.lock();
+            try {
+                dirty.forEach((key, entry) -> {
+                    if (entry.pending != 0) {
+                        entry.inFlight = entry.pending;
+                        entry.pending = 0;
+                        flushing.add(entry);
+                        deltas.put(key, entry.inFlight);
+                    }
+                });
+                dirty.clear();
+                released.forEach((key, count) -> deltas.merge(key, -count, Long::sum));
+                Map<CustomerCoupon, Long> drained = released;
+                released = releasing;
+                releasing = drained;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void completeFlush(boolean written) {
+            lock.lock();
+            try {
+                for (Entry entry : flushing) {
+                    if (written) {
+                        entry.persisted += entry.inFlight;
+                    } else {
+                        entry.pending += entry.inFlight;
+                    }
+                    entry.inFlight = 0;
+                }
+                if (!written) {
+                    flushing.forEach(entry -> dirty.put(entry.key, entry));
+                    releasing.forEach((key, count) -> released.merge(key, count, Long::sum));
+                }
+                flushing.clear();
+                releasing.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void updatePersisted(CustomerCoupon key, long total) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    entry.lastUsed = System.nanoTime();
+                    entry.persisted = total;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Drops entries last used before {@code idleSince} whose redemptions
+         * are all written. Stops at the first entry used since then.
+         */
+        void evictIdle(long idleSince) {
+            lock.lock();
+            try {
+                Iterator<Entry> iterator = entries.values().iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (entry.lastUsed - idleSince > 0) {
+                        break;
+                    }
+                    if (entry.pending == 0 && entry.inFlight == 0 && !dirty.containsKey(entry.key)) {
+                        iterator.remove();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final CustomerCoupon key;
+        // Total in the table at the last sync, including this instance's flushed redemptions
+        long persisted;
+        // Being written by the current flush
+        long inFlight;
+        // Recorded locally since the last flush
+        long pending;
+        // System.nanoTime() of the last access; every access also moves the
+        // entry to the tail, so entries are ordered by this value
+        long lastUsed = System.nanoTime();
+
+        Entry(CustomerCoupon key, long persisted) {
+            this.key = key;
+            this.persisted = persisted;
+        }
+
+        long count() {
+            return persisted + inFlight + pending;
+        }
+    }
+}
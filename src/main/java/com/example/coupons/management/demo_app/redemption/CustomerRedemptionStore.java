@@ -0,0 +1,91 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import com.example.coupons.management.demo_app.generation.SequenceBlocks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent per-customer redemption totals in
+ * {@code coupons.customer_redemption}, one row per coupon and customer.
+ * Written in batches like {@link RedemptionStore}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerRedemptionStore {
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO coupons.customer_redemption AS r (coupon_id, customer_id, redeemed_count, updated_at) " +
+        "VALUES (?, ?, ?, CURRENT_TIMESTAMP) ON CONFLICT (coupon_id, customer_id) DO UPDATE " +
+        "SET redeemed_count = r.redeemed_count + EXCLUDED.redeemed_count, updated_at = CURRENT_TIMESTAMP";
+    private static final String MERGE_SQL =
+        "MERGE INTO coupons.customer_redemption r " +
+        "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+        "AS d (coupon_id, customer_id, redeemed_count) " +
+        "ON r.coupon_id = d.coupon_id AND r.customer_id = d.customer_id " +
+        "WHEN MATCHED THEN UPDATE SET redeemed_count = r.redeemed_count + d.redeemed_count, updated_at = CURRENT_TIMESTAMP " +
+        "WHEN NOT MATCHED THEN INSERT (coupon_id, customer_id, redeemed_count, updated_at) " +
+        "VALUES (d.coupon_id, d.customer_id, d.redeemed_count, CURRENT_TIMESTAMP)";
+    private static final String LOAD_COUNT_SQL =
+        "SELECT redeemed_count FROM coupons.customer_redemption WHERE coupon_id = ? AND customer_id = ?";
+    private static final String LOAD_UPDATED_SQL =
+        "SELECT coupon_id, customer_id, redeemed_count FROM coupons.customer_redemption WHERE updated_at >= ?";
+    private static final String CURRENT_TIMESTAMP_SQL = "SELECT CURRENT_TIMESTAMP";
+
+    private static final Comparator<CustomerCoupon> ROW_ORDER =
+        Comparator.comparingLong(CustomerCoupon::getCouponId).thenComparingLong(CustomerCoupon::getCustomerId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceBlocks sequenceBlocks;
+
+    public long loadCount(long couponId, long customerId) {
+        List<Long> counts = jdbcTemplate.queryForList(LOAD_COUNT_SQL, Long.class, couponId, customerId);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    public Map<CustomerCoupon, Long> loadUpdatedSince(Instant since) {
+        return load(LOAD_UPDATED_SQL, Timestamp.from(since));
+    }
+
+    /**
+     * Current time on the database clock, the one that stamps {@code updated_at}.
+     */
+    public Instant currentTimestamp() {
+        return jdbcTemplate.queryForObject(CURRENT_TIMESTAMP_SQL, Timestamp.class).toInstant();
+    }
+
+    /**
+     * Adds each delta to its row in one transaction, inserting missing rows in
+     * the same upsert, and touching rows in key order so concurrent flushes
+     * from several instances lock in the same order.
+     */
+    @Transactional
+    public void addAll(Map<CustomerCoupon, Long> deltas) {
+        List<Map.Entry<CustomerCoupon, Long>> entries = new ArrayList<>(deltas.entrySet());
+        entries.sort(Map.Entry.comparingByKey(ROW_ORDER));
+        String sql = sequenceBlocks.isPostgres() ? UPSERT_SQL : MERGE_SQL;
+        jdbcTemplate.batchUpdate(sql, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.getKey().getCouponId());
+            statement.setLong(2, entry.getKey().getCustomerId());
+            statement.setLong(3, entry.getValue());
+        });
+    }
+
+    private Map<CustomerCoupon, Long> load(String sql, Object parameter) {
+        Map<CustomerCoupon, Long> totals = new HashMap<>();
+        jdbcTemplate.query(sql, row -> {
+            totals.put(new CustomerCoupon(row.getLong("coupon_id"), row.getLong("customer_id")),
+                row.getLong("redeemed_count"));
+        }, parameter);
+        return totals;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Lock and resume point of a component that periodically re-reads the rows
+ * changed since its previous sync, picking up other instances' writes. The
+ * resume point is read off the database clock, the one that stamps the rows,
+ * so skew between instances and the database cannot hide a change; each sync
+ * also re-reads {@link #OVERLAP} before it.
+ * <p>
+ * The lock is held across database calls by flushes and syncs. It is a
+ * {@link ReentrantLock} rather than synchronized, so a virtual thread waiting
+ * on JDBC does not pin its carrier thread.
+ */
+@Slf4j
+public final class IncrementalSync {
+
+    // Re-read window before the previous sync, covering transactions that
+    // committed after the time they were stamped with
+    public static final Duration OVERLAP = Duration.ofSeconds(5);
+
+    private final String name;
+    private final Supplier<Instant> databaseClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Database time the previous sync started at; null until first read
+    private Instant lastSync;
+
+    /**
+     * @param name          what is synced, for log messages
+     * @param databaseClock current time on the database clock
+     */
+    public IncrementalSync(String name, Supplier<Instant> databaseClock) {
+        this.name = name;
+        this.databaseClock = databaseClock;
+    }
+
+    public void lock() {
+        lock.lock();
+    }
+
+    public boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * Reads the database time the first sync resumes from, unless a sync has
+     * already set one. On failure the first sync reads it instead.
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (lastSync == null) {
+                lastSync = databaseClock.get();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not read the {} sync start: {}", name, ex.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs one sync under the lock: passes {@code loadChangedSince} the time to
+     * re-read from, then resumes the next sync from the database time read
+     * before it ran, so rows changed while it runs are read again. Without a
+     * resume point nothing is read; the next sync resumes from now.
+     *
+     * @return false when there was no point to resume from, so state loaded
+     * before this sync may have missed changes
+     * @throws RuntimeException from the clock or the load; the resume point is
+     * then kept and the next sync reads the same rows again
+     */
+    public boolean sync(Consumer<Instant> loadChangedSince) {
+        lock.lock();
+        try {
+            Instant started = databaseClock.get();
+            boolean resumed = lastSync != null;
+            if (resumed) {
+                loadChangedSince.accept(lastSync.minus(OVERLAP));
+            }
+            lastSync = started;
+            return resumed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current time on the database clock, to pass to {@link #resumeFrom} when
+     * read before a full load.
+     */
+    public Instant databaseTime() {
+        return databaseClock.get();
+    }
+
+    /**
+     * Resumes the next sync from {@code time}, after a full load that started
+     * then replaced everything synced so far.
+     */
+    public void resumeFrom(Instant time) {
+        lock.lock();
+        try {
+            lastSync = time;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import com.example.coupons.management.demo_app.catalog.CompiledCoupon;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts coupon redemptions in memory and writes them behind to
+ * {@link RedemptionStore}. Each coupon has a striped {@link LongAdder}, so
+ * concurrent checkouts on the same coupon never contend on one row or one
+ * lock; the database sees a single batched increment per coupon per flush.
+ * <p>
+ * Usage limits are checked against the last persisted total plus the local
+ * redemptions not yet flushed. The check and the increment are not atomic, so
+ * a limit can be exceeded by at most the number of concurrent redemptions on
+ * this instance, plus whatever other instances redeemed since the last flush.
+ * <p>
+ * Only coupons used recently are held. A limited coupon's total is loaded
+ * the first time it is checked; a counter whose redemptions are all written
+ * and that saw none for {@code counter-idle-ms} is evicted by a flush, so
+ * single-use and expired or deactivated coupons do not stay in memory. A
+ * redemption racing the eviction notices it and counts again on a freshly
+ * loaded counter.
+ * <p>
+ * Only coupons with a usage limit are synced with the table, since no other
+ * redemption check reads a total. Each flush first writes this instance's
+ * deltas, skipping the write when there are none. It then reloads the limited
+ * rows changed since the previous sync, which picks up other instances'
+ * redemptions (see {@link IncrementalSync}). A crash loses only the
+ * redemptions of the last flush interval, and a failed flush is retried in
+ * full because nothing is marked as written until its transaction commits.
+ */
+@Component
+@Slf4j
+public class RedemptionCounters {
+
+    private final RedemptionStore redemptionStore;
+    private final long idleNanos;
+    // Its lock serializes flushes and reads of unflushed redemptions
+    private final IncrementalSync sync;
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    public RedemptionCounters(RedemptionStore redemptionStore,
+                              @Value("${coupons.redemption.counter-idle-ms:600000}") long idleMillis) {
+        this.redemptionStore = redemptionStore;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.sync = new IncrementalSync("redemption count", redemptionStore::currentTimestamp);
+    }
+
+    /**
+     * Records one redemption unless the coupon has reached its usage limit.
+     *
+     * @return false when the limit is reached and nothing was recorded
+     */
+    public boolean tryRedeem(long couponId, long usageLimit) {
+        boolean limited = usageLimit != CompiledCoupon.UNLIMITED;
+        while (true) {
+            Counter counter = held(couponId, limited);
+            if (limited && counter.count() >= usageLimit) {
+                return false;
+            }
+            counter.redeemed.increment();
+            if (!counter.evicted) {
+                return true;
+            }
+            // Evicted before the increment was seen; count it on the replacement
+            counter.redeemed.decrement();
+        }
+    }
+
+    /**
+     * Redemptions as seen by the usage limit check, loading the persisted
+     * total if the coupon is not held. Kept in sync across instances only for
+     * coupons with a usage limit; see {@link #total}.
+     */
+    public long count(long couponId) {
+        return held(couponId, true).count();
+    }
+
+    /**
+     * Whether the held counter shows the coupon at its usage limit, without
+     * loading one that is not held; such a coupon is reported as below it,
+     * and {@link #tryRedeem} makes the final check.
+     */
+    public boolean isKnownAtLimit(long couponId, long usageLimit) {
+        if (usageLimit == CompiledCoupon.UNLIMITED) {
+            return false;
+        }
+        Counter counter = counters.get(couponId);
+        return counter != null && counter.count() >= usageLimit;
+    }
+
+    /**
+     * Redemptions across all instances, for reporting. Unlimited coupons are
+     * not synced in memory, so their persisted total is read and this
+     * instance's unflushed redemptions added.
+     */
+    public long total(long couponId, long usageLimit) {
+        if (usageLimit != CompiledCoupon.UNLIMITED) {
+            return count(couponId);
+        }
+        sync.lock();
+        try {
+            Counter counter = counters.get(couponId);
+            long unflushed = counter == null ? 0 : counter.redeemed.sum() - counter.flushed;
+            return redemptionStore.loadCount(couponId) + unflushed;
+        } finally {
+            sync.unlock();
+        }
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Reads the database time the first sync resumes from.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        sync.start();
+    }
+
+    @Scheduled(fixedDelayString = "${coupons.redemption.flush-interval-ms:1000}",
+               initialDelayString = "${coupons.redemption.flush-interval-ms:1000}")
+    public void flush() {
+        sync.lock();
+        try {
+            Map<Long, Long> deltas = new HashMap<>();
+            Map<Counter, Long> sums = new HashMap<>();
+            counters.forEach((couponId, counter) -> {
+                long sum = counter.redeemed.sum();
+                if (sum > counter.flushed) {
+                    deltas.put(couponId, sum - counter.flushed);
+                    sums.put(counter, sum);
+                }
+            });
+
+            if (!deltas.isEmpty()) {
+                try {
+                    redemptionStore.addAll(deltas);
+                } catch (RuntimeException ex) {
+                    log.warn("Redemption flush of {} coupons failed, will retry: {}", deltas.size(), ex.getMessage());
+                    return;
+                }
+                sums.forEach((counter, sum) -> counter.flushed = sum);
+            }
+
+            boolean resumed = true;
+            try {
+                resumed = sync.sync(since -> applyTotals(redemptionStore.loadLimitedUpdatedSince(since)));
+            } catch (RuntimeException ex) {
+                log.warn("Could not sync redemption counts: {}", ex.getMessage());
+            }
+
+            // Counters loaded before any sync have no point to resume from;
+            // drop the written ones so their next check loads them again
+            evictIdle(System.nanoTime(), resumed ? idleNanos : 0);
+        } finally {
+            sync.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Counters not held are loaded with their current total on the next check
+    private void applyTotals(Map<Long, Long> totals) {
+        totals.forEach((couponId, total) -> {
+            Counter counter = counters.get(couponId);
+            if (counter != null) {
+                counter.offset = total - counter.flushed;
+            }
+        });
+    }
+
+    /**
+     * Counter of the coupon, loading the persisted total of a limited coupon
+     * that is not held. When two checks miss the same coupon, the first
+     * loaded counter is kept.
+     */
+    private Counter held(long couponId, boolean limited) {
+        Counter counter = counters.get(couponId);
+        if (counter != null) {
+            return counter;
+        }
+        // Unlimited coupons are never checked against a total
+        Counter loaded = new Counter(limited ? redemptionStore.loadCount(couponId) : 0);
+        Counter raced = counters.putIfAbsent(couponId, loaded);
+        return raced == null ? loaded : raced;
+    }
+
+    /**
+     * Drops counters whose redemptions are all written and that saw none for
+     * {@code idleNanos}. Counters redeemed since the previous pass are marked
+     * active instead.
+     */
+    private void evictIdle(long now, long idleNanos) {
+        counters.forEach((couponId, counter) -> {
+            long sum = counter.redeemed.sum();
+            if (sum != counter.seen) {
+                counter.seen = sum;
+                counter.lastActive = now;
+                if (idleNanos > 0) {
+                    return;
+                }
+            }
+            if (now - counter.lastActive < idleNanos || sum != counter.flushed) {
+                return;
+            }
+            counter.evicted = true;
+            // Read again after marking: a redemption that got in before the
+            // mark stays counted here, one after it backs out and retries
+            if (counter.redeemed.sum() == counter.flushed) {
+                counters.remove(couponId, counter);
+            } else {
+                counter.evicted = false;
+            }
+        });
+    }
+
+    private static final class Counter {
+        // Redemptions on this instance since the counter was loaded
+        final LongAdder redeemed = new LongAdder();
+        // Part of redeemed already written; only touched by the flushing thread
+        long flushed;
+        // Persisted total minus flushed, swapped in one write so readers never
+        // see the persisted total without the matching flushed part
+        volatile long offset;
+        // Set when the counter is being evicted; redemptions seeing it retry
+        volatile boolean evicted;
+        // redeemed at the previous eviction pass and System.nanoTime() it
+        // last changed at; only touched by the flushing thread
+        long seen;
+        long lastActive = System.nanoTime();
+
+        Counter(long persisted) {
+            this.offset = persisted;
+        }
+
+        long count() {
+            return offset + redeemed.sum();
+        }
+    }
+}
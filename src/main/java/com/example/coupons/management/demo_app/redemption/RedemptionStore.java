@@ -0,0 +1,93 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import com.example.coupons.management.demo_app.generation.SequenceBlocks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persistent redemption totals, one row per coupon in
+ * {@code coupons.coupon_redemption}. Totals only ever grow by the deltas
+ * passed to {@link #addAll(Map)}, written as one JDBC batch per flush rather
+ * than one update per checkout. The bulk read returns only coupons with a
+ * usage limit, the only totals a redemption check depends on.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RedemptionStore {
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO coupons.coupon_redemption AS r (coupon_id, redeemed_count, updated_at) " +
+        "VALUES (?, ?, CURRENT_TIMESTAMP) ON CONFLICT (coupon_id) DO UPDATE " +
+        "SET redeemed_count = r.redeemed_count + EXCLUDED.redeemed_count, updated_at = CURRENT_TIMESTAMP";
+    // H2 has no ON CONFLICT ... DO UPDATE
+    private static final String MERGE_SQL =
+        "MERGE INTO coupons.coupon_redemption r " +
+        "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT))) AS d (coupon_id, redeemed_count) " +
+        "ON r.coupon_id = d.coupon_id " +
+        "WHEN MATCHED THEN UPDATE SET redeemed_count = r.redeemed_count + d.redeemed_count, updated_at = CURRENT_TIMESTAMP " +
+        "WHEN NOT MATCHED THEN INSERT (coupon_id, redeemed_count, updated_at) " +
+        "VALUES (d.coupon_id, d.redeemed_count, CURRENT_TIMESTAMP)";
+    private static final String LOAD_LIMITED_UPDATED_SQL =
+        "SELECT r.coupon_id, r.redeemed_count FROM coupons.coupon_redemption r " +
+        "JOIN coupons.coupon c ON c.id = r.coupon_id WHERE r.updated_at >= ? AND c.usage_limit IS NOT NULL";
+    private static final String LOAD_COUNT_SQL =
+        "SELECT redeemed_count FROM coupons.coupon_redemption WHERE coupon_id = ?";
+    private static final String CURRENT_TIMESTAMP_SQL = "SELECT CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceBlocks sequenceBlocks;
+
+    /**
+     * Totals of coupons with a usage limit whose row changed at or after {@code since}.
+     */
+    public Map<Long, Long> loadLimitedUpdatedSince(Instant since) {
+        return load(LOAD_LIMITED_UPDATED_SQL, Timestamp.from(since));
+    }
+
+    public long loadCount(long couponId) {
+        List<Long> counts = jdbcTemplate.queryForList(LOAD_COUNT_SQL, Long.class, couponId);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    /**
+     * Current time on the database clock, the one that stamps {@code updated_at}.
+     */
+    public Instant currentTimestamp() {
+        return jdbcTemplate.queryForObject(CURRENT_TIMESTAMP_SQL, Timestamp.class).toInstant();
+    }
+
+    /**
+     * Adds each delta to its coupon's total in one transaction, so a flush is
+     * either fully applied or not at all. Each row is inserted or incremented
+     * by a single upsert, so instances recording a coupon's first redemptions
+     * at the same time do not race on its key. Rows are touched in coupon id
+     * order, keeping lock order the same across instances flushing concurrently.
+     */
+    @Transactional
+    public void addAll(Map<Long, Long> deltas) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(new TreeMap<>(deltas).entrySet());
+        String sql = sequenceBlocks.isPostgres() ? UPSERT_SQL : MERGE_SQL;
+        jdbcTemplate.batchUpdate(sql, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.getKey());
+            statement.setLong(2, entry.getValue());
+        });
+    }
+
+    private Map<Long, Long> load(String sql, Object parameter) {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, row -> {
+            counts.put(row.getLong("coupon_id"), row.getLong("redeemed_count"));
+        }, parameter);
+        return counts;
+    }
+}
@@ -13,6 +13,6 @@ public interface BxGyCouponRepository extends JpaRepository<BxGyCoupon, Long> {
 
     Optional<BxGyCoupon> findByCode(String code);
 
-    @Query("SELECT c FROM BxGyCoupon c WHERE c.isActive = true AND c.expirationDate > :currentDate")
+    @Query("SELECT c FROM BxGyCoupon c WHERE c.isActive = true AND c.codeOnly = false AND c.expirationDate > :currentDate")
     List<BxGyCoupon> findAllActiveCoupons(LocalDate currentDate);
 }
@@ -13,6 +13,6 @@ public interface CartWiseCouponRepository extends JpaRepository<CartWiseCoupon,
 
     Optional<CartWiseCoupon> findByCode(String code);
 
-    @Query("SELECT c FROM CartWiseCoupon c WHERE c.isActive = true AND c.expirationDate > :currentDate")
+    @Query("SELECT c FROM CartWiseCoupon c WHERE c.isActive = true AND c.codeOnly = false AND c.expirationDate > :currentDate")
     List<CartWiseCoupon> findAllActiveCoupons(LocalDate currentDate);
 }
@@ -0,0 +1,64 @@
+package com.example.coupons.management.demo_app.repository;
+
+import com.example.coupons.management.demo_app.model.Coupon;
+import com.example.coupons.management.demo_app.model.CouponType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Polymorphic access to every coupon type through the shared coupon table.
+ */
+@Repository
+public interface CouponRepository extends JpaRepository<Coupon, Long> {
+
+    Optional<Coupon> findByCode(String code);
+
+    @Query("SELECT c.code FROM Coupon c WHERE c.code IN :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    /**
+     * One keyset page in (type, id) order. Pass a null {@code afterType} for the
+     * first page; every other filter is skipped when null.
+     */
+    @Query("""
+        SELECT c FROM Coupon c
+        WHERE (:type IS NULL OR c.couponType = :type)
+          AND (:active IS NULL OR c.isActive = :active)
+          AND (:expiringBefore IS NULL OR c.expirationDate < :expiringBefore)
+          AND (:afterType IS NULL
+               OR c.couponType > :afterType
+               OR (c.couponType = :afterType AND c.id > :afterId))
+        ORDER BY c.couponType, c.id""")
+    List<Coupon> findPage(@Param("type") CouponType type,
+                          @Param("active") Boolean active,
+                          @Param("expiringBefore") LocalDate expiringBefore,
+                          @Param("afterType") CouponType afterType,
+                          @Param("afterId") Long afterId,
+                          Limit limit);
+
+    /**
+     * Same filters and order as {@link #findPage}, read through a forward-only
+     * cursor. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT c FROM Coupon c
+        WHERE (:type IS NULL OR c.couponType = :type)
+          AND (:active IS NULL OR c.isActive = :active)
+          AND (:expiringBefore IS NULL OR c.expirationDate < :expiringBefore)
+        ORDER BY c.couponType, c.id""")
+    Stream<Coupon> streamAll(@Param("type") CouponType type,
+                             @Param("active") Boolean active,
+                             @Param("expiringBefore") LocalDate expiringBefore);
+}
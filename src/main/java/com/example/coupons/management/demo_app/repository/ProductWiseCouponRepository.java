@@ -13,7 +13,7 @@ public interface ProductWiseCouponRepository extends JpaRepository<ProductWiseCo
 
     Optional<ProductWiseCoupon> findByCode(String code);
 
-    @Query("SELECT c FROM ProductWiseCoupon c WHERE c.isActive = true AND c.expirationDate > :currentDate")
+    @Query("SELECT c FROM ProductWiseCoupon c WHERE c.isActive = true AND c.codeOnly = false AND c.expirationDate > :currentDate")
     List<ProductWiseCoupon> findAllActiveCoupons(LocalDate currentDate);
 
     List<ProductWiseCoupon> findByProductId(Long productId);
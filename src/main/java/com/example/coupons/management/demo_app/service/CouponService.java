@@ -2,7 +2,12 @@ package com.example.coupons.management.demo_app.service;
 
 import com.example.coupons.management.demo_app.dto.*;
 import com.example.coupons.management.demo_app.model.*;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CouponService {
 
@@ -12,11 +17,43 @@ public interface CouponService {
 
     BxGyCoupon createBxGyCoupon(CreateBxGyCouponRequest request);
 
+    BulkCreateResultDTO createCartWiseCoupons(List<CreateCartWiseCouponRequest> requests);
+
+    BulkCreateResultDTO createProductWiseCoupons(List<CreateProductWiseCouponRequest> requests);
+
+    BulkCreateResultDTO createBxGyCoupons(List<CreateBxGyCouponRequest> requests);
+
+    CodeGenerationJobDTO startCodeGeneration(GenerateCouponCodesRequest request);
+
+    Optional<CodeGenerationJobDTO> getCodeGenerationJob(String jobId);
+
     List<CouponResponseDTO> getAllCoupons();
 
+    CouponPageDTO getCouponPage(CouponType type, Boolean active, LocalDate expiringBefore, String cursor, int size);
+
+    long streamCoupons(CouponType type, Boolean active, LocalDate expiringBefore, Consumer<CouponResponseDTO> coupons);
+
     CouponResponseDTO getCouponById(Long id);
 
+    CouponResponseDTO getCouponByCode(String code);
+
+    Map<String, CacheStatsDTO> getCacheStats();
+
+    RedemptionCountDTO getRedemptionCount(Long id);
+
     List<ApplicableCouponDTO> findApplicableCoupons(CartDTO cart);
 
+    List<List<ApplicableCouponDTO>> findApplicableCoupons(List<CartDTO> carts);
+
+    long streamApplicableCoupons(Iterator<CartDTO> carts, Consumer<List<ApplicableCouponDTO>> results);
+
     CouponApplicationResultDTO applyCoupon(Long couponId, CartDTO cart);
+
+    CouponApplicationResultDTO applyBestCoupon(CartDTO cart);
+
+    SignedCodesDTO issueSignedCodes(Long couponId, int count);
+
+    CouponApplicationResultDTO applySignedCode(String code, CartDTO cart);
+
+    CouponApplicationResultDTO applyCouponCode(String code, CartDTO cart);
 }
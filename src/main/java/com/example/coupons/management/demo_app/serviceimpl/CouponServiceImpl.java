@@ -1,19 +1,51 @@
 package com.example.coupons.management.demo_app.serviceimpl;
 
+import com.example.coupons.management.demo_app.catalog.ApplicableCouponsCache;
+import com.example.coupons.management.demo_app.catalog.CartBatchEvaluator;
+import com.example.coupons.management.demo_app.catalog.CouponCatalog;
+import com.example.coupons.management.demo_app.catalog.CompiledCoupon;
+import com.example.coupons.management.demo_app.catalog.CouponCatalogChangedEvent;
+import com.example.coupons.management.demo_app.catalog.CouponCodeFilter;
+import com.example.coupons.management.demo_app.catalog.CouponLookupCache;
+import com.example.coupons.management.demo_app.catalog.CouponMatch;
+import com.example.coupons.management.demo_app.catalog.CouponSnapshot;
+import com.example.coupons.management.demo_app.catalog.CouponsBulkCreatedEvent;
 import com.example.coupons.management.demo_app.dto.*;
 import com.example.coupons.management.demo_app.model.*;
 import com.example.coupons.management.demo_app.repository.*;
 import com.example.coupons.management.demo_app.exception.CouponNotFoundException;
 import com.example.coupons.management.demo_app.exception.CouponNotApplicableException;
+import com.example.coupons.management.demo_app.exception.InvalidCodeGenerationRequestException;
+import com.example.coupons.management.demo_app.exception.InvalidSignedCodesRequestException;
+import com.example.coupons.management.demo_app.exception.SignedCodesDisabledException;
+import com.example.coupons.management.demo_app.generation.CodeGenerationJobs;
+import com.example.coupons.management.demo_app.generation.CouponCodeGenerator;
+import com.example.coupons.management.demo_app.generation.SignedCode;
+import com.example.coupons.management.demo_app.generation.SignedCodeStore;
+import com.example.coupons.management.demo_app.generation.SignedCouponCodes;
+import com.example.coupons.management.demo_app.redemption.CustomerRedemptionLedger;
+import com.example.coupons.management.demo_app.redemption.RedemptionCounters;
 import com.example.coupons.management.demo_app.service.CouponService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,39 +56,233 @@ public class CouponServiceImpl implements CouponService {
     private final CartWiseCouponRepository cartWiseCouponRepository;
     private final ProductWiseCouponRepository productWiseCouponRepository;
     private final BxGyCouponRepository bxGyCouponRepository;
+    private final CouponRepository couponRepository;
+    private final CouponCatalog couponCatalog;
+    private final CartBatchEvaluator cartBatchEvaluator;
+    private final CouponLookupCache couponLookupCache;
+    private final CouponCodeFilter couponCodeFilter;
+    private final ApplicableCouponsCache applicableCouponsCache;
+    private final RedemptionCounters redemptionCounters;
+    private final CustomerRedemptionLedger customerRedemptionLedger;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final CodeGenerationJobs codeGenerationJobs;
+    private final SignedCouponCodes signedCouponCodes;
+    private final SignedCodeStore signedCodeStore;
+    private final PlatformTransactionManager transactionManager;
+
+    public static final int MAX_PAGE_SIZE = 500;
+    // Bulk creation: coupons per flush/clear of the persistence context, and codes per IN list
+    static final int BULK_FLUSH_SIZE = 1000;
+    static final int CODE_LOOKUP_CHUNK_SIZE = 1000;
+    public static final int MAX_SIGNED_CODES = 10_000;
 
     @Override
     public CartWiseCoupon createCartWiseCoupon(CreateCartWiseCouponRequest request) {
+        CartWiseCoupon coupon = toCartWiseCoupon(request);
+
+        log.info("Creating cart-wise coupon with code: {}", coupon.getCode());
+        CartWiseCoupon saved = cartWiseCouponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponCatalogChangedEvent(saved));
+        return saved;
+    }
+
+    @Override
+    public ProductWiseCoupon createProductWiseCoupon(CreateProductWiseCouponRequest request) {
+        ProductWiseCoupon coupon = toProductWiseCoupon(request);
+
+        log.info("Creating product-wise coupon with code: {}", coupon.getCode());
+        ProductWiseCoupon saved = productWiseCouponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponCatalogChangedEvent(saved));
+        return saved;
+    }
+
+    @Override
+    public BxGyCoupon createBxGyCoupon(CreateBxGyCouponRequest request) {
+        BxGyCoupon coupon = toBxGyCoupon(request);
+
+        log.info("Creating BxGy coupon with code: {}", coupon.getCode());
+        BxGyCoupon saved = bxGyCouponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponCatalogChangedEvent(saved));
+        return saved;
+    }
+
+    @Override
+    public BulkCreateResultDTO createCartWiseCoupons(List<CreateCartWiseCouponRequest> requests) {
+        return createInBulk(CouponType.CART_WISE, requests, this::toCartWiseCoupon);
+    }
+
+    @Override
+    public BulkCreateResultDTO createProductWiseCoupons(List<CreateProductWiseCouponRequest> requests) {
+        return createInBulk(CouponType.PRODUCT_WISE, requests, this::toProductWiseCoupon);
+    }
+
+    @Override
+    public BulkCreateResultDTO createBxGyCoupons(List<CreateBxGyCouponRequest> requests) {
+        return createInBulk(CouponType.BXGY, requests, this::toBxGyCoupon);
+    }
+
+    /**
+     * Validates each request on its own and inserts the valid ones in this
+     * transaction. Ids come from the pooled-lo sequence optimizer, so rows
+     * (including BxGy product maps) go out in JDBC batches of
+     * {@code hibernate.jdbc.batch_size}. Invalid items and codes that already
+     * exist are reported by index instead of failing the whole request.
+     */
+    private <R> BulkCreateResultDTO createInBulk(CouponType type, List<R> requests, Function<R, ? extends Coupon> toCoupon) {
+        List<Coupon> coupons = requests.stream()
+            .map(request -> request == null ? null : (Coupon) toCoupon.apply(request))
+            .toList();
+        Set<String> takenCodes = findExistingCodes(coupons.stream()
+            .filter(Objects::nonNull)
+            .map(Coupon::getCode)
+            .filter(Objects::nonNull)
+            .toList());
+
+        List<Long> createdIds = new ArrayList<>();
+        List<String> createdCodes = new ArrayList<>();
+        List<BulkItemErrorDTO> errors = new ArrayList<>();
+        int unflushed = 0;
+        for (int index = 0; index < requests.size(); index++) {
+            R request = requests.get(index);
+            if (request == null) {
+                errors.add(new BulkItemErrorDTO(index, null, Map.of("request", "Coupon request is required")));
+                continue;
+            }
+
+            Coupon coupon = coupons.get(index);
+            Map<String, String> fieldErrors = new LinkedHashMap<>();
+            validator.validate(request).forEach(violation ->
+                fieldErrors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage()));
+            validator.validate(coupon).forEach(violation ->
+                fieldErrors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage()));
+            // Checked last so a rejected item does not claim its code
+            if (fieldErrors.isEmpty() && !takenCodes.add(coupon.getCode())) {
+                fieldErrors.put("code", "Coupon code already exists");
+            }
+            if (!fieldErrors.isEmpty()) {
+                errors.add(new BulkItemErrorDTO(index, coupon.getCode(), fieldErrors));
+                continue;
+            }
+
+            entityManager.persist(coupon);
+            createdIds.add(coupon.getId());
+            createdCodes.add(coupon.getCode());
+            // Keep the persistence context small; flushing a multiple of the JDBC batch size keeps batches full
+            if (++unflushed == BULK_FLUSH_SIZE) {
+                entityManager.flush();
+                entityManager.clear();
+                unflushed = 0;
+            }
+        }
+
+        log.info("Bulk created {} of {} {} coupons", createdIds.size(), requests.size(), type);
+        if (!createdIds.isEmpty()) {
+            eventPublisher.publishEvent(new CouponsBulkCreatedEvent(type, createdIds, createdCodes));
+        }
+        return new BulkCreateResultDTO(requests.size(), createdIds.size(), createdIds, errors);
+    }
+
+    private Set<String> findExistingCodes(List<String> codes) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < codes.size(); from += CODE_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = codes.subList(from, Math.min(from + CODE_LOOKUP_CHUNK_SIZE, codes.size()));
+            existing.addAll(couponRepository.findExistingCodes(chunk));
+        }
+        return existing;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CodeGenerationJobDTO startCodeGeneration(GenerateCouponCodesRequest request) {
+        CouponCodeGenerator generator;
+        try {
+            String alphabet = request.getAlphabet() == null ? CouponCodeGenerator.DEFAULT_ALPHABET : request.getAlphabet();
+            generator = new CouponCodeGenerator(request.getPrefix(), alphabet, request.getLength(),
+                ThreadLocalRandom.current().nextLong());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCodeGenerationRequestException(ex.getMessage());
+        }
+        if (request.getCount() > generator.getCapacity()) {
+            throw new InvalidCodeGenerationRequestException("Alphabet and length allow only "
+                + generator.getCapacity() + " codes, " + request.getCount() + " requested");
+        }
+
+        Coupon template = toTemplateCoupon(request);
+        // Validated with a real code so the generated length is checked too
+        template.setCode(generator.codeAt(0));
+        String errors = validator.validate(template).stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+        if (!errors.isEmpty()) {
+            throw new InvalidCodeGenerationRequestException(errors);
+        }
+        template.setCode(null);
+
+        return codeGenerationJobs.start(template, generator, request.getCount());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<CodeGenerationJobDTO> getCodeGenerationJob(String jobId) {
+        return codeGenerationJobs.find(jobId);
+    }
+
+    private Coupon toTemplateCoupon(GenerateCouponCodesRequest request) {
+        Coupon coupon;
+        if (request.getType() == CouponType.CART_WISE) {
+            CartWiseCoupon cartWise = new CartWiseCoupon();
+            cartWise.setThreshold(request.getThreshold());
+            cartWise.setDiscountPercentage(request.getDiscountPercentage());
+            coupon = cartWise;
+        } else if (request.getType() == CouponType.PRODUCT_WISE) {
+            ProductWiseCoupon productWise = new ProductWiseCoupon();
+            productWise.setProductId(request.getProductId());
+            productWise.setDiscountPercentage(request.getDiscountPercentage());
+            coupon = productWise;
+        } else {
+            throw new InvalidCodeGenerationRequestException("Code generation supports CART_WISE and PRODUCT_WISE coupons only");
+        }
+        coupon.setExpirationDate(request.getExpirationDate());
+        coupon.setDescription(request.getDescription());
+        coupon.setUsageLimit(request.getUsageLimit() == null ? 1 : request.getUsageLimit());
+        coupon.setPerCustomerLimit(request.getPerCustomerLimit());
+        coupon.setIsActive(true);
+        coupon.setCodeOnly(true);
+        return coupon;
+    }
+
+    private CartWiseCoupon toCartWiseCoupon(CreateCartWiseCouponRequest request) {
         CartWiseCoupon coupon = new CartWiseCoupon();
         coupon.setCode(request.getCode());
         coupon.setExpirationDate(request.getExpirationDate());
         coupon.setDescription(request.getDescription());
         coupon.setThreshold(request.getThreshold());
         coupon.setDiscountPercentage(request.getDiscountPercentage());
+        coupon.setUsageLimit(request.getUsageLimit());
+        coupon.setPerCustomerLimit(request.getPerCustomerLimit());
         coupon.setIsActive(true);
         coupon.setCouponType(CouponType.CART_WISE); // Explicitly set the coupon type
-
-        log.info("Creating cart-wise coupon with code: {}", coupon.getCode());
-        return cartWiseCouponRepository.save(coupon);
+        return coupon;
     }
 
-    @Override
-    public ProductWiseCoupon createProductWiseCoupon(CreateProductWiseCouponRequest request) {
+    private ProductWiseCoupon toProductWiseCoupon(CreateProductWiseCouponRequest request) {
         ProductWiseCoupon coupon = new ProductWiseCoupon();
         coupon.setCode(request.getCode());
         coupon.setExpirationDate(request.getExpirationDate());
         coupon.setDescription(request.getDescription());
         coupon.setProductId(request.getProductId());
         coupon.setDiscountPercentage(request.getDiscountPercentage());
+        coupon.setUsageLimit(request.getUsageLimit());
+        coupon.setPerCustomerLimit(request.getPerCustomerLimit());
         coupon.setIsActive(true);
         coupon.setCouponType(CouponType.PRODUCT_WISE); // Explicitly set the coupon type
-
-        log.info("Creating product-wise coupon with code: {}", coupon.getCode());
-        return productWiseCouponRepository.save(coupon);
+        return coupon;
     }
 
-    @Override
-    public BxGyCoupon createBxGyCoupon(CreateBxGyCouponRequest request) {
+    private BxGyCoupon toBxGyCoupon(CreateBxGyCouponRequest request) {
         BxGyCoupon coupon = new BxGyCoupon();
         coupon.setCode(request.getCode());
         coupon.setExpirationDate(request.getExpirationDate());
@@ -64,62 +290,126 @@ public class CouponServiceImpl implements CouponService {
         coupon.setBuyProducts(request.getBuyProducts());
         coupon.setGetProducts(request.getGetProducts());
         coupon.setRepetitionLimit(request.getRepetitionLimit());
+        coupon.setUsageLimit(request.getUsageLimit());
+        coupon.setPerCustomerLimit(request.getPerCustomerLimit());
         coupon.setIsActive(true);
         coupon.setCouponType(CouponType.BXGY);
-
-        log.info("Creating BxGy coupon with code: {}", coupon.getCode());
-        return bxGyCouponRepository.save(coupon);
+        return coupon;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CouponResponseDTO> getAllCoupons() {
-        List<CouponResponseDTO> allCoupons = new ArrayList<>();
-
-        // Get all cart-wise coupons
-        List<CartWiseCoupon> cartWiseCoupons = cartWiseCouponRepository.findAll();
-        allCoupons.addAll(cartWiseCoupons.stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList()));
-
-        // Get all product-wise coupons
-        List<ProductWiseCoupon> productWiseCoupons = productWiseCouponRepository.findAll();
-        allCoupons.addAll(productWiseCoupons.stream()
+        // One scan of the shared coupon table, joined to the subtype tables
+        return couponRepository.findAll().stream()
             .map(this::convertToDto)
-            .collect(Collectors.toList()));
-
-        // Get all BxGy coupons
-        List<BxGyCoupon> bxGyCoupons = bxGyCouponRepository.findAll();
-        allCoupons.addAll(bxGyCoupons.stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList()));
-
-        return allCoupons;
+            .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public CouponResponseDTO getCouponById(Long id) {
-        // Try to find the coupon in each repository
-        Optional<CartWiseCoupon> cartWise = cartWiseCouponRepository.findById(id);
-        if (cartWise.isPresent()) {
-            return convertToDto(cartWise.get());
+    public CouponPageDTO getCouponPage(CouponType type, Boolean active, LocalDate expiringBefore,
+                                       String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        CouponCursor after = cursor == null || cursor.isBlank() ? null : CouponCursor.parse(cursor);
+
+        // One extra row tells whether another page follows
+        List<Coupon> coupons = couponRepository.findPage(type, active, expiringBefore,
+            after == null ? null : after.getType(),
+            after == null ? null : after.getId(),
+            Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (coupons.size() > pageSize) {
+            coupons = coupons.subList(0, pageSize);
+            Coupon last = coupons.get(pageSize - 1);
+            nextCursor = new CouponCursor(last.getCouponType(), last.getId()).toString();
         }
+        return new CouponPageDTO(
+            coupons.stream().map(this::convertToDto).collect(Collectors.toList()),
+            nextCursor);
+    }
 
-        Optional<ProductWiseCoupon> productWise = productWiseCouponRepository.findById(id);
-        if (productWise.isPresent()) {
-            return convertToDto(productWise.get());
+    @Override
+    @Transactional(readOnly = true)
+    public long streamCoupons(CouponType type, Boolean active, LocalDate expiringBefore,
+                              Consumer<CouponResponseDTO> coupons) {
+        long streamed = 0;
+        try (Stream<Coupon> rows = couponRepository.streamAll(type, active, expiringBefore)) {
+            Iterator<Coupon> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Coupon coupon = iterator.next();
+                coupons.accept(convertToDto(coupon));
+                // Keep the persistence context from growing with the result set
+                entityManager.detach(coupon);
+                streamed++;
+            }
         }
+        log.info("Streamed {} coupons", streamed);
+        return streamed;
+    }
 
-        Optional<BxGyCoupon> bxGy = bxGyCouponRepository.findById(id);
-        if (bxGy.isPresent()) {
-            return convertToDto(bxGy.get());
-        }
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CouponResponseDTO getCouponById(Long id) {
+        // Cache hits need neither a transaction nor a connection; misses use the repository's own
+        return couponLookupCache.getById(id, key -> convertToDto(findCoupon(key)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CouponResponseDTO getCouponByCode(String code) {
+        return couponLookupCache.getByCode(code, key -> convertToDto(findCouponByCode(key)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, CacheStatsDTO> getCacheStats() {
+        Map<String, CacheStatsDTO> stats = new LinkedHashMap<>(couponLookupCache.stats());
+        stats.put("applicableCoupons", applicableCouponsCache.stats());
+        return stats;
+    }
 
-        throw new CouponNotFoundException("Coupon not found with id: " + id);
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RedemptionCountDTO getRedemptionCount(Long id) {
+        CouponResponseDTO coupon = getCouponById(id);
+        long usageLimit = coupon.getUsageLimit() == null ? CompiledCoupon.UNLIMITED : coupon.getUsageLimit();
+        return new RedemptionCountDTO(id, redemptionCounters.total(id, usageLimit), coupon.getUsageLimit());
+    }
+
+    /**
+     * Loads a coupon with a single query. Coupons in the catalog snapshot have a
+     * known type, so the typed repository joins only that subtype's table; any
+     * other id is loaded polymorphically, which outer-joins the subtype tables
+     * in the same statement.
+     */
+    private CouponEntity findCoupon(Long id) {
+        CompiledCoupon compiled = couponCatalog.current().find(id);
+        Optional<? extends CouponEntity> coupon;
+        if (compiled == null) {
+            coupon = couponRepository.findById(id);
+        } else {
+            coupon = switch (compiled.getType()) {
+                case CART_WISE -> cartWiseCouponRepository.findById(id);
+                case PRODUCT_WISE -> productWiseCouponRepository.findById(id);
+                case BXGY -> bxGyCouponRepository.findById(id);
+            };
+        }
+        return coupon.orElseThrow(() -> new CouponNotFoundException("Coupon not found with id: " + id));
     }
 
     // Helper methods to convert entities to DTOs
+    private CouponResponseDTO convertToDto(CouponEntity coupon) {
+        if (coupon instanceof CartWiseCoupon cartWise) {
+            return convertToDto(cartWise);
+        }
+        if (coupon instanceof ProductWiseCoupon productWise) {
+            return convertToDto(productWise);
+        }
+        return convertToDto((BxGyCoupon) coupon);
+    }
+
     private CouponResponseDTO convertToDto(CartWiseCoupon coupon) {
         CouponResponseDTO dto = new CouponResponseDTO();
         dto.setId(coupon.getId());
@@ -127,6 +417,8 @@ public class CouponServiceImpl implements CouponService {
         dto.setExpirationDate(coupon.getExpirationDate());
         dto.setIsActive(coupon.getIsActive());
         dto.setDescription(coupon.getDescription());
+        dto.setUsageLimit(coupon.getUsageLimit());
+        dto.setPerCustomerLimit(coupon.getPerCustomerLimit());
         dto.setType("CART_WISE");
         dto.setThreshold(coupon.getThreshold().doubleValue());
         dto.setDiscountPercentage(coupon.getDiscountPercentage().doubleValue());
@@ -140,6 +432,8 @@ public class CouponServiceImpl implements CouponService {
         dto.setExpirationDate(coupon.getExpirationDate());
         dto.setIsActive(coupon.getIsActive());
         dto.setDescription(coupon.getDescription());
+        dto.setUsageLimit(coupon.getUsageLimit());
+        dto.setPerCustomerLimit(coupon.getPerCustomerLimit());
         dto.setType("PRODUCT_WISE");
         dto.setProductId(coupon.getProductId());
         dto.setDiscountPercentage(coupon.getDiscountPercentage().doubleValue());
@@ -153,158 +447,307 @@ public class CouponServiceImpl implements CouponService {
         dto.setExpirationDate(coupon.getExpirationDate());
         dto.setIsActive(coupon.getIsActive());
         dto.setDescription(coupon.getDescription());
+        dto.setUsageLimit(coupon.getUsageLimit());
+        dto.setPerCustomerLimit(coupon.getPerCustomerLimit());
         dto.setType("BXGY");
         dto.setRepetitionLimit(coupon.getRepetitionLimit());
         return dto;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<ApplicableCouponDTO> findApplicableCoupons(CartDTO cart) {
         log.info("Finding applicable coupons for cart with {} items", cart.getItems().size());
-        List<ApplicableCouponDTO> applicableCoupons = new ArrayList<>();
-        LocalDate now = LocalDate.now();
-
-        // Check cart-wise coupons
-        List<CartWiseCoupon> activeCartWiseCoupons = cartWiseCouponRepository.findAllActiveCoupons(now);
-        for (CartWiseCoupon coupon : activeCartWiseCoupons) {
-            double discount = coupon.calculateDiscount(cart.getTotalValue());
-            if (discount > 0) {
-                ApplicableCouponDTO dto = new ApplicableCouponDTO(
-                    coupon.getId(),
-                    coupon.getCode(),
-                    "CART_WISE",
-                    coupon.getDescription(),
-                    discount
-                );
-                applicableCoupons.add(dto);
-            }
+        // Served from the in-memory snapshot: no transaction and no database round trip.
+        // Identical carts against the same snapshot on the same day reuse the earlier result.
+        CouponSnapshot snapshot = couponCatalog.current();
+        CartView cartView = CartView.of(cart);
+        LocalDate today = LocalDate.now();
+        List<ApplicableCouponDTO> applicableCoupons = applicableCouponsCache.get(snapshot, cartView, today,
+            () -> snapshot.evaluate(cartView, today));
+        log.info("Found {} applicable coupons", applicableCoupons.size());
+        return applicableCoupons;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<List<ApplicableCouponDTO>> findApplicableCoupons(List<CartDTO> carts) {
+        log.info("Finding applicable coupons for a batch of {} carts", carts.size());
+        // Every cart in the batch sees the same snapshot and the same date
+        return cartBatchEvaluator.evaluate(couponCatalog.current(), carts, LocalDate.now());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long streamApplicableCoupons(Iterator<CartDTO> carts, Consumer<List<ApplicableCouponDTO>> results) {
+        // Each cart is evaluated as soon as it is parsed and handed to the writer before the
+        // next one is read, so a result never waits for later carts. A slow client blocks the
+        // writer and with it the reader.
+        long evaluated = 0;
+        while (carts.hasNext()) {
+            CouponSnapshot snapshot = couponCatalog.current();
+            CartView cartView = CartView.of(carts.next());
+            LocalDate today = LocalDate.now();
+            results.accept(applicableCouponsCache.get(snapshot, cartView, today,
+                () -> snapshot.evaluate(cartView, today)));
+            evaluated++;
         }
+        log.info("Streamed applicable coupons for {} carts", evaluated);
+        return evaluated;
+    }
 
-        // Check product-wise coupons
-        List<ProductWiseCoupon> activeProductWiseCoupons = productWiseCouponRepository.findAllActiveCoupons(now);
-        for (ProductWiseCoupon coupon : activeProductWiseCoupons) {
-            double discount = cart.getItems().stream()
-                .filter(item -> item.getProductId().equals(coupon.getProductId()))
-                .mapToDouble(item -> coupon.calculateDiscount(
-                    item.getProductId(),
-                    item.getQuantity(),
-                    item.getPrice()))
-                .sum();
-
-            if (discount > 0) {
-                ApplicableCouponDTO dto = new ApplicableCouponDTO(
-                    coupon.getId(),
-                    coupon.getCode(),
-                    "PRODUCT_WISE",
-                    coupon.getDescription(),
-                    discount
-                );
-                applicableCoupons.add(dto);
-            }
+    /**
+     * Evaluated in memory without a transaction; only a coupon missing from the
+     * snapshot is loaded, in a read-only transaction of its own. The redemption
+     * is counted in memory and written behind.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CouponApplicationResultDTO applyCoupon(Long couponId, CartDTO cart) {
+        log.info("Applying coupon with id: {} to cart", couponId);
+
+        CompiledCoupon rule = findActiveRule(couponId, LocalDate.now(), false);
+        CartView cartView = CartView.of(cart);
+        long discountMinor = rule.calculateDiscount(cartView);
+
+        if (discountMinor == 0) {
+            throw new CouponNotApplicableException("Coupon is not applicable to this cart");
         }
 
-        // Check BxGy coupons
-        List<BxGyCoupon> activeBxGyCoupons = bxGyCouponRepository.findAllActiveCoupons(now);
-        Map<Long, Integer> cartItems = cart.getItems().stream()
-                .collect(Collectors.toMap(
-                    ItemDTO::getProductId,
-                    ItemDTO::getQuantity,
-                    Integer::sum));
-
-        Map<Long, Double> productPrices = cart.getItems().stream()
-                .collect(Collectors.toMap(
-                    ItemDTO::getProductId,
-                    ItemDTO::getPrice,
-                    (existing, replacement) -> existing));
-
-        for (BxGyCoupon coupon : activeBxGyCoupons) {
-            // Check if coupon is applicable first (regardless of discount amount)
-            if (coupon.isApplicable(cartItems)) {
-                double discount = coupon.calculateDiscount(cartItems, productPrices);
-                ApplicableCouponDTO dto = new ApplicableCouponDTO(
-                    coupon.getId(),
-                    coupon.getCode(),
-                    "BXGY",
-                    coupon.getDescription(),
-                    discount // This might be 0 if free product prices are unknown, but coupon is still applicable
-                );
-                applicableCoupons.add(dto);
-            }
+        redeem(rule, cart.getCustomerId());
+
+        return buildApplicationResult(cart, cartView, rule.getCode(), discountMinor);
+    }
+
+    @Override
+    public SignedCodesDTO issueSignedCodes(Long couponId, int count) {
+        if (!signedCouponCodes.isEnabled()) {
+            throw new SignedCodesDisabledException("Signed codes are disabled; set coupons.signed-codes.secret");
+        }
+        if (count < 1 || count > MAX_SIGNED_CODES) {
+            throw new InvalidSignedCodesRequestException("Count must be between 1 and " + MAX_SIGNED_CODES);
         }
+        findCoupon(couponId);
 
-        log.info("Found {} applicable coupons", applicableCoupons.size());
-        return applicableCoupons;
+        log.info("Issuing {} signed codes for coupon {}", count, couponId);
+        List<String> codes = new ArrayList<>(count);
+        for (long serial : signedCodeStore.reserveSerials(count)) {
+            codes.add(signedCouponCodes.sign(couponId, serial));
+        }
+        return new SignedCodesDTO(couponId, codes);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public CouponApplicationResultDTO applyCoupon(Long couponId, CartDTO cart) {
-        log.info("Applying coupon with id: {} to cart", couponId);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CouponApplicationResultDTO applySignedCode(String code, CartDTO cart) {
+        SignedCode signed = signedCouponCodes.verify(code)
+            .orElseThrow(() -> new CouponNotFoundException("Coupon not found with code: " + code));
+        return applySignedCode(signed, code, cart);
+    }
 
-        CouponResponseDTO couponDto = getCouponById(couponId);
+    /**
+     * Resolves the code without a query whenever possible: signed codes by
+     * their signature, active coupons from the catalog snapshot's code index,
+     * and codes that do not exist from the code filter. Only inactive or
+     * expired coupons, coupons newer than the snapshot and filter false
+     * positives are looked up in the database, in a read-only transaction
+     * opened for that lookup alone.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CouponApplicationResultDTO applyCouponCode(String code, CartDTO cart) {
+        Optional<SignedCode> signed = signedCouponCodes.verify(code);
+        if (signed.isPresent()) {
+            return applySignedCode(signed.get(), code, cart);
+        }
+        log.info("Applying coupon with code: {} to cart", code);
+
+        LocalDate today = LocalDate.now();
+        CompiledCoupon rule = couponCatalog.current().findByCode(code);
+        if (rule == null || !rule.isActiveOn(today.toEpochDay())) {
+            requireKnownCode(code);
+            rule = inTransaction(true, status -> compileIfActive(loadCouponByCode(code), today));
+        }
+        CartView cartView = CartView.of(cart);
+        long discountMinor = rule.calculateDiscount(cartView);
 
+        if (discountMinor == 0) {
+            throw new CouponNotApplicableException("Coupon is not applicable to this cart");
+        }
+
+        redeem(rule, cart.getCustomerId());
+
+        return buildApplicationResult(cart, cartView, rule.getCode(), discountMinor);
+    }
+
+    /**
+     * Forged and malformed codes are rejected from the signature alone, and the
+     * template normally comes from the catalog snapshot, so only a successful
+     * redemption reaches the database. Its transaction, the only one opened
+     * here, records the serial as used; if a limit check fails afterwards it
+     * rolls that back.
+     */
+    private CouponApplicationResultDTO applySignedCode(SignedCode signed, String code, CartDTO cart) {
+        log.info("Applying signed code for coupon {} serial {} to cart", signed.getCouponId(), signed.getSerial());
+
+        CompiledCoupon rule = findActiveRule(signed.getCouponId(), LocalDate.now(), true);
+        CartView cartView = CartView.of(cart);
+        long discountMinor = rule.calculateDiscount(cartView);
+
+        if (discountMinor == 0) {
+            throw new CouponNotApplicableException("Coupon is not applicable to this cart");
+        }
+        inTransaction(false, status -> {
+            if (!signedCodeStore.markRedeemed(signed.getCouponId(), signed.getSerial())) {
+                throw new CouponNotApplicableException("Coupon code has already been used");
+            }
+            redeem(rule, cart.getCustomerId());
+            return null;
+        });
+
+        return buildApplicationResult(cart, cartView, code.toUpperCase(Locale.ROOT), discountMinor);
+    }
+
+    /**
+     * Active coupons are already compiled in the catalog snapshot; only the
+     * rest (expiring today, inactive, code-only or newer than the snapshot)
+     * are loaded. Code-only coupons are refused unless a code was presented.
+     */
+    private CompiledCoupon findActiveRule(Long couponId, LocalDate today, boolean byCode) {
+        CompiledCoupon rule = couponCatalog.current().find(couponId);
+        if (rule == null || !rule.isActiveOn(today.toEpochDay())) {
+            // Read-only, and open only while the coupon and its product maps load
+            rule = inTransaction(true, status -> {
+                CouponEntity coupon = findCoupon(couponId);
+                if (!byCode && Boolean.TRUE.equals(coupon.getCodeOnly())) {
+                    throw new CouponNotApplicableException("Coupon can only be redeemed with its code");
+                }
+                return compileIfActive(coupon, today);
+            });
+        }
+        return rule;
+    }
+
+    // For the steps of a non-transactional method that need a transaction
+    private <T> T inTransaction(boolean readOnly, TransactionCallback<T> action) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(action);
+    }
+
+    private static CompiledCoupon compileIfActive(CouponEntity coupon, LocalDate today) {
         // Verify coupon is active and not expired
-        if (!couponDto.getIsActive() || couponDto.getExpirationDate().isBefore(LocalDate.now())) {
+        if (!coupon.getIsActive() || coupon.getExpirationDate().isBefore(today)) {
             throw new CouponNotApplicableException("Coupon is inactive or expired");
         }
+        return CompiledCoupon.compile(coupon);
+    }
 
-        double discountAmount = calculateDiscountForCoupon(couponDto, cart);
+    private Coupon findCouponByCode(String code) {
+        requireKnownCode(code);
+        return loadCouponByCode(code);
+    }
 
-        if (discountAmount == 0) {
-            throw new CouponNotApplicableException("Coupon is not applicable to this cart");
+    // Codes the filter has never seen are rejected without a query
+    private void requireKnownCode(String code) {
+        if (!couponCodeFilter.mightContain(code)) {
+            throw new CouponNotFoundException("Coupon not found with code: " + code);
+        }
+    }
+
+    private Coupon loadCouponByCode(String code) {
+        return couponRepository.findByCode(code)
+            .orElseThrow(() -> new CouponNotFoundException("Coupon not found with code: " + code));
+    }
+
+    /**
+     * Records the redemption against the per-customer and global limits. Both
+     * are counted in memory and written behind; see {@link RedemptionCounters}
+     * and {@link CustomerRedemptionLedger} for how far a limit can be overshot.
+     */
+    private void redeem(CompiledCoupon rule, Long customerId) {
+        boolean limitedPerCustomer = rule.getPerCustomerLimit() != CompiledCoupon.UNLIMITED;
+        if (limitedPerCustomer) {
+            if (customerId == null) {
+                throw new CouponNotApplicableException("Coupon requires a customer id");
+            }
+            if (!customerRedemptionLedger.tryRedeem(rule.getId(), customerId, rule.getPerCustomerLimit())) {
+                throw new CouponNotApplicableException("Coupon usage limit reached for this customer");
+            }
+        }
+        if (!redemptionCounters.tryRedeem(rule.getId(), rule.getUsageLimit())) {
+            if (limitedPerCustomer) {
+                customerRedemptionLedger.release(rule.getId(), customerId);
+            }
+            throw new CouponNotApplicableException("Coupon usage limit reached");
+        }
+    }
+
+    /**
+     * Whether {@link #redeem} would currently accept the coupon for this
+     * customer, judged from held counts only so choosing among many
+     * candidates runs no query. Counts that are not held are taken as below
+     * the limit; {@link #redeem} loads them and makes the final check.
+     */
+    private boolean canRedeem(CompiledCoupon rule, Long customerId) {
+        long perCustomerLimit = rule.getPerCustomerLimit();
+        if (perCustomerLimit != CompiledCoupon.UNLIMITED
+                && (customerId == null || customerRedemptionLedger.isKnownAtLimit(rule.getId(), customerId, perCustomerLimit))) {
+            return false;
+        }
+        return !redemptionCounters.isKnownAtLimit(rule.getId(), rule.getUsageLimit());
+    }
+
+    /**
+     * Picks the highest discount among the coupons the customer can still
+     * redeem and records the redemption like {@link #applyCoupon}. A coupon
+     * the redemption finds at its limit, because it was not held when chosen
+     * or was used up meanwhile, is skipped in favour of the next best one.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CouponApplicationResultDTO applyBestCoupon(CartDTO cart) {
+        log.info("Applying best coupon to cart with {} items", cart.getItems().size());
+
+        Long customerId = cart.getCustomerId();
+        CartView cartView = CartView.of(cart);
+        CouponSnapshot snapshot = couponCatalog.current();
+        LocalDate today = LocalDate.now();
+        Set<Long> rejected = new HashSet<>();
+        while (true) {
+            CouponMatch best = snapshot.best(cartView, today,
+                rule -> !rejected.contains(rule.getId()) && canRedeem(rule, customerId));
+            if (best == null) {
+                throw new CouponNotApplicableException("No coupon is applicable to this cart");
+            }
+            try {
+                redeem(snapshot.find(best.getCouponId()), customerId);
+            } catch (CouponNotApplicableException ex) {
+                log.info("Best coupon {} could not be redeemed, trying the next one: {}", best.getCode(), ex.getMessage());
+                rejected.add(best.getCouponId());
+                continue;
+            }
+            return buildApplicationResult(cart, cartView, best.getCode(), best.getDiscountMinor());
         }
+    }
 
-        double originalTotal = cart.getTotalValue();
-        double finalTotal = Math.max(0, originalTotal - discountAmount);
+    private CouponApplicationResultDTO buildApplicationResult(CartDTO cart, CartView cartView,
+                                                              String couponCode, long discountMinor) {
+        double originalTotal = cartView.getTotalValue();
+        double discountAmount = Money.toMajor(discountMinor);
+        double finalTotal = Money.toMajor(Math.max(0, cartView.getTotalMinor() - discountMinor));
 
         CouponApplicationResultDTO result = new CouponApplicationResultDTO();
         result.setUpdatedItems(new ArrayList<>(cart.getItems()));
         result.setOriginalTotal(originalTotal);
         result.setDiscountAmount(discountAmount);
         result.setFinalTotal(finalTotal);
-        result.setAppliedCouponCode(couponDto.getCode());
+        result.setAppliedCouponCode(couponCode);
         result.setMessage("Coupon applied successfully");
 
-        log.info("Coupon applied. Original: {}, Discount: {}, Final: {}",
-                originalTotal, discountAmount, finalTotal);
+        log.info("Coupon {} applied. Original: {}, Discount: {}, Final: {}",
+                couponCode, originalTotal, discountAmount, finalTotal);
 
         return result;
     }
-
-    private double calculateDiscountForCoupon(CouponResponseDTO couponDto, CartDTO cart) {
-        return switch (couponDto.getType()) {
-            case "CART_WISE" -> {
-                if (cart.getTotalValue() >= couponDto.getThreshold()) {
-                    yield cart.getTotalValue() * (couponDto.getDiscountPercentage() / 100.0);
-                }
-                yield 0.0;
-            }
-            case "PRODUCT_WISE" -> cart.getItems().stream()
-                .filter(item -> item.getProductId().equals(couponDto.getProductId()))
-                .mapToDouble(item -> (item.getQuantity() * item.getPrice()) * (couponDto.getDiscountPercentage() / 100.0))
-                .sum();
-            case "BXGY" -> {
-                // For BXGY, we need to get the actual coupon entity
-                Optional<BxGyCoupon> bxGyCoupon = bxGyCouponRepository.findById(couponDto.getId());
-                if (bxGyCoupon.isPresent()) {
-                    Map<Long, Integer> cartItems = cart.getItems().stream()
-                            .collect(Collectors.toMap(
-                                ItemDTO::getProductId,
-                                ItemDTO::getQuantity,
-                                Integer::sum));
-
-                    Map<Long, Double> productPrices = cart.getItems().stream()
-                            .collect(Collectors.toMap(
-                                ItemDTO::getProductId,
-                                ItemDTO::getPrice,
-                                (existing, replacement) -> existing));
-
-                    yield bxGyCoupon.get().calculateDiscount(cartItems, productPrices);
-                }
-                yield 0.0;
-            }
-            default -> 0.0;
-        };
-    }
 }
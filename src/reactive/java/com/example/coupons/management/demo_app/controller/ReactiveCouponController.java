@@ -0,0 +1,108 @@
+package com.example.coupons.management.demo_app.controller;
+
+import com.example.coupons.management.demo_app.catalog.CouponCatalog;
+import com.example.coupons.management.demo_app.dto.*;
+import com.example.coupons.management.demo_app.service.CouponService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of the evaluation endpoints of {@link CouponController},
+ * served instead of it when the application runs as a reactive web app (the
+ * {@code reactive} profile). Paths, request bodies and results are the same,
+ * and all discount logic stays in {@link CouponService}.
+ * <p>
+ * Finding applicable coupons only reads the in-memory catalog, so it runs on
+ * the event loop once the catalog has been built; until then the first load
+ * is a blocking query. Applying a coupon, including the best one, records the
+ * redemption, which loads a customer's persisted count over JDBC on a miss,
+ * and lookups by id or code can fall back to JPA, so these are moved to the
+ * bounded elastic scheduler. Coupon management endpoints are only served by
+ * the servlet stack.
+ */
+@RestController
+@RequestMapping("/coupons")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCouponController {
+
+    private final CouponService couponService;
+    private final CouponCatalog couponCatalog;
+
+    @PostMapping("/applicable-coupons")
+    public Mono<List<ApplicableCouponDTO>> getApplicableCoupons(@Valid @RequestBody Mono<CartDTO> cart) {
+        return evaluate(cart).map(couponService::findApplicableCoupons);
+    }
+
+    // Evaluated cart by cart on the event loop rather than on the batch evaluator's pool
+    @PostMapping("/applicable-coupons/batch")
+    public Mono<List<List<ApplicableCouponDTO>>> getApplicableCouponsBatch(@Valid @RequestBody Flux<CartDTO> carts) {
+        return evaluate(carts).map(couponService::findApplicableCoupons).collectList();
+    }
+
+    /**
+     * One line of applicable coupons per newline-delimited cart, in input
+     * order. Carts are read only as fast as the client takes the results.
+     */
+    @PostMapping(value = "/applicable-coupons/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<List<ApplicableCouponDTO>> streamApplicableCoupons(@Valid @RequestBody Flux<CartDTO> carts) {
+        return evaluate(carts).map(couponService::findApplicableCoupons);
+    }
+
+    @PostMapping("/apply-best")
+    public Mono<CouponApplicationResultDTO> applyBestCoupon(@Valid @RequestBody Mono<CartDTO> cart) {
+        return cart.publishOn(Schedulers.boundedElastic())
+            .map(couponService::applyBestCoupon);
+    }
+
+    @PostMapping("/apply-coupon/{id}")
+    public Mono<CouponApplicationResultDTO> applyCoupon(@PathVariable Long id, @Valid @RequestBody Mono<CartDTO> cart) {
+        return cart.publishOn(Schedulers.boundedElastic())
+            .map(body -> couponService.applyCoupon(id, body));
+    }
+
+    @PostMapping("/apply-code/{code}")
+    public Mono<CouponApplicationResultDTO> applyCouponCode(@PathVariable String code,
+                                                            @Valid @RequestBody Mono<CartDTO> cart) {
+        return cart.publishOn(Schedulers.boundedElastic())
+            .map(body -> couponService.applyCouponCode(code, body));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<CouponResponseDTO> getCouponById(@PathVariable Long id) {
+        return Mono.fromCallable(() -> couponService.getCouponById(id))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/code/{code}")
+    public Mono<CouponResponseDTO> getCouponByCode(@PathVariable String code) {
+        return Mono.fromCallable(() -> couponService.getCouponByCode(code))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/cache-stats")
+    public Mono<Map<String, CacheStatsDTO>> getCacheStats() {
+        return Mono.fromSupplier(couponService::getCacheStats);
+    }
+
+    private Mono<CartDTO> evaluate(Mono<CartDTO> cart) {
+        return couponCatalog.isLoaded() ? cart : cart.publishOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<CartDTO> evaluate(Flux<CartDTO> carts) {
+        return couponCatalog.isLoaded() ? carts : carts.publishOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.coupons.management.demo_app.exception;
+
+import com.example.coupons.management.demo_app.exception.GlobalExceptionHandler.ErrorResponse;
+import com.example.coupons.management.demo_app.exception.GlobalExceptionHandler.ValidationErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link GlobalExceptionHandler}, with the same
+ * statuses and response bodies.
+ */
+@ControllerAdvice
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(CouponNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleCouponNotFoundException(
+            CouponNotFoundException ex, ServerWebExchange exchange) {
+        log.error("Coupon not found: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "Coupon Not Found", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(CouponNotApplicableException.class)
+    public ResponseEntity<ErrorResponse> handleCouponNotApplicableException(
+            CouponNotApplicableException ex, ServerWebExchange exchange) {
+        log.error("Coupon not applicable: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Coupon Not Applicable", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(
+            WebExchangeBindException ex, ServerWebExchange exchange) {
+        log.error("Validation error: {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errors.put(fieldName, errorMessage);
+        });
+
+        ValidationErrorResponse errorResponse = new ValidationErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Validation Failed",
+            "Request validation failed",
+            LocalDateTime.now(),
+            path(exchange),
+            errors
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(
+            Exception ex, ServerWebExchange exchange) {
+        log.error("Unexpected error: {}", ex.getMessage(), ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "An unexpected error occurred", exchange);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String error, String message,
+                                                       ServerWebExchange exchange) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            status.value(),
+            error,
+            message,
+            LocalDateTime.now(),
+            path(exchange)
+        );
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
+    // Same form as WebRequest.getDescription(false) on the servlet stack
+    private static String path(ServerWebExchange exchange) {
+        return "uri=" + exchange.getRequest().getPath().value();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.coupons.management.demo_app;
+
+import com.example.coupons.management.demo_app.controller.CouponController;
+import com.example.coupons.management.demo_app.controller.ReactiveCouponController;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"spring.datasource.url=jdbc:h2:mem:reactive;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS coupons",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"spring.jpa.show-sql=false"
+})
+@ActiveProfiles("reactive")
+class ReactiveApplicationTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	@DisplayName("Reactive profile serves evaluation endpoints from the WebFlux controller")
+	void reactiveProfileServesEvaluationEndpoints() {
+		assertThat(context.getBeansOfType(ReactiveCouponController.class)).hasSize(1);
+		assertThat(context.getBeansOfType(CouponController.class)).isEmpty();
+
+		webTestClient.post().uri("/coupons/applicable-coupons")
+			.contentType(MediaType.APPLICATION_JSON)
+			.bodyValue("{\"items\":[{\"productId\":1,\"quantity\":2,\"price\":50}]}")
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody().jsonPath("$").isArray();
+	}
+
+	@Test
+	@DisplayName("Reactive profile maps service exceptions like the servlet stack")
+	void reactiveProfileMapsNotFound() {
+		webTestClient.get().uri("/coupons/{id}", Long.MAX_VALUE)
+			.exchange()
+			.expectStatus().isNotFound()
+			.expectBody().jsonPath("$.error").isEqualTo("Coupon Not Found");
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.coupons.management.demo_app;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"spring.datasource.url=jdbc:h2:mem:streaming;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS coupons",
+	"spring.datasource.driver-class-name=org.h2.Driver",
+	"spring.datasource.username=sa",
+	"spring.datasource.password=",
+	"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"spring.jpa.show-sql=false"
+})
+class StreamingApplicationTests {
+
+	private static final String CART = "{\"items\":[{\"productId\":1,\"quantity\":2,\"price\":50}]}\n";
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	@DisplayName("Streams the result of a cart while the client is still sending the request body")
+	void streamsFirstResultBeforeRequestBodyEnds() throws Exception {
+		try (Socket socket = new Socket("localhost", port)) {
+			socket.setSoTimeout(10_000);
+			OutputStream out = socket.getOutputStream();
+			BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+			// Given: the request headers and a single cart, with the body left open
+			out.write(("POST /coupons/applicable-coupons/stream HTTP/1.1\r\n"
+				+ "Host: localhost\r\n"
+				+ "Content-Type: application/x-ndjson\r\n"
+				+ "Transfer-Encoding: chunked\r\n"
+				+ "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+			writeChunk(out, CART);
+
+			// When & Then: its result arrives before the body is closed
+			assertThat(in.readLine()).startsWith("HTTP/1.1 200");
+			assertThat(readNextResult(in)).isEqualTo("[]");
+
+			// And the stream carries on with the next cart
+			writeChunk(out, CART);
+			out.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+			out.flush();
+			assertThat(readNextResult(in)).isEqualTo("[]");
+		}
+	}
+
+	private static void writeChunk(OutputStream out, String data) throws Exception {
+		byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+		out.write((Integer.toHexString(bytes.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.write(bytes);
+		out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+	}
+
+	// Skips headers and chunk-size lines up to the next NDJSON result
+	private static String readNextResult(BufferedReader in) throws Exception {
+		String line;
+		while ((line = in.readLine()) != null) {
+			if (line.startsWith("[")) {
+				return line;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.dto.ApplicableCouponDTO;
+import com.example.coupons.management.demo_app.dto.ItemDTO;
+import com.example.coupons.management.demo_app.model.CartView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ApplicableCouponsCache Tests")
+class ApplicableCouponsCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    private ApplicableCouponsCache cache;
+    private AtomicInteger evaluations;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ApplicableCouponsCache(100);
+        evaluations = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should share one entry between carts with the same canonical form")
+    void testCanonicalCartsShareEntry() {
+        // Given
+        CartView cart = CartView.of(List.of(new ItemDTO(1L, 3, 10.0), new ItemDTO(2L, 1, 5.0)));
+        CartView equivalent = CartView.of(List.of(
+            new ItemDTO(2L, 1, 5.0), new ItemDTO(1L, 1, 10.0), new ItemDTO(1L, 2, 10.0)));
+
+        // When
+        cache.get(snapshot(1L), cart, TODAY, this::evaluate);
+        cache.get(snapshot(1L), equivalent, TODAY, this::evaluate);
+
+        // Then
+        assertEquals(1, evaluations.get());
+        assertEquals(1, cache.stats().getHitCount());
+    }
+
+    @Test
+    @DisplayName("Should re-evaluate when quantities or prices differ")
+    void testDifferentCartsMiss() {
+        // When
+        cache.get(snapshot(1L), CartView.of(List.of(new ItemDTO(1L, 3, 10.0))), TODAY, this::evaluate);
+        cache.get(snapshot(1L), CartView.of(List.of(new ItemDTO(1L, 4, 10.0))), TODAY, this::evaluate);
+        cache.get(snapshot(1L), CartView.of(List.of(new ItemDTO(1L, 3, 11.0))), TODAY, this::evaluate);
+
+        // Then
+        assertEquals(3, evaluations.get());
+    }
+
+    @Test
+    @DisplayName("Should drop old entries on a new catalog version and miss on a new day")
+    void testVersionAndDayInvalidate() {
+        // Given
+        CartView cart = CartView.of(List.of(new ItemDTO(1L, 3, 10.0)));
+        cache.get(snapshot(1L), cart, TODAY, this::evaluate);
+
+        // When
+        cache.get(snapshot(1L), cart, TODAY.plusDays(1), this::evaluate);
+        cache.get(snapshot(2L), cart, TODAY, this::evaluate);
+
+        // Then
+        assertEquals(3, evaluations.get());
+        assertEquals(1, cache.stats().getSize());
+    }
+
+    @Test
+    @DisplayName("Should hand out copies that callers cannot change for each other")
+    void testReturnsCopies() {
+        // Given
+        CartView cart = CartView.of(List.of(new ItemDTO(1L, 3, 10.0)));
+        List<ApplicableCouponDTO> first = cache.get(snapshot(1L), cart, TODAY,
+            () -> List.of(new ApplicableCouponDTO(7L, "CART10", "CART_WISE", "10% off", 3.0)));
+
+        // When
+        first.get(0).setDiscountAmount(0.0);
+        List<ApplicableCouponDTO> second = cache.get(snapshot(1L), cart, TODAY, this::evaluate);
+
+        // Then
+        assertEquals(0, evaluations.get());
+        assertEquals(3.0, second.get(0).getDiscountAmount());
+        assertNotSame(first.get(0), second.get(0));
+    }
+
+    private List<ApplicableCouponDTO> evaluate() {
+        evaluations.incrementAndGet();
+        return List.of();
+    }
+
+    private static CouponSnapshot snapshot(long version) {
+        return CouponSnapshot.compile(version, TODAY, List.of(), List.of(), List.of());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.dto.ApplicableCouponDTO;
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.dto.ItemDTO;
+import com.example.coupons.management.demo_app.model.CartWiseCoupon;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CartBatchEvaluator Tests")
+class CartBatchEvaluatorTest {
+
+    private CartBatchEvaluator evaluator;
+    private CouponSnapshot snapshot;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        CartWiseCoupon coupon = new CartWiseCoupon();
+        coupon.setId(1L);
+        coupon.setCode("CART10");
+        coupon.setExpirationDate(today.plusDays(30));
+        coupon.setThreshold(new BigDecimal("100.00"));
+        coupon.setDiscountPercentage(new BigDecimal("10.00"));
+        snapshot = CouponSnapshot.compile(1L, today, List.of(coupon), List.of(), List.of());
+        evaluator = new CartBatchEvaluator(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        evaluator.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return results in input order")
+    void testResultsInInputOrder() {
+        // Given: carts worth 1.00, 2.00, ... 500.00
+        List<CartDTO> carts = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            carts.add(new CartDTO(List.of(new ItemDTO((long) i, 1, (double) i))));
+        }
+
+        // When
+        List<List<ApplicableCouponDTO>> results = evaluator.evaluate(snapshot, carts, today);
+
+        // Then
+        assertEquals(500, results.size());
+        for (int i = 1; i <= 500; i++) {
+            List<ApplicableCouponDTO> result = results.get(i - 1);
+            if (i < 100) {
+                assertTrue(result.isEmpty(), "cart " + i);
+            } else {
+                assertEquals(i / 10.0, result.get(0).getDiscountAmount(), 0.001, "cart " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle empty and single-cart batches")
+    void testSmallBatches() {
+        // When & Then
+        assertTrue(evaluator.evaluate(snapshot, List.of(), today).isEmpty());
+        List<List<ApplicableCouponDTO>> single = evaluator.evaluate(snapshot,
+            List.of(new CartDTO(List.of(new ItemDTO(1L, 2, 100.0)))), today);
+        assertEquals(1, single.size());
+        assertEquals(20.0, single.get(0).get(0).getDiscountAmount(), 0.001);
+    }
+}
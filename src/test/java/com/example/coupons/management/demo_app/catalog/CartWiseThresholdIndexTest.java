@@ -0,0 +1,79 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CartWiseThresholdIndex Tests")
+class CartWiseThresholdIndexTest {
+
+    private long today;
+    private CartWiseThresholdIndex index;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now().toEpochDay();
+        index = new CartWiseThresholdIndex(List.of(
+            coupon(1L, 50_000, 1500, today + 30),
+            coupon(2L, 10_000, 1000, today + 30),
+            coupon(3L, 20_000, 2000, today + 30),
+            coupon(4L, 20_000, 500, today + 30)
+        ));
+    }
+
+    @Test
+    @DisplayName("Should sort coupons by threshold")
+    void testSortedByThreshold() {
+        assertEquals(10_000, index.get(0).getThresholdMinor());
+        assertEquals(50_000, index.get(3).getThresholdMinor());
+    }
+
+    @Test
+    @DisplayName("Should find the qualifying prefix including equal thresholds")
+    void testQualifyingCount() {
+        assertEquals(0, index.qualifyingCount(9_999));
+        assertEquals(1, index.qualifyingCount(10_000));
+        assertEquals(1, index.qualifyingCount(19_900));
+        assertEquals(3, index.qualifyingCount(20_000));
+        assertEquals(4, index.qualifyingCount(1_000_000));
+    }
+
+    @Test
+    @DisplayName("Should return the best multiplier within the qualifying prefix")
+    void testBest() {
+        assertNull(index.best(5_000, today));
+        assertEquals(2L, index.best(15_000, today).getId());
+        assertEquals(3L, index.best(25_000, today).getId());
+        assertEquals(3L, index.best(60_000, today).getId()); // 20% beats the 15% tier above it
+    }
+
+    @Test
+    @DisplayName("Should skip an expired best coupon")
+    void testBestSkipsExpiredCoupon() {
+        // Given
+        CartWiseThresholdIndex withExpired = new CartWiseThresholdIndex(List.of(
+            coupon(1L, 10_000, 1000, today + 30),
+            coupon(2L, 20_000, 2000, today)
+        ));
+
+        // When & Then
+        assertEquals(1L, withExpired.best(25_000, today).getId());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the best eligible coupon in the prefix")
+    void testBestSkipsIneligibleCoupon() {
+        assertEquals(1L, index.best(60_000, today, coupon -> coupon.getId() != 3L).getId()); // 15% once the 20% tier is out
+        assertNull(index.best(15_000, today, coupon -> false));
+    }
+
+    private CompiledCartWiseCoupon coupon(long id, long thresholdMinor, int basisPoints, long expiresOnEpochDay) {
+        return new CompiledCartWiseCoupon(id, "CART" + id, null, expiresOnEpochDay, thresholdMinor, basisPoints,
+            CompiledCoupon.UNLIMITED, CompiledCoupon.UNLIMITED);
+    }
+}
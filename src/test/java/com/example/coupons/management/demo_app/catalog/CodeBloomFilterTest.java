@@ -0,0 +1,46 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CodeBloomFilter Tests")
+class CodeBloomFilterTest {
+
+    private static final int CODES = 20_000;
+
+    @Test
+    @DisplayName("Should report every added code and few others at the configured rate")
+    void testFalsePositiveRate() {
+        // Given
+        CodeBloomFilter filter = new CodeBloomFilter(CODES, 0.01);
+        for (int i = 0; i < CODES; i++) {
+            filter.add("CODE" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < CODES; i++) {
+            assertTrue(filter.mightContain("CODE" + i));
+            if (filter.mightContain("GUESS" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then - 1% expected; allow for variance
+        assertTrue(falsePositives < CODES * 0.02, "false positives: " + falsePositives);
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    @DisplayName("Should report nothing while empty")
+    void testEmpty() {
+        // Given
+        CodeBloomFilter filter = new CodeBloomFilter(0, 0.01);
+
+        // Then
+        assertFalse(filter.mightContain("CART10"));
+        assertEquals(64, filter.bitSize());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.dto.ItemDTO;
+import com.example.coupons.management.demo_app.model.BxGyCoupon;
+import com.example.coupons.management.demo_app.model.CartView;
+import com.example.coupons.management.demo_app.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompiledBxGyCoupon Tests")
+class CompiledBxGyCouponTest {
+
+    private BxGyCoupon bxGyCoupon;
+    private CompiledBxGyCoupon compiled;
+
+    @BeforeEach
+    void setUp() {
+        bxGyCoupon = new BxGyCoupon();
+        bxGyCoupon.setId(1L);
+        bxGyCoupon.setCode("BUY2GET1");
+        bxGyCoupon.setExpirationDate(LocalDate.now().plusDays(30));
+        bxGyCoupon.setBuyProducts(Map.of(202L, 1, 201L, 2));
+        bxGyCoupon.setGetProducts(Map.of(301L, 1, 302L, 2));
+        bxGyCoupon.setRepetitionLimit(2);
+        compiled = CompiledBxGyCoupon.compile(bxGyCoupon);
+    }
+
+    @Test
+    @DisplayName("Should sum free quantities and anchor on the smallest buy product")
+    void testCompile() {
+        assertEquals(3, compiled.getTotalFreeQuantity());
+        assertEquals(201L, compiled.anchorProductId());
+        assertArrayEquals(new long[]{201L, 202L}, compiled.buyProductIds());
+    }
+
+    @Test
+    @DisplayName("Should match the entity evaluation for an applicable cart")
+    void testEvaluateMatchesEntity() {
+        // Given
+        CartView cart = CartView.of(List.of(
+            new ItemDTO(201L, 5, 25.0),
+            new ItemDTO(202L, 3, 10.0)
+        ));
+
+        // When & Then
+        assertEquals(bxGyCoupon.calculateApplicableTimes(cart), compiled.calculateApplicableTimes(cart));
+        assertEquals(6000L, compiled.evaluate(cart)); // 2 * 3 * 10.00
+        assertEquals(bxGyCoupon.calculateDiscount(cart), Money.toMajor(compiled.evaluate(cart)));
+    }
+
+    @Test
+    @DisplayName("Should report a short buy product as not applicable")
+    void testEvaluateNotApplicable() {
+        // Given
+        CartView cart = CartView.of(List.of(
+            new ItemDTO(201L, 1, 25.0),
+            new ItemDTO(202L, 3, 10.0)
+        ));
+
+        // When & Then
+        assertEquals(CompiledBxGyCoupon.NOT_APPLICABLE, compiled.evaluate(cart));
+        assertEquals(0, compiled.calculateApplicableTimes(cart));
+    }
+
+    @Test
+    @DisplayName("Should return 0 discount when buy products have no price")
+    void testEvaluateWithoutPrices() {
+        // Given
+        CartView cart = CartView.of(List.of(
+            new ItemDTO(201L, 2, 0.0),
+            new ItemDTO(202L, 1, 0.0)
+        ));
+
+        // When & Then
+        assertEquals(0L, compiled.evaluate(cart));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.CartWiseCoupon;
+import com.example.coupons.management.demo_app.model.CouponType;
+import com.example.coupons.management.demo_app.repository.BxGyCouponRepository;
+import com.example.coupons.management.demo_app.repository.CartWiseCouponRepository;
+import com.example.coupons.management.demo_app.repository.ProductWiseCouponRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CouponCatalog Tests")
+class CouponCatalogTest {
+
+    private CartWiseCouponRepository cartWiseCouponRepository;
+    private ProductWiseCouponRepository productWiseCouponRepository;
+    private BxGyCouponRepository bxGyCouponRepository;
+    private CouponCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        cartWiseCouponRepository = mock(CartWiseCouponRepository.class);
+        productWiseCouponRepository = mock(ProductWiseCouponRepository.class);
+        bxGyCouponRepository = mock(BxGyCouponRepository.class);
+        catalog = new CouponCatalog(cartWiseCouponRepository, productWiseCouponRepository, bxGyCouponRepository,
+            mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should load the initial snapshot once for concurrent first callers")
+    void testInitialLoadRunsOnce() throws Exception {
+        // Given - a slow first load
+        CountDownLatch loading = new CountDownLatch(1);
+        when(cartWiseCouponRepository.findAllActiveCoupons(any())).thenAnswer(invocation -> {
+            loading.countDown();
+            TimeUnit.MILLISECONDS.sleep(200);
+            return List.of();
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        try {
+            // When
+            List<Future<CouponSnapshot>> snapshots = new ArrayList<>();
+            snapshots.add(callers.submit(catalog::current));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                snapshots.add(callers.submit(catalog::current));
+            }
+
+            // Then
+            CouponSnapshot first = snapshots.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<CouponSnapshot> snapshot : snapshots) {
+                assertSame(first, snapshot.get(5, TimeUnit.SECONDS));
+            }
+            verify(cartWiseCouponRepository, times(1)).findAllActiveCoupons(any());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should give every snapshot a distinct version")
+    void testVersionsAreUnique() {
+        // Given
+        when(cartWiseCouponRepository.findAllActiveCoupons(any())).thenReturn(List.of());
+        Set<Long> versions = new HashSet<>();
+        versions.add(catalog.current().getVersion());
+
+        // When - coupons are added one by one
+        for (long id = 1; id <= 5; id++) {
+            catalog.onCouponCatalogChanged(new CouponCatalogChangedEvent(coupon(id)));
+            versions.add(catalog.current().getVersion());
+        }
+
+        // Then
+        assertEquals(6, versions.size());
+    }
+
+    @Test
+    @DisplayName("Should keep a coupon added while a rebuild was querying")
+    void testRebuildDoesNotOverwriteNewerSnapshot() throws Exception {
+        // Given - the second query started before the coupon was committed
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch added = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        when(cartWiseCouponRepository.findAllActiveCoupons(any())).thenAnswer(invocation -> {
+            int query = queries.incrementAndGet();
+            if (query == 1) {
+                return List.of();
+            }
+            if (query == 2) {
+                querying.countDown();
+                assertTrue(added.await(5, TimeUnit.SECONDS));
+                return List.of();
+            }
+            return List.of(coupon(1));
+        });
+        catalog.current();
+        ExecutorService rebuilder = Executors.newSingleThreadExecutor();
+
+        try {
+            // When
+            Future<CouponSnapshot> rebuild = rebuilder.submit(catalog::rebuildNow);
+            assertTrue(querying.await(5, TimeUnit.SECONDS));
+            catalog.onCouponCatalogChanged(new CouponCatalogChangedEvent(coupon(1)));
+            added.countDown();
+
+            // Then
+            CouponSnapshot installed = rebuild.get(5, TimeUnit.SECONDS);
+            assertNotNull(installed.find(1));
+            assertNotNull(catalog.current().find(1));
+        } finally {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    private static CartWiseCoupon coupon(long id) {
+        return new CartWiseCoupon(id, "CART" + id, LocalDate.now().plusDays(30), true, null, CouponType.CART_WISE,
+            new BigDecimal("100.00"), new BigDecimal("10.00"));
+    }
+}
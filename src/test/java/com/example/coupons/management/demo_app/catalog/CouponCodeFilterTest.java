@@ -0,0 +1,104 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.model.CouponType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:codefilter;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS coupons",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("CouponCodeFilter Tests")
+class CouponCodeFilterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CouponCodeFilter couponCodeFilter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS coupons.coupon (id BIGINT PRIMARY KEY, code VARCHAR(255) NOT NULL, " +
+            "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO coupons.coupon (id, code) VALUES (1, 'CART10'), (2, 'PROD20')");
+        couponCodeFilter = new CouponCodeFilter(jdbcTemplate, transactionManager, 0.01);
+    }
+
+    @Test
+    @DisplayName("Should treat every code as possibly present until built")
+    void testNotLoaded() {
+        // Then
+        assertFalse(couponCodeFilter.isLoaded());
+        assertTrue(couponCodeFilter.mightContain("NOPE"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown codes once built from the database")
+    void testRebuild() {
+        // When
+        couponCodeFilter.rebuild();
+
+        // Then
+        assertTrue(couponCodeFilter.isLoaded());
+        assertTrue(couponCodeFilter.mightContain("CART10"));
+        assertTrue(couponCodeFilter.mightContain("PROD20"));
+        assertFalse(couponCodeFilter.mightContain("NOPE"));
+    }
+
+    @Test
+    @DisplayName("Should add codes of coupons created after the build")
+    void testBulkCreated() {
+        // Given
+        couponCodeFilter.rebuild();
+
+        // When
+        couponCodeFilter.onCouponsBulkCreated(new CouponsBulkCreatedEvent(
+            CouponType.CART_WISE, List.of(3L), List.of("NEW30")));
+
+        // Then
+        assertTrue(couponCodeFilter.mightContain("NEW30"));
+    }
+
+    @Test
+    @DisplayName("Should pick up codes inserted elsewhere after the build")
+    void testSyncCreatedCodes() {
+        // Given - created by another instance, so no event arrives here
+        couponCodeFilter.rebuild();
+        jdbcTemplate.update("INSERT INTO coupons.coupon (id, code) VALUES (3, 'ELSEWHERE40')");
+        assertFalse(couponCodeFilter.mightContain("ELSEWHERE40"));
+
+        // When
+        couponCodeFilter.syncCreatedCodes();
+
+        // Then
+        assertTrue(couponCodeFilter.mightContain("ELSEWHERE40"));
+        assertFalse(couponCodeFilter.mightContain("NOPE"));
+    }
+
+    @Test
+    @DisplayName("Should not sync before the first build")
+    void testSyncBeforeBuild() {
+        // When
+        couponCodeFilter.syncCreatedCodes();
+
+        // Then
+        assertFalse(couponCodeFilter.isLoaded());
+        assertTrue(couponCodeFilter.mightContain("NOPE"));
+    }
+}
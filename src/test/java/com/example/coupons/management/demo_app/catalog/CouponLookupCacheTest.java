@@ -0,0 +1,117 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.dto.CacheStatsDTO;
+import com.example.coupons.management.demo_app.dto.CouponResponseDTO;
+import com.example.coupons.management.demo_app.model.CartWiseCoupon;
+import com.example.coupons.management.demo_app.exception.CouponNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CouponLookupCache Tests")
+class CouponLookupCacheTest {
+
+    private CouponLookupCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CouponLookupCache(100, 60_000);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should load once and record hits and misses")
+    void testHitsAndMisses() {
+        // When
+        cache.getById(1L, this::load);
+        cache.getById(1L, this::load);
+        cache.getById(1L, this::load);
+
+        // Then
+        CacheStatsDTO stats = cache.stats().get("byId");
+        assertEquals(1, loads.get());
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    @DisplayName("Should not cache failed lookups")
+    void testMissesNotCached() {
+        // When & Then
+        for (int i = 0; i < 2; i++) {
+            assertThrows(CouponNotFoundException.class, () -> cache.getById(9L, id -> {
+                loads.incrementAndGet();
+                throw new CouponNotFoundException("Coupon not found with id: " + id);
+            }));
+        }
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should drop entries when the coupon is (re)created")
+    void testInvalidateOnCreate() {
+        // Given
+        cache.getByCode("CODE1", code -> load(1L));
+        CartWiseCoupon created = new CartWiseCoupon();
+        created.setId(1L);
+        created.setCode("CODE1");
+
+        // When
+        cache.onCouponCatalogChanged(new CouponCatalogChangedEvent(created));
+        cache.getByCode("CODE1", code -> load(1L));
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should hand out copies so callers cannot change cached coupons")
+    void testReturnsCopies() {
+        // Given
+        CouponResponseDTO byCode = cache.getByCode("CODE1", code -> load(1L));
+        CouponResponseDTO byId = cache.getById(1L, this::load);
+
+        // When
+        byId.setCode("CHANGED");
+        byCode.setIsActive(false);
+
+        // Then
+        CouponResponseDTO cached = cache.getById(1L, this::load);
+        assertEquals("CODE1", cached.getCode());
+        assertNull(cached.getIsActive());
+        assertEquals("CODE1", cache.getByCode("CODE1", code -> load(1L)).getCode());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should stay within its bound and count evictions")
+    void testBoundedSize() {
+        // Given
+        CouponLookupCache small = new CouponLookupCache(10, 60_000);
+
+        // When
+        for (long id = 1; id <= 100; id++) {
+            small.getById(id, this::load);
+        }
+        small.cleanUp();
+
+        // Then
+        CacheStatsDTO stats = small.stats().get("byId");
+        assertTrue(stats.getSize() <= 10);
+        assertEquals(100 - stats.getSize(), stats.getEvictionCount());
+    }
+
+    private CouponResponseDTO load(Long id) {
+        loads.incrementAndGet();
+        CouponResponseDTO dto = new CouponResponseDTO();
+        dto.setId(id);
+        dto.setCode("CODE" + id);
+        return dto;
+    }
+}
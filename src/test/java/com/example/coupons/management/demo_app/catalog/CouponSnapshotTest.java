@@ -0,0 +1,238 @@
+package com.example.coupons.management.demo_app.catalog;
+
+import com.example.coupons.management.demo_app.dto.ApplicableCouponDTO;
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.dto.ItemDTO;
+import com.example.coupons.management.demo_app.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CouponSnapshot Tests")
+class CouponSnapshotTest {
+
+    private LocalDate today;
+    private CartDTO cart;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now();
+        cart = new CartDTO(List.of(
+            new ItemDTO(201L, 3, 50.0),
+            new ItemDTO(202L, 1, 100.0),
+            new ItemDTO(201L, 1, 50.0)
+        ));
+    }
+
+    @Nested
+    @DisplayName("Product Index Tests")
+    class ProductIndexTests {
+
+        @Test
+        @DisplayName("Should only apply product-wise coupons for products in the cart")
+        void testProductWiseCouponsReachedThroughIndex() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(),
+                List.of(productWise(1L, 201L, "20"), productWise(2L, 999L, "50")),
+                List.of());
+
+            // When
+            List<ApplicableCouponDTO> result = snapshot.evaluate(cart, today);
+
+            // Then
+            assertEquals(1, result.size());
+            assertEquals(1L, result.get(0).getCouponId());
+            assertEquals(40.0, result.get(0).getDiscountAmount(), 0.001); // 20% of (4 * 50) across both lines
+        }
+
+        @Test
+        @DisplayName("Should index BxGy coupons under a single buy product")
+        void testBxGyCouponIndexedUnderAnchorProduct() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(), List.of(),
+                List.of(bxGy(3L, Map.of(201L, 2, 202L, 1))));
+
+            // When
+            List<ApplicableCouponDTO> result = snapshot.evaluate(cart, today);
+
+            // Then
+            assertEquals(1, result.size()); // visited once even though both buy products are in the cart
+            assertEquals(List.of(201L), List.copyOf(snapshot.getBxGyByAnchorProduct().keySet()));
+        }
+
+        @Test
+        @DisplayName("Should not apply BxGy coupon when a buy product is missing")
+        void testBxGyCouponNotAppliedWhenBuyProductMissing() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(), List.of(),
+                List.of(bxGy(3L, Map.of(201L, 2, 203L, 1))));
+
+            // When & Then
+            assertTrue(snapshot.evaluate(cart, today).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should apply BxGy coupon without buy products to every cart")
+        void testUnconditionalBxGyCoupon() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(), List.of(),
+                List.of(bxGy(3L, Map.of())));
+
+            // When
+            List<ApplicableCouponDTO> result = snapshot.evaluate(cart, today);
+
+            // Then
+            assertEquals(1, result.size());
+            assertEquals(0.0, result.get(0).getDiscountAmount(), 0.001); // no priced buy product
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Update Tests")
+    class IncrementalUpdateTests {
+
+        @Test
+        @DisplayName("Should add a created coupon to the product index")
+        void testPlusAddsCouponToIndex() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(), List.of(), List.of());
+
+            // When
+            CouponSnapshot updated = snapshot.plus(2L, productWise(7L, 202L, "10"));
+
+            // Then
+            assertEquals(2L, updated.getVersion());
+            assertEquals(1, updated.size());
+            assertEquals(1, updated.getProductWiseByProduct().get(202L).size());
+            assertTrue(snapshot.getProductWiseByProduct().isEmpty()); // original is untouched
+        }
+
+        @Test
+        @DisplayName("Should ignore inactive coupons")
+        void testPlusIgnoresInactiveCoupon() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(), List.of(), List.of());
+            ProductWiseCoupon inactive = productWise(7L, 202L, "10");
+            inactive.setIsActive(false);
+
+            // When & Then
+            assertSame(snapshot, snapshot.plus(2L, inactive));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookup By Id Tests")
+    class LookupByIdTests {
+
+        @Test
+        @DisplayName("Should find compiled rules of every type by id")
+        void testFind() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(),
+                List.of(productWise(1L, 201L, "20")), List.of(bxGy(3L, Map.of(201L, 2))));
+
+            // When & Then
+            assertEquals(CouponType.PRODUCT_WISE, snapshot.find(1L).getType());
+            assertEquals(4000L, snapshot.find(1L).calculateDiscount(CartView.of(cart)));
+            assertEquals(CouponType.BXGY, snapshot.find(3L).getType());
+            assertNull(snapshot.find(2L));
+        }
+
+        @Test
+        @DisplayName("Should find compiled rules by code across types")
+        void testFindByCode() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(),
+                List.of(productWise(1L, 201L, "20")), List.of(bxGy(3L, Map.of(201L, 2))));
+
+            // When & Then
+            assertEquals(1L, snapshot.findByCode("PROD1").getId());
+            assertEquals(CouponType.BXGY, snapshot.findByCode("BXGY3").getType());
+            assertNull(snapshot.findByCode("PROD3"));
+            assertEquals(2L, snapshot.plus(2L, productWise(2L, 202L, "10")).findByCode("PROD2").getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Best Coupon Tests")
+    class BestCouponTests {
+
+        @Test
+        @DisplayName("Should pick the highest discount across coupon families")
+        void testBestAcrossFamilies() {
+            // Given: cart total 300.00, product 201 lines total 200.00
+            CartWiseCoupon cartWise = new CartWiseCoupon();
+            cartWise.setId(9L);
+            cartWise.setCode("CART10");
+            cartWise.setExpirationDate(today.plusDays(30));
+            cartWise.setThreshold(new BigDecimal("100.00"));
+            cartWise.setDiscountPercentage(new BigDecimal("10.00"));
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(cartWise),
+                List.of(productWise(1L, 201L, "30"), productWise(2L, 202L, "5")),
+                List.of(bxGy(3L, Map.of(201L, 2))));
+
+            // When
+            CouponMatch best = snapshot.best(CartView.of(cart), today);
+
+            // Then
+            assertEquals(1L, best.getCouponId()); // 60.00 beats 30.00, 5.00 and one free 50.00 item
+            assertEquals(CouponType.PRODUCT_WISE, best.getType());
+            assertEquals(6000L, best.getDiscountMinor());
+        }
+
+        @Test
+        @DisplayName("Should skip coupons the eligibility check rejects")
+        void testBestSkipsIneligibleCoupons() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(),
+                List.of(productWise(1L, 201L, "30"), productWise(2L, 201L, "20")), List.of());
+
+            // When
+            CouponMatch best = snapshot.best(CartView.of(cart), today, coupon -> coupon.getId() != 1L);
+
+            // Then
+            assertEquals(2L, best.getCouponId());
+            assertEquals(4000L, best.getDiscountMinor());
+        }
+
+        @Test
+        @DisplayName("Should return null when nothing gives a discount")
+        void testBestWhenNothingApplies() {
+            // Given
+            CouponSnapshot snapshot = CouponSnapshot.compile(1L, today, List.of(),
+                List.of(productWise(1L, 999L, "20")), List.of());
+
+            // When & Then
+            assertNull(snapshot.best(CartView.of(cart), today));
+        }
+    }
+
+    private ProductWiseCoupon productWise(Long id, Long productId, String percentage) {
+        ProductWiseCoupon coupon = new ProductWiseCoupon();
+        coupon.setId(id);
+        coupon.setCode("PROD" + id);
+        coupon.setExpirationDate(today.plusDays(30));
+        coupon.setProductId(productId);
+        coupon.setDiscountPercentage(new BigDecimal(percentage));
+        return coupon;
+    }
+
+    private BxGyCoupon bxGy(Long id, Map<Long, Integer> buyProducts) {
+        BxGyCoupon coupon = new BxGyCoupon();
+        coupon.setId(id);
+        coupon.setCode("BXGY" + id);
+        coupon.setExpirationDate(today.plusDays(30));
+        coupon.setBuyProducts(buyProducts);
+        coupon.setGetProducts(Map.of(301L, 1));
+        coupon.setRepetitionLimit(1);
+        return coupon;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.coupons.management.demo_app.generation;
+
+import com.example.coupons.management.demo_app.catalog.CouponCodesGeneratedEvent;
+import com.example.coupons.management.demo_app.dto.CodeGenerationJobDTO;
+import com.example.coupons.management.demo_app.exception.InvalidCodeGenerationRequestException;
+import com.example.coupons.management.demo_app.model.CartWiseCoupon;
+import com.example.coupons.management.demo_app.model.CouponType;
+import com.example.coupons.management.demo_app.model.ProductWiseCoupon;
+import com.example.coupons.management.demo_app.repository.CartWiseCouponRepository;
+import com.example.coupons.management.demo_app.repository.ProductWiseCouponRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:codegen;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS coupons",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+    "coupons.codegen.chunk-size=40"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SequenceBlocks.class, GeneratedCouponWriter.class, CodeGenerationJobs.class,
+    CodeGenerationJobsTest.GeneratedEvents.class})
+// Jobs commit on their own thread; the test must not hold a transaction of its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("CodeGenerationJobs Tests")
+class CodeGenerationJobsTest {
+
+    @Autowired
+    private CodeGenerationJobs codeGenerationJobs;
+
+    @Autowired
+    private CartWiseCouponRepository cartWiseCouponRepository;
+
+    @Autowired
+    private ProductWiseCouponRepository productWiseCouponRepository;
+
+    @Autowired
+    private GeneratedEvents generatedEvents;
+
+    @TestConfiguration
+    static class GeneratedEvents {
+        private final List<CouponCodesGeneratedEvent> events = new CopyOnWriteArrayList<>();
+        // Keeps a job with a HOLD- code running after its first chunk
+        private final CountDownLatch held = new CountDownLatch(1);
+
+        @EventListener
+        void onCouponCodesGenerated(CouponCodesGeneratedEvent event) throws InterruptedException {
+            events.add(event);
+            if (event.getCodes().get(0).startsWith("HOLD-")) {
+                assertTrue(held.await(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should write generated cart-wise coupons in chunks and report progress")
+    void testGenerateCartWise() {
+        // Given
+        CartWiseCoupon template = new CartWiseCoupon();
+        template.setExpirationDate(LocalDate.now().plusDays(30));
+        template.setDescription("Campaign \"spring\", 10% off");
+        template.setThreshold(new BigDecimal("50.00"));
+        template.setDiscountPercentage(new BigDecimal("10.00"));
+        template.setUsageLimit(1);
+        template.setCodeOnly(true);
+        CouponCodeGenerator generator = new CouponCodeGenerator("SPRING-", CouponCodeGenerator.DEFAULT_ALPHABET, 6, 7L);
+
+        // When
+        CodeGenerationJobDTO started = codeGenerationJobs.start(template, generator, 100);
+        CodeGenerationJobDTO finished = awaitFinished(started.getJobId());
+
+        // Then
+        assertEquals(CodeGenerationJobDTO.Status.COMPLETED, finished.getStatus());
+        assertEquals(100, finished.getGenerated());
+        List<CartWiseCoupon> coupons = cartWiseCouponRepository.findAll().stream()
+            .filter(coupon -> coupon.getCode().startsWith("SPRING-"))
+            .toList();
+        assertEquals(100, coupons.size());
+        assertEquals(100, coupons.stream().map(CartWiseCoupon::getCode).distinct().count());
+        CartWiseCoupon first = coupons.get(0);
+        assertTrue(first.getCode().matches("SPRING-[A-Z2-9]{6}"));
+        assertEquals(CouponType.CART_WISE, first.getCouponType());
+        assertEquals("Campaign \"spring\", 10% off", first.getDescription());
+        assertEquals(0, new BigDecimal("50.00").compareTo(first.getThreshold()));
+        assertEquals(1, first.getUsageLimit());
+        assertNull(first.getPerCustomerLimit());
+        assertTrue(first.getCodeOnly());
+        // Code-only coupons stay out of the catalog that evaluates carts
+        assertTrue(cartWiseCouponRepository.findAllActiveCoupons(LocalDate.now()).stream()
+            .noneMatch(coupon -> coupon.getCode().startsWith("SPRING-")));
+    }
+
+    @Test
+    @DisplayName("Should publish the codes of each chunk as it commits")
+    void testPublishesCodesPerChunk() {
+        // Given
+        CartWiseCoupon template = new CartWiseCoupon();
+        template.setExpirationDate(LocalDate.now().plusDays(30));
+        template.setThreshold(new BigDecimal("20.00"));
+        template.setDiscountPercentage(new BigDecimal("5.00"));
+        template.setCodeOnly(true);
+        CouponCodeGenerator generator = new CouponCodeGenerator("CHUNK-", CouponCodeGenerator.DEFAULT_ALPHABET, 6, 11L);
+
+        // When: 100 codes in chunks of 40
+        awaitFinished(codeGenerationJobs.start(template, generator, 100).getJobId());
+
+        // Then
+        List<CouponCodesGeneratedEvent> events = generatedEvents.events.stream()
+            .filter(event -> event.getCodes().get(0).startsWith("CHUNK-"))
+            .toList();
+        assertEquals(List.of(40, 40, 20), events.stream().map(event -> event.getCodes().size()).toList());
+        assertTrue(events.stream().allMatch(event -> event.getType() == CouponType.CART_WISE));
+        List<String> published = new ArrayList<>();
+        events.forEach(event -> published.addAll(event.getCodes()));
+        Set<String> stored = cartWiseCouponRepository.findAll().stream()
+            .map(CartWiseCoupon::getCode)
+            .filter(code -> code.startsWith("CHUNK-"))
+            .collect(Collectors.toSet());
+        assertEquals(stored, Set.copyOf(published));
+        assertEquals(100, published.size());
+    }
+
+    @Test
+    @DisplayName("Should not hand out ids that Hibernate allocates afterwards")
+    void testIdsDoNotClash() {
+        // Given
+        ProductWiseCoupon template = new ProductWiseCoupon();
+        template.setExpirationDate(LocalDate.now().plusDays(30));
+        template.setProductId(5L);
+        template.setDiscountPercentage(new BigDecimal("15.00"));
+        CouponCodeGenerator generator = new CouponCodeGenerator("IDS-", CouponCodeGenerator.DEFAULT_ALPHABET, 6, 3L);
+        awaitFinished(codeGenerationJobs.start(template, generator, 75).getJobId());
+        Set<Long> generatedIds = productWiseCouponRepository.findAll().stream()
+            .map(ProductWiseCoupon::getId)
+            .collect(Collectors.toSet());
+
+        // When
+        ProductWiseCoupon saved = productWiseCouponRepository.save(new ProductWiseCoupon(null, "AFTER-IDS",
+            LocalDate.now().plusDays(30), true, null, CouponType.PRODUCT_WISE, 5L, new BigDecimal("5.00")));
+
+        // Then
+        assertEquals(75, generatedIds.size());
+        assertFalse(generatedIds.contains(saved.getId()));
+    }
+
+    @Test
+    @DisplayName("Should refuse a prefix whose codes already exist at the same length")
+    void testPrefixInUse() {
+        // Given
+        CartWiseCoupon template = new CartWiseCoupon();
+        template.setExpirationDate(LocalDate.now().plusDays(30));
+        template.setThreshold(new BigDecimal("20.00"));
+        template.setDiscountPercentage(new BigDecimal("5.00"));
+        awaitFinished(codeGenerationJobs.start(template,
+            new CouponCodeGenerator("DUP_", CouponCodeGenerator.DEFAULT_ALPHABET, 5, 1L), 3).getJobId());
+
+        // When & Then - '_' is matched literally, and other lengths stay free
+        assertThrows(InvalidCodeGenerationRequestException.class, () -> codeGenerationJobs.start(template,
+            new CouponCodeGenerator("DUP_", CouponCodeGenerator.DEFAULT_ALPHABET, 5, 2L), 3));
+        assertDoesNotThrow(() -> codeGenerationJobs.start(template,
+            new CouponCodeGenerator("DUPX", CouponCodeGenerator.DEFAULT_ALPHABET, 5, 2L), 3));
+        assertDoesNotThrow(() -> codeGenerationJobs.start(template,
+            new CouponCodeGenerator("DUP_", CouponCodeGenerator.DEFAULT_ALPHABET, 6, 2L), 3));
+    }
+
+    @Test
+    @DisplayName("Should refuse a prefix overlapping that of an unfinished job")
+    void testPrefixOverlapsRunningJob() {
+        // Given - a job generating HOLD-XXXX codes, kept running after its first chunk
+        CartWiseCoupon template = new CartWiseCoupon();
+        template.setExpirationDate(LocalDate.now().plusDays(30));
+        template.setThreshold(new BigDecimal("20.00"));
+        template.setDiscountPercentage(new BigDecimal("5.00"));
+        String running = codeGenerationJobs.start(template,
+            new CouponCodeGenerator("HOLD-", CouponCodeGenerator.DEFAULT_ALPHABET, 4, 1L), 100).getJobId();
+        await().atMost(Duration.ofSeconds(10)).until(() -> generatedEvents.events.stream()
+            .anyMatch(event -> event.getCodes().get(0).startsWith("HOLD-")));
+
+        try {
+            // When & Then - longer and shorter prefixes of the same code length overlap it
+            assertThrows(InvalidCodeGenerationRequestException.class, () -> codeGenerationJobs.start(template,
+                new CouponCodeGenerator("HOLD-A", CouponCodeGenerator.DEFAULT_ALPHABET, 3, 2L), 3));
+            assertThrows(InvalidCodeGenerationRequestException.class, () -> codeGenerationJobs.start(template,
+                new CouponCodeGenerator("HOLD", CouponCodeGenerator.DEFAULT_ALPHABET, 5, 2L), 3));
+        } finally {
+            generatedEvents.held.countDown();
+        }
+        assertEquals(CodeGenerationJobDTO.Status.COMPLETED, awaitFinished(running).getStatus());
+    }
+
+    private CodeGenerationJobDTO awaitFinished(String jobId) {
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            CodeGenerationJobDTO.Status status = codeGenerationJobs.find(jobId).orElseThrow().getStatus();
+            return status == CodeGenerationJobDTO.Status.COMPLETED || status == CodeGenerationJobDTO.Status.FAILED;
+        });
+        return codeGenerationJobs.find(jobId).orElseThrow();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.coupons.management.demo_app.generation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CouponCodeGenerator Tests")
+class CouponCodeGeneratorTest {
+
+    @Test
+    @DisplayName("Should map every index to a distinct code when the range is exhausted")
+    void testBijection() {
+        // Given - 3^7 = 2187 codes, not a power of two, so cycle walking is exercised
+        CouponCodeGenerator generator = new CouponCodeGenerator("X-", "ABC", 7, 42L);
+
+        // When
+        Set<String> codes = new HashSet<>();
+        for (long i = 0; i < generator.getCapacity(); i++) {
+            codes.add(generator.codeAt(i));
+        }
+
+        // Then
+        assertEquals(2187, generator.getCapacity());
+        assertEquals(2187, codes.size());
+        assertTrue(codes.stream().allMatch(code -> code.matches("X-[ABC]{7}")));
+    }
+
+    @Test
+    @DisplayName("Should give different sequences for different keys and the same for the same key")
+    void testKeyed() {
+        // Given
+        CouponCodeGenerator first = new CouponCodeGenerator("", CouponCodeGenerator.DEFAULT_ALPHABET, 8, 1L);
+        CouponCodeGenerator same = new CouponCodeGenerator("", CouponCodeGenerator.DEFAULT_ALPHABET, 8, 1L);
+        CouponCodeGenerator other = new CouponCodeGenerator("", CouponCodeGenerator.DEFAULT_ALPHABET, 8, 2L);
+
+        // Then
+        assertEquals(first.codeAt(0), same.codeAt(0));
+        assertNotEquals(first.codeAt(0), other.codeAt(0));
+        assertNotEquals(first.codeAt(0), first.codeAt(1));
+        assertEquals(8, first.getCodeLength());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid alphabets, lengths and out-of-range indexes")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new CouponCodeGenerator("", "A", 8, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new CouponCodeGenerator("", "AAB", 8, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new CouponCodeGenerator("", "AB", 0, 0L));
+        assertThrows(IllegalArgumentException.class,
+            () -> new CouponCodeGenerator("", CouponCodeGenerator.DEFAULT_ALPHABET, 13, 0L));
+
+        CouponCodeGenerator generator = new CouponCodeGenerator("", "AB", 4, 0L);
+        assertThrows(IndexOutOfBoundsException.class, () -> generator.codeAt(16));
+    }
+
+    @Test
+    @DisplayName("Should overlap only generators of the same code length whose prefixes start with each other")
+    void testOverlaps() {
+        // Given
+        CouponCodeGenerator generator = new CouponCodeGenerator("AB-", CouponCodeGenerator.DEFAULT_ALPHABET, 4, 1L);
+
+        // When & Then
+        assertTrue(generator.overlaps(new CouponCodeGenerator("AB-", CouponCodeGenerator.DEFAULT_ALPHABET, 4, 2L)));
+        assertTrue(generator.overlaps(new CouponCodeGenerator("AB-X", CouponCodeGenerator.DEFAULT_ALPHABET, 3, 2L)));
+        assertTrue(generator.overlaps(new CouponCodeGenerator("AB", CouponCodeGenerator.DEFAULT_ALPHABET, 5, 2L)));
+        assertFalse(generator.overlaps(new CouponCodeGenerator("AB-X", CouponCodeGenerator.DEFAULT_ALPHABET, 4, 2L)));
+        assertFalse(generator.overlaps(new CouponCodeGenerator("AC-", CouponCodeGenerator.DEFAULT_ALPHABET, 4, 2L)));
+    }
+}
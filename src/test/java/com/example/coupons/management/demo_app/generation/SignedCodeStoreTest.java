@@ -0,0 +1,63 @@
+package com.example.coupons.management.demo_app.generation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:signedcodes;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS coupons",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SequenceBlocks.class, SignedCodeStore.class})
+@DisplayName("SignedCodeStore Tests")
+class SignedCodeStoreTest {
+
+    @Autowired
+    private SignedCodeStore signedCodeStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS coupons.signed_code_serial_seq START WITH 1 INCREMENT BY "
+            + SignedCodeStore.SERIAL_BLOCK_SIZE);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS coupons.signed_code_redemption (" +
+            "coupon_id BIGINT NOT NULL, serial BIGINT NOT NULL, " +
+            "redeemed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (coupon_id, serial))");
+    }
+
+    @Test
+    @DisplayName("Should reserve serials that never repeat across reservations")
+    void testReserveSerials() {
+        // When
+        long[] first = signedCodeStore.reserveSerials(SignedCodeStore.SERIAL_BLOCK_SIZE + 1);
+        long[] second = signedCodeStore.reserveSerials(3);
+
+        // Then
+        long distinct = LongStream.concat(Arrays.stream(first), Arrays.stream(second)).distinct().count();
+        assertEquals(first.length + second.length, distinct);
+    }
+
+    @Test
+    @DisplayName("Should redeem each serial of a coupon only once")
+    void testMarkRedeemed() {
+        // Then
+        assertTrue(signedCodeStore.markRedeemed(1L, 7L));
+        assertTrue(signedCodeStore.markRedeemed(2L, 7L));
+        assertFalse(signedCodeStore.markRedeemed(1L, 7L));
+    }
+}
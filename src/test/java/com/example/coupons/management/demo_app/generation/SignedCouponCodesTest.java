@@ -0,0 +1,73 @@
+package com.example.coupons.management.demo_app.generation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SignedCouponCodes Tests")
+class SignedCouponCodesTest {
+
+    private final SignedCouponCodes codes = new SignedCouponCodes("test-secret");
+
+    @Test
+    @DisplayName("Should verify issued codes back to their coupon and serial, ignoring case")
+    void testRoundTrip() {
+        // Given
+        String code = codes.sign(1234L, 987_654L);
+        String small = codes.sign(0L, 0L);
+
+        // Then
+        assertTrue(code.matches("S[A-Z2-9]+-[A-Z2-9]+-[A-Z2-9]{8}"));
+        assertEquals(Optional.of(new SignedCode(1234L, 987_654L)), codes.verify(code));
+        assertEquals(Optional.of(new SignedCode(1234L, 987_654L)), codes.verify(code.toLowerCase()));
+        assertEquals(Optional.of(new SignedCode(0L, 0L)), codes.verify(small));
+        assertEquals(Optional.of(new SignedCode(Long.MAX_VALUE, 1L)), codes.verify(codes.sign(Long.MAX_VALUE, 1L)));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, malformed and foreign codes")
+    void testRejects() {
+        // Given
+        String code = codes.sign(1234L, 42L);
+        int macStart = code.lastIndexOf('-') + 1;
+        char last = code.charAt(code.length() - 1);
+        String tamperedMac = code.substring(0, code.length() - 1) + (last == 'A' ? 'B' : 'A');
+        String otherSerial = code.substring(0, macStart).replaceFirst("-[A-Z2-9]+-$", "-B-") + code.substring(macStart);
+        String foreign = new SignedCouponCodes("other-secret").sign(1234L, 42L);
+
+        // Then
+        assertTrue(codes.verify(tamperedMac).isEmpty());
+        assertTrue(codes.verify(otherSerial).isEmpty());
+        assertTrue(codes.verify(foreign).isEmpty());
+        assertTrue(codes.verify("CART10").isEmpty());
+        assertTrue(codes.verify("S--AAAAAAAA").isEmpty());
+        assertTrue(codes.verify("SB-B-0000000").isEmpty());
+        assertTrue(codes.verify(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should refuse leading zero digits so each serial has exactly one code")
+    void testCanonical() {
+        // Given - 'A' is the zero digit
+        String code = codes.sign(5L, 7L);
+        String padded = "SA" + code.substring(1);
+
+        // Then
+        assertTrue(codes.verify(padded).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should verify nothing and refuse to sign when no secret is configured")
+    void testDisabled() {
+        // Given
+        SignedCouponCodes disabled = new SignedCouponCodes("");
+
+        // Then
+        assertFalse(disabled.isEnabled());
+        assertTrue(disabled.verify(codes.sign(1L, 1L)).isEmpty());
+        assertThrows(IllegalStateException.class, () -> disabled.sign(1L, 1L));
+    }
+}
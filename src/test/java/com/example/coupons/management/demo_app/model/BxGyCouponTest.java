@@ -1,5 +1,6 @@
 package com.example.coupons.management.demo_app.model;
 
+import com.example.coupons.management.demo_app.dto.ItemDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Nested;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -391,6 +393,41 @@ class BxGyCouponTest {
         }
     }
 
+    @Nested
+    @DisplayName("CartView Tests")
+    class CartViewTests {
+
+        private CartView cartView;
+
+        @BeforeEach
+        void setUp() {
+            cartView = CartView.of(List.of(
+                new ItemDTO(201L, 4, 25.0),
+                new ItemDTO(202L, 2, 50.0),
+                new ItemDTO(301L, 1, 30.0)
+            ));
+        }
+
+        @Test
+        @DisplayName("Should agree with the map-based evaluation")
+        void testCartViewMatchesMapEvaluation() {
+            assertEquals(bxGyCoupon.isApplicable(cartItems), bxGyCoupon.isApplicableTo(cartView));
+            assertEquals(bxGyCoupon.calculateApplicableTimes(cartItems), bxGyCoupon.calculateApplicableTimes(cartView));
+            assertEquals(bxGyCoupon.calculateDiscount(cartItems, productPrices), bxGyCoupon.calculateDiscount(cartView), 0.01);
+        }
+
+        @Test
+        @DisplayName("Should return 0 discount when a buy product is missing")
+        void testCartViewNotApplicable() {
+            // Given
+            CartView incomplete = CartView.of(List.of(new ItemDTO(201L, 5, 25.0)));
+
+            // When & Then
+            assertFalse(bxGyCoupon.isApplicableTo(incomplete));
+            assertEquals(0.0, bxGyCoupon.calculateDiscount(incomplete), 0.01);
+        }
+    }
+
     @Nested
     @DisplayName("CouponEntity Interface Implementation Tests")
     class CouponEntityImplementationTests {
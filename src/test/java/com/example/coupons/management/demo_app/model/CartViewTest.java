@@ -0,0 +1,76 @@
+package com.example.coupons.management.demo_app.model;
+
+import com.example.coupons.management.demo_app.dto.CartDTO;
+import com.example.coupons.management.demo_app.dto.ItemDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CartView Tests")
+class CartViewTest {
+
+    private CartView cartView;
+
+    @BeforeEach
+    void setUp() {
+        cartView = CartView.of(new CartDTO(List.of(
+            new ItemDTO(300L, 1, 10.0),
+            new ItemDTO(100L, 2, 25.0),
+            new ItemDTO(300L, 3, 12.0)
+        )));
+    }
+
+    @Test
+    @DisplayName("Should compute the same total as the cart")
+    void testTotalValue() {
+        assertEquals(9600L, cartView.getTotalMinor());
+        assertEquals(96.0, cartView.getTotalValue());
+    }
+
+    @Test
+    @DisplayName("Should merge lines of the same product and sort by productId")
+    void testMergedAndSorted() {
+        assertEquals(2, cartView.size());
+        assertEquals(100L, cartView.productIdAt(0));
+        assertEquals(300L, cartView.productIdAt(1));
+        assertEquals(4, cartView.quantityOf(300L));
+        assertEquals(4600L, cartView.lineTotalMinorOf(300L));
+    }
+
+    @Test
+    @DisplayName("Should keep the price of the first line for a product")
+    void testFirstPriceKept() {
+        assertEquals(1000L, cartView.priceMinorOf(300L));
+    }
+
+    @Test
+    @DisplayName("Should report missing products as absent")
+    void testMissingProduct() {
+        assertEquals(-1, cartView.indexOf(200L));
+        assertEquals(0, cartView.quantityOf(200L));
+        assertEquals(0L, cartView.priceMinorOf(200L));
+    }
+
+    @Test
+    @DisplayName("Should sum in minor units without floating point drift")
+    void testNoFloatingPointDrift() {
+        CartView view = CartView.of(List.of(
+            new ItemDTO(1L, 3, 0.1),
+            new ItemDTO(2L, 1, 0.2)
+        ));
+        assertEquals(50L, view.getTotalMinor());
+        assertEquals(0.5, view.getTotalValue());
+    }
+
+    @Test
+    @DisplayName("Should handle an empty cart")
+    void testEmptyCart() {
+        CartView empty = CartView.of(new CartDTO(List.of()));
+        assertEquals(0, empty.size());
+        assertEquals(0L, empty.getTotalMinor());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.coupons.management.demo_app.model;
 
+import com.example.coupons.management.demo_app.dto.ItemDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Nested;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -187,6 +189,22 @@ class CartWiseCouponTest {
             // Then
             assertEquals(0.1, discount, 0.001); // 0.01% of 1000
         }
+
+        @Test
+        @DisplayName("Should round the same way for a cart value and a cart view")
+        void testCalculateDiscountRoundsLikeCartView() {
+            // Given - 12.5% of 100.20 is 12.525, a half cent
+            cartWiseCoupon.setDiscountPercentage(new BigDecimal("12.50"));
+            CartView cart = CartView.of(List.of(new ItemDTO(1L, 1, 100.20)));
+
+            // When
+            double fromValue = cartWiseCoupon.calculateDiscount(100.20);
+            double fromView = cartWiseCoupon.calculateDiscount(cart);
+
+            // Then - half to even, exactly
+            assertEquals(12.52, fromValue);
+            assertEquals(fromView, fromValue);
+        }
     }
 
     @Nested
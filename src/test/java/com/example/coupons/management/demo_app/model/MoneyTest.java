@@ -0,0 +1,43 @@
+package com.example.coupons.management.demo_app.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should convert amounts to minor units")
+    void testToMinor() {
+        assertEquals(10050L, Money.toMinor(new BigDecimal("100.50")));
+        assertEquals(10050L, Money.toMinor(100.5));
+        assertEquals(30L, Money.toMinor(0.1 + 0.2));
+    }
+
+    @Test
+    @DisplayName("Should convert percentages to basis points")
+    void testToBasisPoints() {
+        assertEquals(1000, Money.toBasisPoints(new BigDecimal("10.00")));
+        assertEquals(1, Money.toBasisPoints(new BigDecimal("0.01")));
+        assertEquals(1250, Money.toBasisPoints(12.5));
+    }
+
+    @Test
+    @DisplayName("Should apply basis points exactly when there is no remainder")
+    void testApplyBasisPointsExact() {
+        assertEquals(2500L, Money.applyBasisPoints(25000L, 1000)); // 10% of 250.00
+    }
+
+    @Test
+    @DisplayName("Should round half to even")
+    void testApplyBasisPointsRounding() {
+        assertEquals(2L, Money.applyBasisPoints(25L, 1000)); // 2.5 -> 2
+        assertEquals(4L, Money.applyBasisPoints(35L, 1000)); // 3.5 -> 4
+        assertEquals(3L, Money.applyBasisPoints(26L, 1000)); // 2.6 -> 3
+        assertEquals(0L, Money.applyBasisPoints(1000L, 1)); // 0.01% of 10.00 is 0.1 cent
+    }
+}
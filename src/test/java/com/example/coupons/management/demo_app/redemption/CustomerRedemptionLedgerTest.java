@@ -0,0 +1,311 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CustomerRedemptionLedger Tests")
+class CustomerRedemptionLedgerTest {
+
+    @Mock
+    private CustomerRedemptionStore customerRedemptionStore;
+
+    private CustomerRedemptionLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(customerRedemptionStore.currentTimestamp()).thenAnswer(invocation -> Instant.now());
+        ledger = new CustomerRedemptionLedger(customerRedemptionStore, 4, 600_000);
+        ledger.start();
+    }
+
+    @Test
+    @DisplayName("Should enforce the limit per customer and coupon")
+    void testPerCustomerLimit() {
+        // When
+        assertTrue(ledger.tryRedeem(1L, 100L, 1));
+
+        // Then
+        assertFalse(ledger.tryRedeem(1L, 100L, 1));
+        assertTrue(ledger.tryRedeem(1L, 101L, 1));
+        assertTrue(ledger.tryRedeem(2L, 100L, 1));
+    }
+
+    @Test
+    @DisplayName("Should never let concurrent checkouts of one customer exceed the limit")
+    void testConcurrentRedemptionsOfOneCustomer() throws InterruptedException {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger accepted = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            executor.execute(() -> {
+                if (ledger.tryRedeem(1L, 100L, 3)) {
+                    accepted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(3, accepted.get());
+        assertEquals(3, ledger.count(1L, 100L));
+    }
+
+    @Test
+    @DisplayName("Should give a released redemption back to the customer")
+    void testRelease() {
+        // Given
+        ledger.tryRedeem(1L, 100L, 1);
+
+        // When
+        ledger.release(1L, 100L);
+
+        // Then
+        assertEquals(0, ledger.count(1L, 100L));
+        assertTrue(ledger.tryRedeem(1L, 100L, 1));
+    }
+
+    @Test
+    @DisplayName("Should write back a release whose redemption was already flushed")
+    void testReleaseAfterFlush() {
+        // Given
+        CustomerCoupon key = new CustomerCoupon(1L, 100L);
+        ledger.tryRedeem(1L, 100L, 1);
+        ledger.flush();
+
+        // When
+        ledger.release(1L, 100L);
+        ledger.flush();
+
+        // Then
+        verify(customerRedemptionStore).addAll(Map.of(key, 1L));
+        verify(customerRedemptionStore).addAll(Map.of(key, -1L));
+        assertEquals(0, ledger.count(1L, 100L));
+        assertTrue(ledger.tryRedeem(1L, 100L, 1));
+    }
+
+    @Test
+    @DisplayName("Should write back a release whose entry was evicted after the flush")
+    void testReleaseAfterEviction() {
+        // Given - entries are evicted as soon as they are written
+        CustomerRedemptionLedger evicting = new CustomerRedemptionLedger(customerRedemptionStore, 1, 0);
+        evicting.start();
+        CustomerCoupon key = new CustomerCoupon(1L, 100L);
+        evicting.tryRedeem(1L, 100L, 1);
+        evicting.flush();
+        assertEquals(0, evicting.size());
+
+        // When
+        evicting.release(1L, 100L);
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+            .doNothing()
+            .when(customerRedemptionStore).addAll(Map.of(key, -1L));
+        evicting.flush();
+        evicting.flush();
+
+        // Then - retried after the failed flush, and written once
+        verify(customerRedemptionStore, times(2)).addAll(Map.of(key, -1L));
+        evicting.flush();
+        verify(customerRedemptionStore, times(2)).addAll(Map.of(key, -1L));
+    }
+
+    @Test
+    @DisplayName("Should flush changed entries in one batch and pick up other instances' redemptions")
+    void testFlushAndSync() {
+        // Given
+        ledger.tryRedeem(1L, 100L, 5);
+        ledger.tryRedeem(1L, 100L, 5);
+        ledger.tryRedeem(1L, 101L, 5);
+        // Another instance has redeemed coupon 1 once for customer 101
+        when(customerRedemptionStore.loadUpdatedSince(any()))
+            .thenReturn(Map.of(new CustomerCoupon(1L, 100L), 2L, new CustomerCoupon(1L, 101L), 2L));
+
+        // When
+        ledger.flush();
+        ledger.flush();
+
+        // Then
+        verify(customerRedemptionStore).addAll(Map.of(
+            new CustomerCoupon(1L, 100L), 2L,
+            new CustomerCoupon(1L, 101L), 1L));
+        verify(customerRedemptionStore, times(1)).addAll(anyMap());
+        assertEquals(2, ledger.count(1L, 100L));
+        assertEquals(2, ledger.count(1L, 101L));
+    }
+
+    @Test
+    @DisplayName("Should keep counting unflushed redemptions and retry after a failed flush")
+    void testFailedFlushRetried() {
+        // Given
+        ledger.tryRedeem(1L, 100L, 5);
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+            .doNothing()
+            .when(customerRedemptionStore).addAll(anyMap());
+
+        // When
+        ledger.flush();
+
+        // Then
+        assertEquals(1, ledger.count(1L, 100L));
+        ledger.flush();
+        verify(customerRedemptionStore, times(2)).addAll(Map.of(new CustomerCoupon(1L, 100L), 1L));
+    }
+
+    @Test
+    @DisplayName("Should load a customer's persisted total on first use")
+    void testLoadOnMiss() {
+        // Given: redeemed before a restart or on another instance
+        when(customerRedemptionStore.loadCount(1L, 100L)).thenReturn(1L);
+
+        // When & Then
+        assertFalse(ledger.tryRedeem(1L, 100L, 1));
+        assertEquals(1, ledger.count(1L, 100L));
+        verify(customerRedemptionStore, times(1)).loadCount(1L, 100L);
+    }
+
+    @Test
+    @DisplayName("Should count a customer who is not held without blocking the shard or keeping an entry")
+    void testCountOnMiss() throws Exception {
+        // Given - one shard, and a slow query for customer 100
+        CustomerRedemptionLedger single = new CustomerRedemptionLedger(customerRedemptionStore, 1, 600_000);
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch answer = new CountDownLatch(1);
+        when(customerRedemptionStore.loadCount(1L, 100L)).thenAnswer(invocation -> {
+            querying.countDown();
+            assertTrue(answer.await(5, TimeUnit.SECONDS));
+            return 2L;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<Long> first = executor.submit(() -> single.count(1L, 100L));
+            assertTrue(querying.await(5, TimeUnit.SECONDS));
+            Future<Long> second = executor.submit(() -> single.count(1L, 100L));
+            // Another customer of the same shard redeems while the query runs
+            assertTrue(single.tryRedeem(1L, 101L, 1));
+            answer.countDown();
+
+            // Then
+            assertEquals(2, first.get(5, TimeUnit.SECONDS));
+            assertEquals(2, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, single.size());
+        } finally {
+            answer.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should judge the per-customer limit from held entries only, without loading")
+    void testIsKnownAtLimit() {
+        // Given
+        assertTrue(ledger.tryRedeem(1L, 100L, 1));
+
+        // When & Then
+        assertTrue(ledger.isKnownAtLimit(1L, 100L, 1));
+        assertFalse(ledger.isKnownAtLimit(1L, 100L, 2));
+        assertFalse(ledger.isKnownAtLimit(1L, 101L, 1));
+        assertEquals(1, ledger.size());
+        verify(customerRedemptionStore, never()).loadCount(1L, 101L);
+    }
+
+    @Test
+    @DisplayName("Should only sync entries it holds")
+    void testSyncSkipsEntriesNotHeld() {
+        // Given
+        when(customerRedemptionStore.loadUpdatedSince(any())).thenReturn(Map.of(new CustomerCoupon(1L, 100L), 2L));
+
+        // When
+        ledger.flush();
+
+        // Then
+        assertEquals(0, ledger.size());
+    }
+
+    @Test
+    @DisplayName("Should evict idle written entries and reload them on the next check")
+    void testEvictIdleEntries() {
+        // Given: entries are idle as soon as they are written
+        CustomerRedemptionLedger evicting = new CustomerRedemptionLedger(customerRedemptionStore, 4, 0);
+        evicting.start();
+        when(customerRedemptionStore.loadUpdatedSince(any())).thenReturn(Map.of());
+        evicting.tryRedeem(1L, 100L, 1);
+        evicting.tryRedeem(1L, 101L, 1);
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+            .doNothing()
+            .when(customerRedemptionStore).addAll(anyMap());
+
+        // When: unwritten redemptions are kept through a failed flush
+        evicting.flush();
+        assertEquals(2, evicting.size());
+        evicting.flush();
+
+        // Then
+        assertEquals(0, evicting.size());
+        when(customerRedemptionStore.loadCount(1L, 100L)).thenReturn(1L);
+        assertFalse(evicting.tryRedeem(1L, 100L, 1));
+    }
+
+    @Test
+    @DisplayName("Should never redeem against a zero count when an entry is evicted between load and check")
+    void testEvictionBetweenLoadAndRedeem() throws InterruptedException {
+        // Given: every customer has used their single redemption, and entries
+        // are idle as soon as they are loaded
+        CustomerRedemptionLedger evicting = new CustomerRedemptionLedger(customerRedemptionStore, 1, 0);
+        evicting.start();
+        when(customerRedemptionStore.loadCount(anyLong(), anyLong())).thenReturn(1L);
+        when(customerRedemptionStore.loadUpdatedSince(any())).thenReturn(Map.of());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean checking = new AtomicBoolean(true);
+        AtomicInteger accepted = new AtomicInteger();
+
+        // When: flushes keep evicting while checkouts load and redeem
+        Thread evictor = new Thread(() -> {
+            while (checking.get()) {
+                evicting.flush();
+            }
+        });
+        evictor.start();
+        for (int i = 0; i < 20_000; i++) {
+            long customerId = i % 8;
+            executor.execute(() -> {
+                if (evicting.tryRedeem(1L, customerId, 1)) {
+                    accepted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        checking.set(false);
+        evictor.join();
+
+        // Then
+        assertEquals(0, accepted.get());
+        verify(customerRedemptionStore, never()).addAll(anyMap());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import com.example.coupons.management.demo_app.generation.SequenceBlocks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:customer-redemption;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS coupons",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SequenceBlocks.class, CustomerRedemptionStore.class})
+@DisplayName("CustomerRedemptionStore Tests")
+class CustomerRedemptionStoreTest {
+
+    @Autowired
+    private CustomerRedemptionStore customerRedemptionStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS coupons.customer_redemption (" +
+            "coupon_id BIGINT NOT NULL, customer_id BIGINT NOT NULL, redeemed_count BIGINT NOT NULL DEFAULT 0, " +
+            "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (coupon_id, customer_id))");
+    }
+
+    @Test
+    @DisplayName("Should add to per-customer totals and load them by key or by change time")
+    void testAddAllAndLoad() {
+        // When
+        customerRedemptionStore.addAll(Map.of(new CustomerCoupon(1L, 100L), 1L, new CustomerCoupon(2L, 100L), 1L));
+        customerRedemptionStore.addAll(Map.of(new CustomerCoupon(1L, 100L), 2L));
+
+        // Then
+        assertEquals(3, customerRedemptionStore.loadCount(1L, 100L));
+        assertEquals(0, customerRedemptionStore.loadCount(1L, 101L));
+        assertEquals(2, customerRedemptionStore.loadUpdatedSince(Instant.now().minusSeconds(60)).size());
+        assertTrue(customerRedemptionStore.loadUpdatedSince(Instant.now().plusSeconds(60)).isEmpty());
+        assertTrue(Duration.between(customerRedemptionStore.currentTimestamp(), Instant.now()).abs().toSeconds() < 60);
+    }
+}
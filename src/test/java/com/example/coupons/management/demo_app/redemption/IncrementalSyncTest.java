@@ -0,0 +1,72 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IncrementalSync Tests")
+class IncrementalSyncTest {
+
+    private final AtomicReference<Instant> databaseTime = new AtomicReference<>(Instant.parse("2030-01-01T00:00:00Z"));
+    private final IncrementalSync sync = new IncrementalSync("test", databaseTime::get);
+
+    @Test
+    @DisplayName("Should resume each sync from the database time the previous one started at")
+    void testResumesFromDatabaseTime() {
+        // Given
+        List<Instant> since = new ArrayList<>();
+        Instant started = databaseTime.get();
+        sync.start();
+
+        // When
+        databaseTime.set(started.plusSeconds(1));
+        assertTrue(sync.sync(since::add));
+        databaseTime.set(started.plusSeconds(2));
+        assertTrue(sync.sync(since::add));
+
+        // Then
+        assertEquals(List.of(started.minus(IncrementalSync.OVERLAP),
+            started.plusSeconds(1).minus(IncrementalSync.OVERLAP)), since);
+    }
+
+    @Test
+    @DisplayName("Should read nothing when there is no point to resume from")
+    void testFirstSyncWithoutStart() {
+        // Given
+        List<Instant> since = new ArrayList<>();
+
+        // When
+        boolean first = sync.sync(since::add);
+        boolean second = sync.sync(since::add);
+
+        // Then
+        assertFalse(first);
+        assertTrue(second);
+        assertEquals(List.of(databaseTime.get().minus(IncrementalSync.OVERLAP)), since);
+    }
+
+    @Test
+    @DisplayName("Should read the same rows again after a failed sync")
+    void testFailedSyncKeepsResumePoint() {
+        // Given
+        List<Instant> since = new ArrayList<>();
+        Instant started = databaseTime.get();
+        sync.start();
+        databaseTime.set(started.plusSeconds(1));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> sync.sync(time -> {
+            throw new IllegalStateException("database down");
+        }));
+        sync.sync(since::add);
+
+        // Then
+        assertEquals(List.of(started.minus(IncrementalSync.OVERLAP)), since);
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import com.example.coupons.management.demo_app.catalog.CompiledCoupon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedemptionCounters Tests")
+class RedemptionCountersTest {
+
+    @Mock
+    private RedemptionStore redemptionStore;
+
+    private RedemptionCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redemptionStore.currentTimestamp()).thenAnswer(invocation -> Instant.now());
+        counters = new RedemptionCounters(redemptionStore, 600_000);
+        counters.start();
+    }
+
+    @Test
+    @DisplayName("Should stop redeeming once the usage limit is reached")
+    void testUsageLimit() {
+        // When
+        assertTrue(counters.tryRedeem(1L, 2));
+        assertTrue(counters.tryRedeem(1L, 2));
+
+        // Then
+        assertFalse(counters.tryRedeem(1L, 2));
+        assertTrue(counters.tryRedeem(2L, CompiledCoupon.UNLIMITED));
+        assertEquals(2, counters.count(1L));
+    }
+
+    @Test
+    @DisplayName("Should judge the limit from held counters only, without loading")
+    void testIsKnownAtLimit() {
+        // Given
+        assertTrue(counters.tryRedeem(1L, 1));
+
+        // When & Then
+        assertTrue(counters.isKnownAtLimit(1L, 1));
+        assertFalse(counters.isKnownAtLimit(1L, 2));
+        assertFalse(counters.isKnownAtLimit(2L, 1));
+        assertEquals(1, counters.size());
+        verify(redemptionStore).loadCount(1L);
+        verify(redemptionStore, never()).loadCount(2L);
+    }
+
+    @Test
+    @DisplayName("Should count every concurrent redemption of an unlimited coupon")
+    void testConcurrentRedemptions() throws InterruptedException {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> counters.tryRedeem(1L, CompiledCoupon.UNLIMITED));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(10_000, counters.count(1L));
+    }
+
+    @Test
+    @DisplayName("Should write only unflushed redemptions and adopt changed totals")
+    void testFlushWritesDeltas() {
+        // Given
+        counters.tryRedeem(1L, 10);
+        counters.tryRedeem(1L, 10);
+        // Another instance has redeemed coupon 1 three times and coupon 2, not held here, once
+        when(redemptionStore.loadLimitedUpdatedSince(any())).thenReturn(Map.of(1L, 5L, 2L, 1L), Map.of(1L, 6L));
+
+        // When
+        counters.flush();
+        counters.tryRedeem(1L, 10);
+        counters.flush();
+
+        // Then
+        verify(redemptionStore).addAll(Map.of(1L, 2L));
+        verify(redemptionStore).addAll(Map.of(1L, 1L));
+        assertEquals(6, counters.count(1L));
+        assertEquals(1, counters.size());
+    }
+
+    @Test
+    @DisplayName("Should sync without writing when nothing was redeemed")
+    void testFlushWithoutDeltas() {
+        // Given
+        when(redemptionStore.loadLimitedUpdatedSince(any())).thenReturn(Map.of());
+
+        // When
+        counters.flush();
+        counters.flush();
+
+        // Then
+        verify(redemptionStore, never()).addAll(anyMap());
+        verify(redemptionStore, times(2)).loadLimitedUpdatedSince(any());
+    }
+
+    @Test
+    @DisplayName("Should resume each sync from the database time the previous one started at")
+    void testSyncIsIncremental() {
+        // Given: the database clock runs a minute behind this instance
+        Instant databaseTime = Instant.now().minusSeconds(60);
+        RedemptionCounters skewed = new RedemptionCounters(redemptionStore, 600_000);
+        when(redemptionStore.currentTimestamp())
+            .thenReturn(databaseTime, databaseTime.plusSeconds(1), databaseTime.plusSeconds(2));
+        when(redemptionStore.loadLimitedUpdatedSince(any())).thenReturn(Map.of());
+
+        // When
+        skewed.start();
+        skewed.flush();
+        skewed.flush();
+
+        // Then
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(redemptionStore, times(2)).loadLimitedUpdatedSince(since.capture());
+        assertEquals(databaseTime.minus(IncrementalSync.OVERLAP), since.getAllValues().get(0));
+        assertEquals(databaseTime.plusSeconds(1).minus(IncrementalSync.OVERLAP), since.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("Should retry the same delta after a failed flush")
+    void testFailedFlushRetried() {
+        // Given
+        counters.tryRedeem(1L, 10);
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new DataAccessResourceFailureException("database unavailable");
+            }
+            return null;
+        }).when(redemptionStore).addAll(anyMap());
+        when(redemptionStore.loadLimitedUpdatedSince(any())).thenReturn(Map.of(1L, 1L), Map.of());
+
+        // When
+        counters.flush();
+        counters.flush();
+        counters.flush();
+
+        // Then
+        verify(redemptionStore, times(2)).addAll(Map.of(1L, 1L));
+        assertEquals(1, counters.count(1L));
+    }
+
+    @Test
+    @DisplayName("Should load a limited coupon's persisted total on first use")
+    void testLoadOnMiss() {
+        // Given: redeemed before a restart or on another instance
+        when(redemptionStore.loadCount(1L)).thenReturn(3L);
+
+        // When & Then
+        assertFalse(counters.tryRedeem(1L, 3));
+        assertEquals(3, counters.count(1L));
+        assertTrue(counters.tryRedeem(2L, CompiledCoupon.UNLIMITED));
+        verify(redemptionStore, times(1)).loadCount(1L);
+        verify(redemptionStore, never()).loadCount(2L);
+    }
+
+    @Test
+    @DisplayName("Should evict idle written counters and reload them on the next check")
+    void testEvictIdleCounters() {
+        // Given: counters are idle as soon as they are written
+        RedemptionCounters evicting = new RedemptionCounters(redemptionStore, 0);
+        evicting.start();
+        when(redemptionStore.loadLimitedUpdatedSince(any())).thenReturn(Map.of());
+        evicting.tryRedeem(1L, 1);
+        evicting.tryRedeem(2L, CompiledCoupon.UNLIMITED);
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+            .doNothing()
+            .when(redemptionStore).addAll(anyMap());
+
+        // When: unwritten redemptions are kept through a failed flush
+        evicting.flush();
+        assertEquals(2, evicting.size());
+        evicting.flush();
+
+        // Then
+        assertEquals(0, evicting.size());
+        when(redemptionStore.loadCount(1L)).thenReturn(1L);
+        assertFalse(evicting.tryRedeem(1L, 1));
+    }
+
+    @Test
+    @DisplayName("Should not lose redemptions that race an eviction")
+    void testRedemptionsRacingEviction() throws InterruptedException {
+        // Given: counters are evicted by every flush that finds them written
+        RedemptionCounters evicting = new RedemptionCounters(redemptionStore, 0);
+        evicting.start();
+        Map<Long, Long> written = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            Map<Long, Long> deltas = invocation.getArgument(0);
+            deltas.forEach((couponId, delta) -> written.merge(couponId, delta, Long::sum));
+            return null;
+        }).when(redemptionStore).addAll(anyMap());
+        when(redemptionStore.loadLimitedUpdatedSince(any())).thenReturn(Map.of());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean redeeming = new AtomicBoolean(true);
+
+        // When
+        Thread flusher = new Thread(() -> {
+            while (redeeming.get()) {
+                evicting.flush();
+            }
+        });
+        flusher.start();
+        for (int i = 0; i < 20_000; i++) {
+            executor.execute(() -> evicting.tryRedeem(1L, CompiledCoupon.UNLIMITED));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        redeeming.set(false);
+        flusher.join();
+        evicting.flush();
+
+        // Then
+        assertEquals(20_000L, written.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should report unlimited coupons from the table plus unflushed redemptions")
+    void testTotalOfUnlimitedCoupon() {
+        // Given
+        counters.tryRedeem(1L, CompiledCoupon.UNLIMITED);
+        when(redemptionStore.loadCount(1L)).thenReturn(40L);
+
+        // When & Then
+        assertEquals(41, counters.total(1L, CompiledCoupon.UNLIMITED));
+        assertEquals(1, counters.total(1L, 100));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.coupons.management.demo_app.redemption;
+
+import com.example.coupons.management.demo_app.generation.SequenceBlocks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@JdbcTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:redemption;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS coupons",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SequenceBlocks.class, RedemptionStore.class})
+@DisplayName("RedemptionStore Tests")
+class RedemptionStoreTest {
+
+    @Autowired
+    private RedemptionStore redemptionStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS coupons.coupon (" +
+            "id BIGINT PRIMARY KEY, is_active BOOLEAN NOT NULL, expiration_date DATE NOT NULL, usage_limit INTEGER)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS coupons.coupon_redemption (" +
+            "coupon_id BIGINT PRIMARY KEY, redeemed_count BIGINT NOT NULL DEFAULT 0, " +
+            "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO coupons.coupon VALUES (1, TRUE, ?, 10), (2, TRUE, ?, NULL), (3, TRUE, ?, 10)",
+            TODAY.plusDays(10), TODAY.plusDays(10), TODAY.minusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should insert first redemptions and add to existing totals")
+    void testAddAll() {
+        // When
+        redemptionStore.addAll(Map.of(1L, 2L));
+        redemptionStore.addAll(Map.of(1L, 3L, 2L, 1L));
+
+        // Then
+        assertEquals(5, redemptionStore.loadCount(1L));
+        assertEquals(1, redemptionStore.loadCount(2L));
+        assertEquals(0, redemptionStore.loadCount(3L));
+    }
+
+    @Test
+    @DisplayName("Should sync only totals of coupons with a usage limit")
+    void testLoadLimitedUpdatedSince() {
+        // Given
+        redemptionStore.addAll(Map.of(1L, 2L, 2L, 4L, 3L, 1L));
+
+        // When & Then
+        assertEquals(Map.of(1L, 2L, 3L, 1L), redemptionStore.loadLimitedUpdatedSince(Instant.now().minusSeconds(60)));
+        assertTrue(redemptionStore.loadLimitedUpdatedSince(Instant.now().plusSeconds(60)).isEmpty());
+        assertTrue(Duration.between(redemptionStore.currentTimestamp(), Instant.now()).abs().toSeconds() < 60);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.coupons.management.demo_app.repository;
+
+import com.example.coupons.management.demo_app.catalog.CouponSnapshot;
+import com.example.coupons.management.demo_app.model.BxGyCoupon;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bxgy;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS coupons",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("BxGyCouponRepository Tests")
+class BxGyCouponRepositoryTest {
+
+    @Autowired
+    private BxGyCouponRepository bxGyCouponRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should load active coupons and both product maps in a constant number of queries")
+    void testActiveCouponsLoadedWithoutNPlusOne() {
+        // When
+        long fewCoupons = countQueriesToCompileActiveCoupons(3);
+        long manyCoupons = countQueriesToCompileActiveCoupons(40);
+
+        // Then: one query for the coupons, one per product map
+        assertEquals(3, fewCoupons);
+        assertEquals(fewCoupons, manyCoupons);
+    }
+
+    @Test
+    @DisplayName("Should load the product maps of a single coupon")
+    void testFindByIdLoadsProductMaps() {
+        // Given
+        BxGyCoupon saved = persistCoupons(1).get(0);
+
+        // When
+        BxGyCoupon found = bxGyCouponRepository.findById(saved.getId()).orElseThrow();
+
+        // Then
+        assertEquals(Map.of(1000L, 2), found.getBuyProducts());
+        assertEquals(Map.of(2000L, 1), found.getGetProducts());
+    }
+
+    private long countQueriesToCompileActiveCoupons(int couponCount) {
+        persistCoupons(couponCount);
+        statistics.clear();
+
+        List<BxGyCoupon> coupons = bxGyCouponRepository.findAllActiveCoupons(LocalDate.now());
+        CouponSnapshot snapshot = CouponSnapshot.compile(1L, LocalDate.now(), List.of(), List.of(), coupons);
+
+        assertEquals(couponCount, snapshot.getBxGyCoupons().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<BxGyCoupon> persistCoupons(int count) {
+        bxGyCouponRepository.deleteAll();
+        List<BxGyCoupon> coupons = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BxGyCoupon coupon = new BxGyCoupon();
+            coupon.setCode("BXGY" + count + "_" + i);
+            coupon.setExpirationDate(LocalDate.now().plusDays(30));
+            coupon.setBuyProducts(Map.of(1000L + i, 2));
+            coupon.setGetProducts(Map.of(2000L + i, 1));
+            coupon.setRepetitionLimit(1);
+            coupons.add(bxGyCouponRepository.save(coupon));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return coupons;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.coupons.management.demo_app.repository;
+
+import com.example.coupons.management.demo_app.model.BxGyCoupon;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:batch;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS coupons",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // Same batching and id settings as application.properties
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.order_updates=true",
+    "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Coupon batch insert Tests")
+class CouponBatchInsertTest {
+
+    private static final int COUPONS = 120;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Should insert BxGy coupons and their product maps in JDBC batches with pooled ids")
+    void testBatchedInsert() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BxGyCoupon> coupons = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < COUPONS; i++) {
+            BxGyCoupon coupon = new BxGyCoupon();
+            coupon.setCode("BULK" + i);
+            coupon.setExpirationDate(LocalDate.now().plusDays(30));
+            coupon.setBuyProducts(Map.of(1000L + i, 2, 3000L + i, 1));
+            coupon.setGetProducts(Map.of(2000L + i, 1));
+            coupon.setRepetitionLimit(1);
+            entityManager.persist(coupon);
+            coupons.add(coupon);
+        }
+        entityManager.flush();
+
+        // Then: 3 sequence calls (blocks of 50) and 3 batches per table
+        // (coupon, bxgy_coupon, bxgy_buy_products in 5, bxgy_get_products)
+        // instead of one statement per row
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 20, "expected batched inserts but prepared " + statements + " statements");
+        for (int i = 1; i < 50; i++) {
+            assertEquals(coupons.get(i - 1).getId() + 1, coupons.get(i).getId());
+        }
+    }
+}
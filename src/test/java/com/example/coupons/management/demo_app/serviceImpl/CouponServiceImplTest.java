@@ -1,9 +1,32 @@
 package com.example.coupons.management.demo_app.serviceImpl;
 
+import com.example.coupons.management.demo_app.catalog.ApplicableCouponsCache;
+import com.example.coupons.management.demo_app.catalog.CartBatchEvaluator;
+import com.example.coupons.management.demo_app.catalog.CompiledCoupon;
+import com.example.coupons.management.demo_app.catalog.CouponCatalog;
+import com.example.coupons.management.demo_app.catalog.CouponCatalogChangedEvent;
+import com.example.coupons.management.demo_app.catalog.CouponCodeFilter;
+import com.example.coupons.management.demo_app.catalog.CouponLookupCache;
+import com.example.coupons.management.demo_app.catalog.CouponSnapshot;
+import com.example.coupons.management.demo_app.catalog.CouponsBulkCreatedEvent;
 import com.example.coupons.management.demo_app.dto.*;
 import com.example.coupons.management.demo_app.exception.CouponNotApplicableException;
 import com.example.coupons.management.demo_app.exception.CouponNotFoundException;
+import com.example.coupons.management.demo_app.exception.InvalidCodeGenerationRequestException;
+import com.example.coupons.management.demo_app.exception.InvalidSignedCodesRequestException;
+import com.example.coupons.management.demo_app.exception.SignedCodesDisabledException;
+import com.example.coupons.management.demo_app.exception.InvalidCursorException;
+import com.example.coupons.management.demo_app.generation.CodeGenerationJobs;
+import com.example.coupons.management.demo_app.generation.CouponCodeGenerator;
+import com.example.coupons.management.demo_app.generation.SignedCodeStore;
+import com.example.coupons.management.demo_app.generation.SignedCouponCodes;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import com.example.coupons.management.demo_app.model.*;
+import com.example.coupons.management.demo_app.redemption.CustomerRedemptionLedger;
+import com.example.coupons.management.demo_app.redemption.CustomerRedemptionStore;
+import com.example.coupons.management.demo_app.redemption.RedemptionCounters;
 import com.example.coupons.management.demo_app.repository.*;
 import com.example.coupons.management.demo_app.serviceimpl.CouponServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +34,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,6 +61,51 @@ class CouponServiceImplTest {
     @Mock
     private BxGyCouponRepository bxGyCouponRepository;
 
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponCatalog couponCatalog;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CartBatchEvaluator cartBatchEvaluator;
+
+    @Mock
+    private CouponCodeFilter couponCodeFilter;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private RedemptionCounters redemptionCounters;
+
+    @Mock
+    private CustomerRedemptionLedger customerRedemptionLedger;
+
+    @Mock
+    private CodeGenerationJobs codeGenerationJobs;
+
+    @Mock
+    private SignedCodeStore signedCodeStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SignedCouponCodes signedCouponCodes = new SignedCouponCodes("test-secret");
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private CouponLookupCache couponLookupCache = new CouponLookupCache(100, 60_000);
+
+    @Spy
+    private ApplicableCouponsCache applicableCouponsCache = new ApplicableCouponsCache(100);
+
     @InjectMocks
     private CouponServiceImpl couponService;
 
@@ -71,6 +144,11 @@ class CouponServiceImplTest {
             createItemDTO(201L, 3, 50.0),
             createItemDTO(202L, 1, 100.0)
         ));
+
+        // Catalog is empty unless a test installs its own snapshot
+        lenient().when(couponCatalog.current()).thenReturn(
+            CouponSnapshot.compile(0L, LocalDate.now(), List.of(), List.of(), List.of()));
+        lenient().when(redemptionCounters.tryRedeem(anyLong(), anyLong())).thenReturn(true);
     }
 
     private ItemDTO createItemDTO(Long productId, Integer quantity, Double price) {
@@ -96,6 +174,7 @@ class CouponServiceImplTest {
         assertNotNull(result);
         assertEquals("CART10", result.getCode());
         verify(cartWiseCouponRepository).save(any(CartWiseCoupon.class));
+        verify(eventPublisher).publishEvent(any(CouponCatalogChangedEvent.class));
     }
 
     @Test
@@ -133,31 +212,134 @@ class CouponServiceImplTest {
     }
 
     @Test
-    void getAllCoupons_ShouldReturnAllCouponsFromAllRepositories() {
+    void createCartWiseCoupons_ShouldCreateValidItemsAndReportInvalidOnes() {
+        // Given
+        CreateCartWiseCouponRequest invalid = new CreateCartWiseCouponRequest();
+        invalid.setCode("BAD");
+        invalid.setExpirationDate(LocalDate.now().plusDays(30));
+        invalid.setThreshold(BigDecimal.valueOf(100));
+        invalid.setDiscountPercentage(BigDecimal.valueOf(120));
+        CreateCartWiseCouponRequest existing = new CreateCartWiseCouponRequest();
+        existing.setCode("TAKEN");
+        existing.setExpirationDate(LocalDate.now().plusDays(30));
+        existing.setThreshold(BigDecimal.valueOf(100));
+        existing.setDiscountPercentage(BigDecimal.valueOf(10));
+        when(couponRepository.findExistingCodes(anyCollection())).thenReturn(List.of("TAKEN"));
+        AtomicLong ids = new AtomicLong(100);
+        doAnswer(invocation -> {
+            invocation.<Coupon>getArgument(0).setId(ids.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Coupon.class));
+
+        // When
+        BulkCreateResultDTO result = couponService.createCartWiseCoupons(
+            Arrays.asList(cartWiseRequest, invalid, existing, cartWiseRequest, null));
+
+        // Then
+        assertEquals(5, result.getRequested());
+        assertEquals(1, result.getCreated());
+        assertEquals(List.of(101L), result.getCreatedIds());
+        assertEquals(List.of(1, 2, 3, 4), result.getErrors().stream().map(BulkItemErrorDTO::getIndex).toList());
+        assertEquals("Discount percentage cannot exceed 100", result.getErrors().get(0).getErrors().get("discountPercentage"));
+        assertEquals("Coupon code already exists", result.getErrors().get(1).getErrors().get("code"));
+        assertEquals("Coupon code already exists", result.getErrors().get(2).getErrors().get("code"));
+        verify(entityManager, times(1)).persist(any(Coupon.class));
+        verify(eventPublisher).publishEvent(new CouponsBulkCreatedEvent(CouponType.CART_WISE, List.of(101L), List.of("CART10")));
+    }
+
+    @Test
+    void createBxGyCoupons_ShouldRejectEmptyProductMapsFromEntityConstraints() {
         // Given
-        List<CartWiseCoupon> cartWiseCoupons = Arrays.asList(createCartWiseCoupon());
-        List<ProductWiseCoupon> productWiseCoupons = Arrays.asList(createProductWiseCoupon());
-        List<BxGyCoupon> bxGyCoupons = Arrays.asList(createBxGyCoupon());
+        bxGyRequest.setBuyProducts(Map.of());
+
+        // When
+        BulkCreateResultDTO result = couponService.createBxGyCoupons(List.of(bxGyRequest));
+
+        // Then
+        assertEquals(0, result.getCreated());
+        assertEquals("Buy products cannot be empty", result.getErrors().get(0).getErrors().get("buyProducts"));
+        verify(entityManager, never()).persist(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 
-        when(cartWiseCouponRepository.findAll()).thenReturn(cartWiseCoupons);
-        when(productWiseCouponRepository.findAll()).thenReturn(productWiseCoupons);
-        when(bxGyCouponRepository.findAll()).thenReturn(bxGyCoupons);
+    @Test
+    void getAllCoupons_ShouldReturnAllCouponsInOneScan() {
+        // Given
+        when(couponRepository.findAll()).thenReturn(
+            List.of(createCartWiseCoupon(), createProductWiseCoupon(), createBxGyCoupon()));
 
         // When
         List<CouponResponseDTO> result = couponService.getAllCoupons();
 
         // Then
         assertEquals(3, result.size());
-        verify(cartWiseCouponRepository).findAll();
-        verify(productWiseCouponRepository).findAll();
-        verify(bxGyCouponRepository).findAll();
+        assertEquals(List.of("CART_WISE", "PRODUCT_WISE", "BXGY"),
+            result.stream().map(CouponResponseDTO::getType).toList());
+        verify(couponRepository).findAll();
+        verifyNoInteractions(cartWiseCouponRepository, productWiseCouponRepository, bxGyCouponRepository);
+    }
+
+    @Test
+    void getCouponPage_WhenMoreRowsExist_ShouldReturnCursorOfLastCoupon() {
+        // Given
+        BxGyCoupon bxGy = createBxGyCoupon();
+        CartWiseCoupon cartWise = createCartWiseCoupon();
+        ProductWiseCoupon productWise = createProductWiseCoupon();
+        when(couponRepository.findPage(null, true, null, null, null, Limit.of(3)))
+            .thenReturn(List.of(bxGy, cartWise, productWise));
+
+        // When
+        CouponPageDTO page = couponService.getCouponPage(null, true, null, null, 2);
+
+        // Then
+        assertEquals(2, page.getCoupons().size());
+        assertEquals("CART_WISE:1", page.getNextCursor());
+    }
+
+    @Test
+    void getCouponPage_WithCursor_ShouldContinueAfterIt() {
+        // Given
+        when(couponRepository.findPage(CouponType.PRODUCT_WISE, null, null, CouponType.PRODUCT_WISE, 7L, Limit.of(51)))
+            .thenReturn(List.of(createProductWiseCoupon()));
+
+        // When
+        CouponPageDTO page = couponService.getCouponPage(CouponType.PRODUCT_WISE, null, null, "PRODUCT_WISE:7", 50);
+
+        // Then
+        assertEquals(1, page.getCoupons().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getCouponPage_WithMalformedCursor_ShouldThrowException() {
+        // When & Then
+        assertThrows(InvalidCursorException.class, () ->
+            couponService.getCouponPage(null, null, null, "NOPE:1", 50));
+        assertThrows(InvalidCursorException.class, () ->
+            couponService.getCouponPage(null, null, null, "CART_WISE", 50));
+    }
+
+    @Test
+    void streamCoupons_ShouldDetachEveryCouponAfterWritingIt() {
+        // Given
+        List<Coupon> coupons = List.of(createCartWiseCoupon(), createProductWiseCoupon(), createBxGyCoupon());
+        when(couponRepository.streamAll(null, null, null)).thenReturn(coupons.stream());
+        List<String> written = new ArrayList<>();
+
+        // When
+        long streamed = couponService.streamCoupons(null, null, null, coupon -> written.add(coupon.getCode()));
+
+        // Then
+        assertEquals(3, streamed);
+        assertEquals(List.of("CART10", "PRODUCT20", "BUY2GET1"), written);
+        coupons.forEach(coupon -> verify(entityManager).detach(coupon));
     }
 
     @Test
     void getCouponById_WhenCartWiseCouponExists_ShouldReturnCoupon() {
         // Given
         CartWiseCoupon coupon = createCartWiseCoupon();
-        when(cartWiseCouponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
 
         // When
         CouponResponseDTO result = couponService.getCouponById(1L);
@@ -171,9 +353,7 @@ class CouponServiceImplTest {
     @Test
     void getCouponById_WhenCouponNotFound_ShouldThrowException() {
         // Given
-        when(cartWiseCouponRepository.findById(999L)).thenReturn(Optional.empty());
-        when(productWiseCouponRepository.findById(999L)).thenReturn(Optional.empty());
-        when(bxGyCouponRepository.findById(999L)).thenReturn(Optional.empty());
+        when(couponRepository.findById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(CouponNotFoundException.class, () ->
@@ -181,32 +361,165 @@ class CouponServiceImplTest {
     }
 
     @Test
-    void findApplicableCoupons_ShouldReturnApplicableCoupons() {
+    void getCouponById_WhenCalledTwice_ShouldServeSecondLookupFromCache() {
         // Given
-        CartWiseCoupon cartWiseCoupon = createCartWiseCoupon();
-        ProductWiseCoupon productWiseCoupon = createProductWiseCoupon();
-        BxGyCoupon bxGyCoupon = createBxGyCoupon();
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(createCartWiseCoupon()));
 
-        when(cartWiseCouponRepository.findAllActiveCoupons(any(LocalDate.class)))
-            .thenReturn(Arrays.asList(cartWiseCoupon));
-        when(productWiseCouponRepository.findAllActiveCoupons(any(LocalDate.class)))
-            .thenReturn(Arrays.asList(productWiseCoupon));
-        when(bxGyCouponRepository.findAllActiveCoupons(any(LocalDate.class)))
-            .thenReturn(Arrays.asList(bxGyCoupon));
+        // When
+        couponService.getCouponById(1L);
+        CouponResponseDTO result = couponService.getCouponById(1L);
+
+        // Then
+        assertEquals("CART10", result.getCode());
+        verify(couponRepository, times(1)).findById(1L);
+        assertEquals(1, couponService.getCacheStats().get("byId").getHitCount());
+    }
+
+    @Test
+    void getCouponByCode_ShouldShareCachedCouponWithIdLookup() {
+        // Given
+        when(couponCodeFilter.mightContain("CART10")).thenReturn(true);
+        when(couponRepository.findByCode("CART10")).thenReturn(Optional.of(createCartWiseCoupon()));
+
+        // When
+        couponService.getCouponByCode("CART10");
+        couponService.getCouponByCode("CART10");
+        CouponResponseDTO byId = couponService.getCouponById(1L);
+
+        // Then
+        assertEquals("CART10", byId.getCode());
+        verify(couponRepository, times(1)).findByCode("CART10");
+        verify(couponRepository, never()).findById(any());
+    }
+
+    @Test
+    void getCouponByCode_WhenCouponNotFound_ShouldThrowException() {
+        // Given
+        when(couponCodeFilter.mightContain("MISSING")).thenReturn(true); // a false positive
+        when(couponRepository.findByCode("MISSING")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(CouponNotFoundException.class, () -> couponService.getCouponByCode("MISSING"));
+    }
+
+    @Test
+    void getCouponById_WhenCouponIsInSnapshot_ShouldQueryOnlyItsTypedRepository() {
+        // Given
+        when(couponCatalog.current()).thenReturn(CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(), List.of(), List.of(createBxGyCoupon())));
+        when(bxGyCouponRepository.findById(3L)).thenReturn(Optional.of(createBxGyCoupon()));
+
+        // When
+        CouponResponseDTO result = couponService.getCouponById(3L);
+
+        // Then
+        assertEquals("BXGY", result.getType());
+        verifyNoInteractions(couponRepository, cartWiseCouponRepository, productWiseCouponRepository);
+    }
+
+    @Test
+    void getCouponById_WhenCouponIsNotInSnapshot_ShouldLoadPolymorphically() {
+        // Given
+        when(couponRepository.findById(3L)).thenReturn(Optional.of(createBxGyCoupon()));
+
+        // When
+        CouponResponseDTO result = couponService.getCouponById(3L);
+
+        // Then
+        assertEquals("BXGY", result.getType());
+        verifyNoInteractions(cartWiseCouponRepository, productWiseCouponRepository, bxGyCouponRepository);
+    }
+
+    @Test
+    void getCouponById_WhenSnapshotCouponWasDeleted_ShouldThrowException() {
+        // Given
+        when(couponCatalog.current()).thenReturn(CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()), List.of(), List.of()));
+        when(cartWiseCouponRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(CouponNotFoundException.class, () -> couponService.getCouponById(1L));
+        verifyNoInteractions(couponRepository, productWiseCouponRepository, bxGyCouponRepository);
+    }
+
+    @Test
+    void findApplicableCoupons_ShouldEvaluateCatalogSnapshot() {
+        // Given
+        CouponSnapshot snapshot = CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()),
+            List.of(createProductWiseCoupon()),
+            List.of(createBxGyCoupon()));
+        when(couponCatalog.current()).thenReturn(snapshot);
 
         // When
         List<ApplicableCouponDTO> result = couponService.findApplicableCoupons(testCart);
 
         // Then
-        assertNotNull(result);
-        assertTrue(result.size() >= 0); // Depends on mock implementation
+        assertEquals(3, result.size());
+        assertEquals(25.0, result.get(0).getDiscountAmount()); // 10% of 250
+        assertEquals(30.0, result.get(1).getDiscountAmount()); // 20% of (3 * 50)
+        assertEquals(50.0, result.get(2).getDiscountAmount()); // 1 free at 50
+        verifyNoInteractions(cartWiseCouponRepository, productWiseCouponRepository, bxGyCouponRepository);
+    }
+
+    @Test
+    void findApplicableCoupons_ShouldSkipCouponsExpiredSinceSnapshotWasBuilt() {
+        // Given
+        CartWiseCoupon expiresToday = createCartWiseCoupon();
+        expiresToday.setExpirationDate(LocalDate.now());
+        CouponSnapshot snapshot = CouponSnapshot.compile(1L, LocalDate.now().minusDays(1),
+            List.of(expiresToday), List.of(), List.of());
+        when(couponCatalog.current()).thenReturn(snapshot);
+
+        // When
+        List<ApplicableCouponDTO> result = couponService.findApplicableCoupons(testCart);
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findApplicableCoupons_ForEquivalentCart_ShouldReuseCachedResult() {
+        // Given
+        when(couponCatalog.current()).thenReturn(CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()), List.of(), List.of()));
+        CartDTO reordered = new CartDTO(List.of(
+            createItemDTO(202L, 1, 100.0),
+            createItemDTO(201L, 1, 50.0),
+            createItemDTO(201L, 2, 50.0)));
+
+        // When
+        List<ApplicableCouponDTO> first = couponService.findApplicableCoupons(testCart);
+        List<ApplicableCouponDTO> second = couponService.findApplicableCoupons(reordered);
+
+        // Then
+        assertEquals(first, second);
+        CacheStatsDTO stats = couponService.getCacheStats().get("applicableCoupons");
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    void findApplicableCoupons_AfterCatalogChange_ShouldReevaluate() {
+        // Given
+        when(couponCatalog.current())
+            .thenReturn(CouponSnapshot.compile(1L, LocalDate.now(), List.of(), List.of(), List.of()))
+            .thenReturn(CouponSnapshot.compile(2L, LocalDate.now(), List.of(createCartWiseCoupon()), List.of(), List.of()));
+
+        // When
+        List<ApplicableCouponDTO> before = couponService.findApplicableCoupons(testCart);
+        List<ApplicableCouponDTO> after = couponService.findApplicableCoupons(testCart);
+
+        // Then
+        assertTrue(before.isEmpty());
+        assertEquals(1, after.size());
     }
 
     @Test
     void applyCoupon_WhenValidCartWiseCoupon_ShouldApplyDiscount() {
         // Given
         CartWiseCoupon coupon = createCartWiseCoupon();
-        when(cartWiseCouponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
 
         // When
         CouponApplicationResultDTO result = couponService.applyCoupon(1L, testCart);
@@ -219,12 +532,130 @@ class CouponServiceImplTest {
         assertEquals("CART10", result.getAppliedCouponCode());
     }
 
+    @Test
+    void applyCoupon_ShouldRecordRedemptionAgainstUsageLimit() {
+        // Given
+        CartWiseCoupon coupon = createCartWiseCoupon();
+        coupon.setUsageLimit(100);
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+
+        // When
+        couponService.applyCoupon(1L, testCart);
+
+        // Then
+        verify(redemptionCounters).tryRedeem(1L, 100L);
+    }
+
+    @Test
+    void applyCoupon_WhenUsageLimitReached_ShouldThrowException() {
+        // Given
+        CartWiseCoupon coupon = createCartWiseCoupon();
+        coupon.setUsageLimit(1);
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+        when(redemptionCounters.tryRedeem(1L, 1L)).thenReturn(false);
+
+        // When & Then
+        CouponNotApplicableException exception = assertThrows(CouponNotApplicableException.class,
+            () -> couponService.applyCoupon(1L, testCart));
+        assertEquals("Coupon usage limit reached", exception.getMessage());
+    }
+
+    @Test
+    void applyCoupon_WithPerCustomerLimit_ShouldRecordCustomerRedemption() {
+        // Given
+        CartWiseCoupon coupon = createCartWiseCoupon();
+        coupon.setPerCustomerLimit(1);
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+        when(customerRedemptionLedger.tryRedeem(1L, 42L, 1L)).thenReturn(true);
+        testCart.setCustomerId(42L);
+
+        // When
+        couponService.applyCoupon(1L, testCart);
+
+        // Then
+        verify(customerRedemptionLedger).tryRedeem(1L, 42L, 1L);
+        verify(redemptionCounters).tryRedeem(1L, CompiledCoupon.UNLIMITED);
+    }
+
+    @Test
+    void applyCoupon_WhenCustomerReachedLimit_ShouldThrowException() {
+        // Given
+        CartWiseCoupon coupon = createCartWiseCoupon();
+        coupon.setPerCustomerLimit(1);
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+        when(customerRedemptionLedger.tryRedeem(1L, 42L, 1L)).thenReturn(false);
+        testCart.setCustomerId(42L);
+
+        // When & Then
+        CouponNotApplicableException exception = assertThrows(CouponNotApplicableException.class,
+            () -> couponService.applyCoupon(1L, testCart));
+        assertEquals("Coupon usage limit reached for this customer", exception.getMessage());
+        verifyNoInteractions(redemptionCounters);
+    }
+
+    @Test
+    void applyCoupon_WithPerCustomerLimitAndNoCustomer_ShouldThrowException() {
+        // Given
+        CartWiseCoupon coupon = createCartWiseCoupon();
+        coupon.setPerCustomerLimit(1);
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+
+        // When & Then
+        CouponNotApplicableException exception = assertThrows(CouponNotApplicableException.class,
+            () -> couponService.applyCoupon(1L, testCart));
+        assertEquals("Coupon requires a customer id", exception.getMessage());
+    }
+
+    @Test
+    void applyCoupon_WhenUsageLimitReachedAfterCustomerCheck_ShouldReleaseCustomerRedemption() {
+        // Given
+        CartWiseCoupon coupon = createCartWiseCoupon();
+        coupon.setPerCustomerLimit(1);
+        coupon.setUsageLimit(10);
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+        when(customerRedemptionLedger.tryRedeem(1L, 42L, 1L)).thenReturn(true);
+        when(redemptionCounters.tryRedeem(1L, 10L)).thenReturn(false);
+        testCart.setCustomerId(42L);
+
+        // When & Then
+        assertThrows(CouponNotApplicableException.class, () -> couponService.applyCoupon(1L, testCart));
+        verify(customerRedemptionLedger).release(1L, 42L);
+    }
+
+    @Test
+    void applyCoupon_WhenCouponNotApplicable_ShouldNotRecordRedemption() {
+        // Given
+        CartWiseCoupon coupon = createCartWiseCoupon();
+        coupon.setThreshold(BigDecimal.valueOf(1000));
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+
+        // When & Then
+        assertThrows(CouponNotApplicableException.class, () -> couponService.applyCoupon(1L, testCart));
+        verifyNoInteractions(redemptionCounters);
+    }
+
+    @Test
+    void getRedemptionCount_ShouldReturnCountAndUsageLimit() {
+        // Given
+        CartWiseCoupon coupon = createCartWiseCoupon();
+        coupon.setUsageLimit(50);
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+        when(redemptionCounters.total(1L, 50L)).thenReturn(7L);
+
+        // When
+        RedemptionCountDTO result = couponService.getRedemptionCount(1L);
+
+        // Then
+        assertEquals(7, result.getRedeemed());
+        assertEquals(50, result.getUsageLimit());
+    }
+
     @Test
     void applyCoupon_WhenExpiredCoupon_ShouldThrowException() {
         // Given
         CartWiseCoupon expiredCoupon = createCartWiseCoupon();
         expiredCoupon.setExpirationDate(LocalDate.now().minusDays(1));
-        when(cartWiseCouponRepository.findById(1L)).thenReturn(Optional.of(expiredCoupon));
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(expiredCoupon));
 
         // When & Then
         assertThrows(CouponNotApplicableException.class, () ->
@@ -236,19 +667,51 @@ class CouponServiceImplTest {
         // Given
         CartWiseCoupon inactiveCoupon = createCartWiseCoupon();
         inactiveCoupon.setIsActive(false);
-        when(cartWiseCouponRepository.findById(1L)).thenReturn(Optional.of(inactiveCoupon));
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(inactiveCoupon));
 
         // When & Then
         assertThrows(CouponNotApplicableException.class, () ->
             couponService.applyCoupon(1L, testCart));
     }
 
+    @Test
+    void applyCoupon_WhenCouponIsCodeOnly_ShouldThrowException() {
+        // Given
+        CartWiseCoupon generated = createCartWiseCoupon();
+        generated.setCodeOnly(true);
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(generated));
+
+        // When & Then
+        CouponNotApplicableException exception = assertThrows(CouponNotApplicableException.class,
+            () -> couponService.applyCoupon(1L, testCart));
+        assertEquals("Coupon can only be redeemed with its code", exception.getMessage());
+        verifyNoInteractions(redemptionCounters);
+    }
+
+    @Test
+    void applyCouponCode_WhenCouponIsCodeOnly_ShouldLoadItByCode() {
+        // Given
+        CartWiseCoupon generated = createCartWiseCoupon();
+        generated.setCodeOnly(true);
+        generated.setUsageLimit(1);
+        when(couponCodeFilter.mightContain("CART10")).thenReturn(true);
+        when(couponRepository.findByCode("CART10")).thenReturn(Optional.of(generated));
+        when(redemptionCounters.tryRedeem(1L, 1)).thenReturn(true);
+
+        // When
+        CouponApplicationResultDTO result = couponService.applyCouponCode("CART10", testCart);
+
+        // Then
+        assertEquals("CART10", result.getAppliedCouponCode());
+        assertEquals(25.0, result.getDiscountAmount());
+    }
+
     @Test
     void applyCoupon_WhenCouponNotApplicable_ShouldThrowException() {
         // Given
         CartWiseCoupon coupon = createCartWiseCoupon();
         coupon.setThreshold(BigDecimal.valueOf(1000)); // Higher than cart total
-        when(cartWiseCouponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
 
         // When & Then
         assertThrows(CouponNotApplicableException.class, () ->
@@ -259,7 +722,7 @@ class CouponServiceImplTest {
     void applyCoupon_WithProductWiseCoupon_ShouldCalculateCorrectDiscount() {
         // Given
         ProductWiseCoupon coupon = createProductWiseCoupon();
-        when(productWiseCouponRepository.findById(1L)).thenReturn(Optional.of(coupon));
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(coupon));
 
         // When
         CouponApplicationResultDTO result = couponService.applyCoupon(1L, testCart);
@@ -269,6 +732,379 @@ class CouponServiceImplTest {
         assertEquals(30.0, result.getDiscountAmount()); // 20% of (3 * 50) = 30
     }
 
+    @Test
+    void applyCoupon_WhenCouponIsInSnapshot_ShouldNotQueryRepositories() {
+        // Given
+        when(couponCatalog.current()).thenReturn(CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(), List.of(), List.of(createBxGyCoupon())));
+
+        // When
+        CouponApplicationResultDTO result = couponService.applyCoupon(3L, testCart);
+
+        // Then
+        assertEquals("BUY2GET1", result.getAppliedCouponCode());
+        assertEquals(50.0, result.getDiscountAmount()); // 1 free at 50
+        verifyNoInteractions(cartWiseCouponRepository, productWiseCouponRepository, bxGyCouponRepository,
+            transactionManager);
+    }
+
+    @Test
+    void applyCoupon_WithBxGyCouponOutsideSnapshot_ShouldLoadItOnce() {
+        // Given
+        when(couponRepository.findById(3L)).thenReturn(Optional.of(createBxGyCoupon()));
+
+        // When
+        CouponApplicationResultDTO result = couponService.applyCoupon(3L, testCart);
+
+        // Then
+        assertEquals(50.0, result.getDiscountAmount());
+        verify(couponRepository, times(1)).findById(3L);
+    }
+
+    @Test
+    void findApplicableCouponsBatch_ShouldEvaluateAllCartsAgainstOneSnapshot() {
+        // Given
+        CouponSnapshot snapshot = CouponSnapshot.compile(1L, LocalDate.now(), List.of(), List.of(), List.of());
+        List<CartDTO> carts = List.of(testCart, testCart);
+        List<List<ApplicableCouponDTO>> expected = List.of(List.of(), List.of());
+        when(couponCatalog.current()).thenReturn(snapshot);
+        when(cartBatchEvaluator.evaluate(snapshot, carts, LocalDate.now())).thenReturn(expected);
+
+        // When
+        List<List<ApplicableCouponDTO>> result = couponService.findApplicableCoupons(carts);
+
+        // Then
+        assertSame(expected, result);
+        verify(couponCatalog, times(1)).current();
+    }
+
+    @Test
+    void streamApplicableCoupons_ShouldWriteEachResultBeforeReadingNextCart() {
+        // Given
+        when(couponCatalog.current()).thenReturn(CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()), List.of(), List.of()));
+        List<String> events = new ArrayList<>();
+        Iterator<CartDTO> carts = new Iterator<>() {
+            private int remaining = 3;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public CartDTO next() {
+                events.add("read");
+                remaining--;
+                return testCart;
+            }
+        };
+
+        // When
+        long evaluated = couponService.streamApplicableCoupons(carts, result -> events.add("write " + result.size()));
+
+        // Then
+        assertEquals(3, evaluated);
+        assertEquals(List.of("read", "write 1", "read", "write 1", "read", "write 1"), events);
+        verifyNoInteractions(cartBatchEvaluator);
+    }
+
+    @Test
+    void applyBestCoupon_ShouldApplyHighestDiscountCoupon() {
+        // Given
+        CouponSnapshot snapshot = CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()),
+            List.of(createProductWiseCoupon()),
+            List.of(createBxGyCoupon()));
+        when(couponCatalog.current()).thenReturn(snapshot);
+
+        // When
+        CouponApplicationResultDTO result = couponService.applyBestCoupon(testCart);
+
+        // Then
+        assertEquals("BUY2GET1", result.getAppliedCouponCode()); // 50 beats 30 and 25
+        assertEquals(250.0, result.getOriginalTotal());
+        assertEquals(50.0, result.getDiscountAmount());
+        assertEquals(200.0, result.getFinalTotal());
+        verifyNoInteractions(cartWiseCouponRepository, productWiseCouponRepository, bxGyCouponRepository);
+    }
+
+    @Test
+    void applyBestCoupon_WhenCustomerUsedUpBestCoupon_ShouldApplyNextBest() {
+        // Given: the best coupon may be used once per customer
+        BxGyCoupon onePerCustomer = createBxGyCoupon();
+        onePerCustomer.setPerCustomerLimit(1);
+        CouponSnapshot snapshot = CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()), List.of(createProductWiseCoupon()), List.of(onePerCustomer));
+        when(couponCatalog.current()).thenReturn(snapshot);
+        CustomerRedemptionLedger ledger = new CustomerRedemptionLedger(mock(CustomerRedemptionStore.class), 4, 600_000);
+        when(customerRedemptionLedger.isKnownAtLimit(anyLong(), anyLong(), anyLong()))
+            .thenAnswer(call -> ledger.isKnownAtLimit(call.getArgument(0), call.getArgument(1), call.getArgument(2)));
+        when(customerRedemptionLedger.tryRedeem(anyLong(), anyLong(), anyLong()))
+            .thenAnswer(call -> ledger.tryRedeem(call.getArgument(0), call.getArgument(1), call.getArgument(2)));
+        testCart.setCustomerId(42L);
+
+        // When
+        CouponApplicationResultDTO first = couponService.applyBestCoupon(testCart);
+        CouponApplicationResultDTO second = couponService.applyBestCoupon(testCart);
+
+        // Then
+        assertEquals("BUY2GET1", first.getAppliedCouponCode());
+        assertEquals("PRODUCT20", second.getAppliedCouponCode()); // 30 beats 25 once BUY2GET1 is used
+        assertEquals(1L, ledger.count(3L, 42L));
+    }
+
+    @Test
+    void applyBestCoupon_WhenCountIsNotHeld_ShouldLoadItOnlyWhenRedeeming() {
+        // Given: the customer used up the best coupon on another instance
+        BxGyCoupon onePerCustomer = createBxGyCoupon();
+        onePerCustomer.setPerCustomerLimit(1);
+        CartWiseCoupon cartWise = createCartWiseCoupon();
+        cartWise.setPerCustomerLimit(1);
+        when(couponCatalog.current()).thenReturn(CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(cartWise), List.of(createProductWiseCoupon()), List.of(onePerCustomer)));
+        CustomerRedemptionStore store = mock(CustomerRedemptionStore.class);
+        when(store.loadCount(3L, 42L)).thenReturn(1L);
+        CustomerRedemptionLedger ledger = new CustomerRedemptionLedger(store, 4, 600_000);
+        when(customerRedemptionLedger.isKnownAtLimit(anyLong(), anyLong(), anyLong()))
+            .thenAnswer(call -> ledger.isKnownAtLimit(call.getArgument(0), call.getArgument(1), call.getArgument(2)));
+        when(customerRedemptionLedger.tryRedeem(anyLong(), anyLong(), anyLong()))
+            .thenAnswer(call -> ledger.tryRedeem(call.getArgument(0), call.getArgument(1), call.getArgument(2)));
+        testCart.setCustomerId(42L);
+
+        // When
+        CouponApplicationResultDTO result = couponService.applyBestCoupon(testCart);
+
+        // Then: only the coupon chosen for redemption was loaded
+        assertEquals("PRODUCT20", result.getAppliedCouponCode());
+        verify(store).loadCount(3L, 42L);
+        verifyNoMoreInteractions(store);
+        verify(customerRedemptionLedger, never()).count(anyLong(), anyLong());
+    }
+
+    @Test
+    void applyBestCoupon_WithPerCustomerLimitAndNoCustomer_ShouldSkipCoupon() {
+        // Given
+        BxGyCoupon onePerCustomer = createBxGyCoupon();
+        onePerCustomer.setPerCustomerLimit(1);
+        when(couponCatalog.current()).thenReturn(CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()), List.of(), List.of(onePerCustomer)));
+
+        // When
+        CouponApplicationResultDTO result = couponService.applyBestCoupon(testCart);
+
+        // Then
+        assertEquals("CART10", result.getAppliedCouponCode());
+        verifyNoInteractions(customerRedemptionLedger);
+    }
+
+    @Test
+    void applyBestCoupon_WhenRedemptionLosesRace_ShouldFallBackToNextBest() {
+        // Given: the usage limit of the best coupon is reached between the choice and the redemption
+        BxGyCoupon limited = createBxGyCoupon();
+        limited.setUsageLimit(5);
+        when(couponCatalog.current()).thenReturn(CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()), List.of(createProductWiseCoupon()), List.of(limited)));
+        when(redemptionCounters.tryRedeem(3L, 5L)).thenReturn(false);
+
+        // When
+        CouponApplicationResultDTO result = couponService.applyBestCoupon(testCart);
+
+        // Then
+        assertEquals("PRODUCT20", result.getAppliedCouponCode());
+        verify(redemptionCounters).tryRedeem(2L, CompiledCoupon.UNLIMITED);
+    }
+
+    @Test
+    void applyBestCoupon_WhenEveryCouponIsUsedUp_ShouldThrowException() {
+        // Given
+        CartWiseCoupon limited = createCartWiseCoupon();
+        limited.setUsageLimit(1);
+        when(couponCatalog.current()).thenReturn(CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(limited), List.of(), List.of()));
+        when(redemptionCounters.isKnownAtLimit(1L, 1L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(CouponNotApplicableException.class, () -> couponService.applyBestCoupon(testCart));
+        verify(redemptionCounters, never()).tryRedeem(anyLong(), anyLong());
+    }
+
+    @Test
+    void applyBestCoupon_WhenNoCouponApplies_ShouldThrowException() {
+        // Given
+        when(couponCatalog.current()).thenReturn(
+            CouponSnapshot.compile(1L, LocalDate.now(), List.of(), List.of(), List.of()));
+
+        // When & Then
+        assertThrows(CouponNotApplicableException.class, () ->
+            couponService.applyBestCoupon(testCart));
+    }
+
+    @Test
+    void startCodeGeneration_ShouldQueueJobForValidatedTemplate() {
+        // Given
+        GenerateCouponCodesRequest request = createCodeGenerationRequest(CouponType.PRODUCT_WISE, 1000L);
+        CodeGenerationJobDTO queued = new CodeGenerationJobDTO("job-1", CodeGenerationJobDTO.Status.QUEUED,
+            "SALE-", 1000, 0, null, null, null);
+        when(codeGenerationJobs.start(any(Coupon.class), any(CouponCodeGenerator.class), eq(1000L))).thenReturn(queued);
+
+        // When
+        CodeGenerationJobDTO result = couponService.startCodeGeneration(request);
+
+        // Then
+        assertSame(queued, result);
+        verify(codeGenerationJobs).start(argThat(template -> template instanceof ProductWiseCoupon productWise
+                && productWise.getProductId() == 201L && productWise.getCode() == null
+                && productWise.getCodeOnly() && productWise.getUsageLimit() == 1),
+            argThat(generator -> generator.getPrefix().equals("SALE-") && generator.getCodeLength() == 13),
+            eq(1000L));
+    }
+
+    @Test
+    void startCodeGeneration_WhenTemplateIsInvalid_ShouldThrowException() {
+        // Given
+        GenerateCouponCodesRequest bxGy = createCodeGenerationRequest(CouponType.BXGY, 10L);
+        GenerateCouponCodesRequest tooMany = createCodeGenerationRequest(CouponType.CART_WISE, 10L);
+        tooMany.setAlphabet("AB");
+        tooMany.setLength(3);
+        GenerateCouponCodesRequest missingThreshold = createCodeGenerationRequest(CouponType.CART_WISE, 10L);
+
+        // When & Then
+        assertThrows(InvalidCodeGenerationRequestException.class, () -> couponService.startCodeGeneration(bxGy));
+        InvalidCodeGenerationRequestException capacity = assertThrows(InvalidCodeGenerationRequestException.class,
+            () -> couponService.startCodeGeneration(tooMany));
+        assertTrue(capacity.getMessage().contains("only 8 codes"));
+        InvalidCodeGenerationRequestException invalid = assertThrows(InvalidCodeGenerationRequestException.class,
+            () -> couponService.startCodeGeneration(missingThreshold));
+        assertTrue(invalid.getMessage().contains("threshold"));
+        verifyNoInteractions(codeGenerationJobs);
+    }
+
+    @Test
+    void issueSignedCodes_ShouldSignReservedSerialsForExistingCoupon() {
+        // Given
+        when(couponRepository.findById(1L)).thenReturn(Optional.of(createCartWiseCoupon()));
+        when(signedCodeStore.reserveSerials(2)).thenReturn(new long[] {1001L, 1002L});
+
+        // When
+        SignedCodesDTO result = couponService.issueSignedCodes(1L, 2);
+
+        // Then
+        assertEquals(1L, result.getCouponId());
+        assertEquals(List.of(signedCouponCodes.sign(1L, 1001L), signedCouponCodes.sign(1L, 1002L)), result.getCodes());
+        assertThrows(InvalidSignedCodesRequestException.class,
+            () -> couponService.issueSignedCodes(1L, CouponServiceImpl.MAX_SIGNED_CODES + 1));
+    }
+
+    @Test
+    void issueSignedCodes_WhenSigningIsDisabled_ShouldThrowDisabled() {
+        // Given
+        when(signedCouponCodes.isEnabled()).thenReturn(false);
+
+        // When & Then
+        assertThrows(SignedCodesDisabledException.class, () -> couponService.issueSignedCodes(1L, 2));
+        verifyNoInteractions(signedCodeStore);
+    }
+
+    @Test
+    void applySignedCode_ShouldApplyTemplateFromSnapshotAndUseSerialOnce() {
+        // Given
+        CouponSnapshot snapshot = CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()), List.of(), List.of());
+        when(couponCatalog.current()).thenReturn(snapshot);
+        when(redemptionCounters.tryRedeem(eq(1L), anyLong())).thenReturn(true);
+        when(signedCodeStore.markRedeemed(1L, 77L)).thenReturn(true, false);
+        String code = signedCouponCodes.sign(1L, 77L);
+
+        // When
+        CouponApplicationResultDTO result = couponService.applySignedCode(code.toLowerCase(), testCart);
+
+        // Then
+        assertEquals(code, result.getAppliedCouponCode());
+        assertEquals(25.0, result.getDiscountAmount()); // 10% of 250
+        CouponNotApplicableException reused = assertThrows(CouponNotApplicableException.class,
+            () -> couponService.applySignedCode(code, testCart));
+        assertEquals("Coupon code has already been used", reused.getMessage());
+        verify(redemptionCounters, times(1)).tryRedeem(eq(1L), anyLong());
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verifyNoInteractions(cartWiseCouponRepository, couponRepository);
+    }
+
+    @Test
+    void applySignedCode_WhenCodeIsForged_ShouldThrowWithoutLookup() {
+        // Given
+        String genuine = signedCouponCodes.sign(1L, 77L);
+        String forged = genuine.substring(0, genuine.length() - 1) + (genuine.endsWith("A") ? "B" : "A");
+
+        // When & Then
+        assertThrows(CouponNotFoundException.class, () -> couponService.applySignedCode(forged, testCart));
+        verifyNoInteractions(couponCatalog, signedCodeStore, transactionManager, cartWiseCouponRepository, couponRepository);
+    }
+
+    @Test
+    void applyCouponCode_ShouldResolveActiveCouponFromSnapshot() {
+        // Given
+        CouponSnapshot snapshot = CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()), List.of(), List.of());
+        when(couponCatalog.current()).thenReturn(snapshot);
+        when(redemptionCounters.tryRedeem(eq(1L), anyLong())).thenReturn(true);
+
+        // When
+        CouponApplicationResultDTO result = couponService.applyCouponCode("CART10", testCart);
+
+        // Then
+        assertEquals("CART10", result.getAppliedCouponCode());
+        assertEquals(25.0, result.getDiscountAmount());
+        verifyNoInteractions(couponCodeFilter, couponRepository, cartWiseCouponRepository, transactionManager);
+    }
+
+    @Test
+    void applyCouponCode_WhenFilterRulesCodeOut_ShouldThrowWithoutQuery() {
+        // Given
+        when(couponCatalog.current()).thenReturn(
+            CouponSnapshot.compile(1L, LocalDate.now(), List.of(), List.of(), List.of()));
+        when(couponCodeFilter.mightContain("GUESS1")).thenReturn(false);
+
+        // When & Then
+        assertThrows(CouponNotFoundException.class, () -> couponService.applyCouponCode("GUESS1", testCart));
+        verifyNoInteractions(couponRepository, transactionManager);
+    }
+
+    @Test
+    void applyCouponCode_WhenCouponIsNotInSnapshot_ShouldLoadItByCode() {
+        // Given
+        CartWiseCoupon expired = createCartWiseCoupon();
+        expired.setExpirationDate(LocalDate.now().minusDays(1));
+        when(couponCatalog.current()).thenReturn(
+            CouponSnapshot.compile(1L, LocalDate.now(), List.of(), List.of(), List.of()));
+        when(couponCodeFilter.mightContain("CART10")).thenReturn(true);
+        when(couponRepository.findByCode("CART10")).thenReturn(Optional.of(expired));
+
+        // When & Then
+        CouponNotApplicableException exception = assertThrows(CouponNotApplicableException.class,
+            () -> couponService.applyCouponCode("CART10", testCart));
+        assertEquals("Coupon is inactive or expired", exception.getMessage());
+    }
+
+    @Test
+    void applyCouponCode_ShouldAcceptSignedCodes() {
+        // Given
+        CouponSnapshot snapshot = CouponSnapshot.compile(1L, LocalDate.now(),
+            List.of(createCartWiseCoupon()), List.of(), List.of());
+        when(couponCatalog.current()).thenReturn(snapshot);
+        when(redemptionCounters.tryRedeem(eq(1L), anyLong())).thenReturn(true);
+        when(signedCodeStore.markRedeemed(1L, 5L)).thenReturn(true);
+        String code = signedCouponCodes.sign(1L, 5L);
+
+        // When
+        CouponApplicationResultDTO result = couponService.applyCouponCode(code, testCart);
+
+        // Then
+        assertEquals(code, result.getAppliedCouponCode());
+        verifyNoInteractions(couponCodeFilter, couponRepository);
+    }
+
     // Helper methods to create test entities
     private CartWiseCoupon createCartWiseCoupon() {
         CartWiseCoupon coupon = new CartWiseCoupon();
@@ -309,4 +1145,16 @@ class CouponServiceImplTest {
         coupon.setCouponType(CouponType.BXGY);
         return coupon;
     }
+
+    private GenerateCouponCodesRequest createCodeGenerationRequest(CouponType type, long count) {
+        GenerateCouponCodesRequest request = new GenerateCouponCodesRequest();
+        request.setType(type);
+        request.setCount(count);
+        request.setPrefix("SALE-");
+        request.setLength(8);
+        request.setExpirationDate(LocalDate.now().plusDays(30));
+        request.setProductId(201L);
+        request.setDiscountPercentage(BigDecimal.valueOf(20));
+        return request;
+    }
 }
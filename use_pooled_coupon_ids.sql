@@ -0,0 +1,9 @@
+-- ================================================================
+-- PostgreSQL migration: pooled coupon id allocation
+-- The application now reserves coupon ids 50 at a time (Hibernate pooled-lo
+-- optimizer, allocationSize = 50), so the shared sequence must step by 50.
+-- Each nextval value is the first id of a block the application fills itself;
+-- rows inserted directly with DEFAULT nextval simply use up a whole block.
+-- Run once, before starting the application version that uses pooled ids.
+
+ALTER SEQUENCE coupons.hibernate_sequence INCREMENT BY 50;